@@ -0,0 +1,96 @@
+#!/bin/bash
+# ============================================================
+# プラットフォームスレッドと仮想スレッドのスループット比較
+#
+# 同じイメージ（JDK 21）を「通常」と「virtual-threadsプロファイル」で順に起動し、
+# DBを読むエンドポイント（GET /api/teams）に同時接続数を変えながら負荷をかける。
+# DBでの待ちを発生させるため、キャッシュは無効化し、PostgreSQLに割り当てるCPUを絞る。
+#
+# 使い方:
+#   scripts/benchmark-threads.sh <image>
+# 環境変数:
+#   CONNECTIONS="200 1000 2000"  同時接続数（スペース区切り）
+#   DURATION=30s                 1計測あたりの時間
+#   APP_CPUS=2                   アプリに割り当てるCPU
+#   DB_CPUS=0.5                  PostgreSQLに割り当てるCPU
+#   DB_POOL_SIZE=10              コネクションプールの最大数（両モード共通）
+#
+# 例:
+#   docker build -f imadoko_back/Dockerfile --build-arg JAVA_VERSION=21 -t imadoko-back:jdk21 .
+#   imadoko_back/scripts/benchmark-threads.sh imadoko-back:jdk21
+# ============================================================
+set -euo pipefail
+
+IMAGE="${1:?usage: $0 <image>}"
+CONNECTIONS="${CONNECTIONS:-200 1000 2000}"
+DURATION="${DURATION:-30s}"
+APP_CPUS="${APP_CPUS:-2}"
+DB_CPUS="${DB_CPUS:-0.5}"
+DB_POOL_SIZE="${DB_POOL_SIZE:-10}"
+NETWORK=imadoko-threads-bench
+DB=imadoko-threads-db
+APP=imadoko-threads-app
+
+cleanup() {
+  docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+start_db() {
+  docker network create "$NETWORK" >/dev/null
+  docker run -d --name "$DB" --network "$NETWORK" --cpus "$DB_CPUS" \
+    -e POSTGRES_DB=imadoko -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres \
+    postgres:16-alpine >/dev/null
+  until docker exec "$DB" pg_isready -U postgres >/dev/null 2>&1; do sleep 1; done
+}
+
+# profiles: SPRING_PROFILES_ACTIVE に渡す値（空なら通常モード）
+start_app() {
+  local profiles="$1"
+  docker run -d --name "$APP" --network "$NETWORK" --cpus "$APP_CPUS" \
+    -e SPRING_PROFILES_ACTIVE="$profiles" \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/imadoko" \
+    -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+    -e DB_POOL_SIZE="$DB_POOL_SIZE" \
+    -e CACHE_TEAMS_SPEC=maximumSize=0 -e CACHE_TEAM_LIST_SPEC=maximumSize=0 \
+    -e SPRING_JPA_SHOW_SQL=false \
+    "$IMAGE" >/dev/null
+  until docker exec "$APP" curl -fs http://localhost:8080/actuator/health >/dev/null 2>&1; do
+    if [ "$(docker inspect -f '{{.State.Running}}' "$APP")" != "true" ]; then
+      docker logs "$APP" >&2
+      echo "container exited before becoming healthy" >&2
+      exit 1
+    fi
+    sleep 1
+  done
+}
+
+# 1回分の負荷をかけ、「接続数 req/s p50 p99 エラー数」を出力する
+load() {
+  local connections="$1"
+  local out
+  out=$(docker run --rm --network "$NETWORK" williamyeh/wrk \
+    -t4 -c "$connections" -d "$DURATION" --timeout 30s --latency \
+    "http://$APP:8080/api/teams?limit=50")
+  local rps p50 p99 non2xx socket
+  rps=$(echo "$out" | awk '/Requests\/sec/ { print $2 }')
+  p50=$(echo "$out" | awk '$1 == "50%" { print $2 }')
+  p99=$(echo "$out" | awk '$1 == "99%" { print $2 }')
+  non2xx=$(echo "$out" | awk '/Non-2xx/ { print $NF }')
+  socket=$(echo "$out" | awk '/Socket errors/ { gsub(/,/, ""); print $4 + $6 + $8 + $10 }')
+  echo "$connections $rps $p50 $p99 $((${non2xx:-0} + ${socket:-0}))"
+}
+
+start_db
+for mode in platform virtual; do
+  profiles=""
+  [ "$mode" = virtual ] && profiles=virtual-threads
+  start_app "$profiles"
+  load 50 >/dev/null # ウォームアップ（JIT・初期データ投入）
+  for c in $CONNECTIONS; do
+    read -r conn rps p50 p99 errors < <(load "$c")
+    printf '%-8s c=%-5s %10s req/s  p50=%-9s p99=%-9s errors=%s\n' "$mode" "$conn" "$rps" "$p50" "$p99" "$errors"
+  done
+  docker rm -f "$APP" >/dev/null
+done
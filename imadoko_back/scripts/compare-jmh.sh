@@ -0,0 +1,51 @@
+#!/bin/bash
+# ============================================================
+# JMHの結果（-rf json）を2つ比較する
+#
+# ベンチマーク名とパラメータの組み合わせごとに、基準と今回のスコア・変化率を出力する。
+# 変化率は「遅くなった方向」を正とする（avgtはスコアの増加、thrptは減少が悪化）。
+#
+# 使い方:
+#   scripts/compare-jmh.sh <baseline.json> <current.json>
+# 環境変数:
+#   MAX_REGRESSION_PCT=   指定した場合、悪化がこれを超えたベンチマークがあれば終了コード1
+#
+# 例:
+#   mvn -Pjmh -DskipTests verify
+#   scripts/compare-jmh.sh jmh-result-0.0.1.json target/jmh-result-0.0.2-SNAPSHOT.json
+# ============================================================
+set -euo pipefail
+
+BASELINE="${1:?usage: $0 <baseline.json> <current.json>}"
+CURRENT="${2:?usage: $0 <baseline.json> <current.json>}"
+MAX_REGRESSION_PCT="${MAX_REGRESSION_PCT:-}"
+
+# "ベンチマーク名 パラメータ" → 結果 のオブジェクトに変換する
+index() {
+  jq 'map({
+        key: ([(.benchmark | split(".") | .[-2:] | join(".")),
+               ((.params // {}) | to_entries | map("\(.key)=\(.value)") | join(","))]
+              | map(select(. != "")) | join(" ")),
+        value: {mode, score: .primaryMetric.score, error: .primaryMetric.scoreError, unit: .primaryMetric.scoreUnit}
+      }) | from_entries' "$1"
+}
+
+report=$(jq -n -r --argjson base "$(index "$BASELINE")" --argjson cur "$(index "$CURRENT")" \
+  --arg max "$MAX_REGRESSION_PCT" '
+  def pct(b; c; mode): if mode == "avgt" or mode == "sample" or mode == "ss"
+    then (c - b) / b * 100 else (b - c) / b * 100 end;
+  "benchmark\tbaseline\tcurrent\tunit\tregression",
+  ($cur | keys) as $keys
+  | ([$keys[] | select($base[.] != null)
+      | {key: ., b: $base[.], c: $cur[.]}
+      | . + {regression: pct(.b.score; .c.score; .c.mode)}]) as $rows
+  | ($rows[] | "\(.key)\t\(.b.score | . * 1000 | round / 1000)\t\(.c.score | . * 1000 | round / 1000)\t\(.c.unit)\t\(.regression | . * 10 | round / 10)%"),
+    ([$keys[] | select($base[.] == null)] | if length > 0 then "new: \(join(", "))" else empty end),
+    (if $max != "" and ([$rows[] | select(.regression > ($max | tonumber))] | length > 0)
+      then "REGRESSION: " + ([$rows[] | select(.regression > ($max | tonumber)) | .key] | join(", "))
+      else empty end)
+')
+echo "$report"
+if grep -q '^REGRESSION:' <<<"$report"; then
+  exit 1
+fi
@@ -0,0 +1,35 @@
+#!/bin/sh
+# ============================================================
+# 実行可能jarをCDS（Class Data Sharing）で使える形に展開する
+#
+# CDSはjar内のjar（BOOT-INF/lib/*.jar）やディレクトリのクラスをアーカイブできないため、
+#   <out>/application.jar  アプリのクラスとリソース（Class-Pathで lib/ を参照）
+#   <out>/lib/*.jar        依存ライブラリ
+# の構成に展開する。起動は java -jar <out>/application.jar
+#
+# 使い方: extract-for-cds.sh <app.jar> <out>
+# ============================================================
+set -eu
+
+JAR="$(realpath "$1")"
+OUT="$2"
+WORK="$(mktemp -d)"
+
+mkdir -p "$OUT/lib"
+(cd "$WORK" && unzip -q "$JAR")
+cp "$WORK"/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+MAIN_CLASS="$(sed -n 's/^Start-Class: *//p' "$WORK/META-INF/MANIFEST.MF" | tr -d '\r')"
+
+# マニフェストの1行は72バイトまで。2行目以降は先頭の空白1つが継続を表すため、区切りの空白と合わせて2つ付ける
+{
+  echo "Main-Class: $MAIN_CLASS"
+  printf 'Class-Path: '
+  for lib in $(cd "$OUT" && ls lib/*.jar | sort); do
+    printf '\n  %s' "$lib"
+  done
+  printf '\n'
+} > "$WORK/MANIFEST.txt"
+
+jar --create --file "$OUT/application.jar" --manifest "$WORK/MANIFEST.txt" -C "$WORK/BOOT-INF/classes" .
+rm -rf "$WORK"
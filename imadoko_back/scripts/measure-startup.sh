@@ -0,0 +1,93 @@
+#!/bin/bash
+# ============================================================
+# 起動時間の計測（コールドスタートの再現）
+#
+# 専用のPostgreSQLコンテナを用意し、指定したイメージを毎回新しいコンテナとして起動して
+# 「docker run から /actuator/health が200を返すまで」の時間を計測する。
+# 1回目はマイグレーションと初期データ投入を含むため、計測から除外する。
+#
+# 使い方:
+#   scripts/measure-startup.sh <image> [<image> ...]
+# 環境変数:
+#   RUNS=5            計測回数（イメージごと）
+#   CPUS=1            コンテナに割り当てるCPU（Renderの無料枠に合わせて1）
+#   MEMORY=512m       コンテナのメモリ上限
+#   MAX_MEDIAN_MS=    指定した場合、中央値がこれを超えたイメージがあれば終了コード1
+#
+# 例:
+#   docker build -f imadoko_back/Dockerfile -t imadoko-back .
+#   docker build -f imadoko_back/Dockerfile.fast-startup -t imadoko-back:fast .
+#   imadoko_back/scripts/measure-startup.sh imadoko-back imadoko-back:fast
+# ============================================================
+set -euo pipefail
+
+RUNS="${RUNS:-5}"
+CPUS="${CPUS:-1}"
+MEMORY="${MEMORY:-512m}"
+MAX_MEDIAN_MS="${MAX_MEDIAN_MS:-}"
+NETWORK=imadoko-startup-bench
+DB=imadoko-startup-db
+APP=imadoko-startup-app
+PORT=18080
+
+cleanup() {
+  docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NETWORK" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() { date +%s%3N; }
+
+start_db() {
+  docker network create "$NETWORK" >/dev/null
+  docker run -d --name "$DB" --network "$NETWORK" \
+    -e POSTGRES_DB=imadoko -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres \
+    postgres:16-alpine >/dev/null
+  until docker exec "$DB" pg_isready -U postgres >/dev/null 2>&1; do sleep 1; done
+}
+
+# 1回起動し、healthが200になるまでのミリ秒を出力する
+run_once() {
+  local image="$1"
+  local start end
+  start=$(now_ms)
+  docker run -d --name "$APP" --network "$NETWORK" --cpus "$CPUS" --memory "$MEMORY" -p "$PORT:8080" \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/imadoko" \
+    -e SPRING_DATASOURCE_USERNAME=postgres -e SPRING_DATASOURCE_PASSWORD=postgres \
+    "$image" >/dev/null
+  until curl -fs "http://localhost:$PORT/actuator/health" >/dev/null 2>&1; do
+    if [ "$(docker inspect -f '{{.State.Running}}' "$APP")" != "true" ]; then
+      docker logs "$APP" >&2
+      echo "container exited before becoming healthy" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  end=$(now_ms)
+  # Spring Bootが出力する起動時間（JVM内で計測した値）も併記する
+  local started
+  started=$(docker logs "$APP" 2>&1 | sed -n 's/.*Started ImadokoBackApplication in \([0-9.]*\) seconds.*/\1/p' | tail -1)
+  docker rm -f "$APP" >/dev/null
+  echo "$((end - start)) ${started:-?}"
+}
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'; }
+
+start_db
+failed=0
+for image in "$@"; do
+  run_once "$image" >/dev/null # ウォームアップ（マイグレーション・初期データ投入）
+  results=()
+  for i in $(seq 1 "$RUNS"); do
+    read -r ms started < <(run_once "$image")
+    echo "$image run $i: health ${ms}ms (Started in ${started}s)"
+    results+=("$ms")
+  done
+  med=$(printf '%s\n' "${results[@]}" | median)
+  echo "$image median: ${med}ms"
+  if [ -n "$MAX_MEDIAN_MS" ] && [ "$med" -gt "$MAX_MEDIAN_MS" ]; then
+    echo "$image exceeds MAX_MEDIAN_MS=${MAX_MEDIAN_MS}" >&2
+    failed=1
+  fi
+done
+exit "$failed"
@@ -0,0 +1,92 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.common.api.ErrorResponse;
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.GlobalExceptionHandler;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.controller.TeamController;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.domain.Team;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+/**
+ * GlobalExceptionHandler のエラーレスポンス生成
+ *
+ * <p>例外は事前に生成しておき、ハンドラーの処理のみを計測する。ハンドラーのログ出力は logback-test.xml で止めている
+ * （出力先のI/Oを計測しないため）。validation はフィールドエラーが errors 件ある場合。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+  @Param({"1", "14"})
+  int errors;
+
+  private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+  private ImadokoException business;
+  private MethodArgumentNotValidException validation;
+  private ObjectOptimisticLockingFailureException optimisticLock;
+  private Exception unexpected;
+
+  @Setup
+  public void setUp() throws NoSuchMethodException {
+    business = new ImadokoException(ErrorCode.TEAM_NOT_FOUND);
+
+    TeamRequest request = new TeamRequest("Team 1", Rosters.players(errors, "LB"));
+    BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(request, "teamRequest");
+    for (int i = 0; i < errors; i++) {
+      bindingResult.addError(
+          new FieldError(
+              "teamRequest",
+              "players[" + i + "].position",
+              "ポジションはS, WS, MB, OP, Liのいずれかを指定してください"));
+    }
+    MethodParameter parameter =
+        new MethodParameter(TeamController.class.getMethod("createTeam", TeamRequest.class), 0);
+    validation = new MethodArgumentNotValidException(parameter, bindingResult);
+
+    optimisticLock = new ObjectOptimisticLockingFailureException(Team.class, 1L);
+    unexpected = new IllegalStateException("unexpected");
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorResponse> business() {
+    return handler.handleImadokoException(business);
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorResponse> validation() {
+    return handler.handleValidationException(validation);
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorResponse> optimisticLock() {
+    return handler.handleOptimisticLockingFailure(optimisticLock);
+  }
+
+  @Benchmark
+  public ResponseEntity<ErrorResponse> unexpected() {
+    return handler.handleException(unexpected);
+  }
+}
@@ -0,0 +1,49 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.PlayerResponse;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import java.util.ArrayList;
+import java.util.List;
+
+/** ベンチマーク用のチーム・選手データ。ポジションはS, WS, MB, OP, Liを順に割り当てる */
+final class Rosters {
+
+  private static final String[] POSITIONS = {"S", "WS", "MB", "OP", "WS", "MB", "Li"};
+
+  private Rosters() {}
+
+  static TeamResponse team(long id, int players) {
+    List<PlayerResponse> roster = new ArrayList<>(players);
+    for (int i = 0; i < players; i++) {
+      roster.add(
+          new PlayerResponse(
+              id * 100 + i, "First" + i, "Last" + i, POSITIONS[i % POSITIONS.length]));
+    }
+    return new TeamResponse(id, "Team " + id, roster, 0L);
+  }
+
+  static List<TeamResponse> teams(int teams, int players) {
+    List<TeamResponse> list = new ArrayList<>(teams);
+    for (int i = 1; i <= teams; i++) {
+      list.add(team(i, players));
+    }
+    return list;
+  }
+
+  static TeamRequest request(String teamName, int players) {
+    return new TeamRequest(teamName, players(players, null));
+  }
+
+  /** position を指定した場合は全選手をそのポジションにする（不正な値の検証用） */
+  static List<PlayerRequest> players(int players, String position) {
+    List<PlayerRequest> list = new ArrayList<>(players);
+    for (int i = 0; i < players; i++) {
+      list.add(
+          new PlayerRequest(
+              "First" + i, "Last" + i, position != null ? position : POSITIONS[i % POSITIONS.length]));
+    }
+    return list;
+  }
+}
@@ -0,0 +1,85 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * チーム一覧の形式（Accept）ごとの変換時間とサイズ
+ *
+ * <p>ObjectMapperはアプリケーション（JacksonConfig）と同じくBlackbirdModuleを登録して生成する。teams=1は GET /api/teams/{id}、
+ * それ以外は GET /api/teams に相当する。サイズ（非圧縮とgzip後のバイト数）は計測前に標準出力へ1行出力する。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamEncodingBenchmark {
+
+  @Param({"json", "smile", "cbor"})
+  String format;
+
+  @Param({"1", "100"})
+  int teams;
+
+  @Param({"6", "14"})
+  int players;
+
+  private ObjectMapper objectMapper;
+  private List<TeamResponse> list;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws IOException {
+    Jackson2ObjectMapperBuilder builder =
+        switch (format) {
+          case "json" -> Jackson2ObjectMapperBuilder.json();
+          case "smile" -> Jackson2ObjectMapperBuilder.smile();
+          case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+          default -> throw new IllegalArgumentException(format);
+        };
+    objectMapper = builder.modulesToInstall(new BlackbirdModule()).build();
+    list = Rosters.teams(teams, players);
+    encoded = objectMapper.writeValueAsBytes(list);
+    System.out.printf(
+        "payload format=%s teams=%d players=%d bytes=%d gzip=%d%n",
+        format, teams, players, encoded.length, gzip(encoded).length);
+  }
+
+  @Benchmark
+  public byte[] write() throws IOException {
+    return objectMapper.writeValueAsBytes(list);
+  }
+
+  @Benchmark
+  public TeamResponse[] read() throws IOException {
+    return objectMapper.readValue(encoded, TeamResponse[].class);
+  }
+
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(bytes);
+    }
+    return out.toByteArray();
+  }
+}
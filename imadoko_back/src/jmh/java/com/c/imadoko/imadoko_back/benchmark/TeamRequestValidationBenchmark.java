@@ -0,0 +1,66 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TeamRequest の入力チェック（@Valid）
+ *
+ * <p>選手ごとにポジションの @Pattern が評価される。invalid は全選手のポジションが不正な場合で、エラーメッセージの生成を含む。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamRequestValidationBenchmark {
+
+  @Param({"1", "6", "14"})
+  int players;
+
+  private ValidatorFactory factory;
+  private Validator validator;
+  private TeamRequest valid;
+  private TeamRequest invalid;
+
+  @Setup
+  public void setUp() {
+    factory = Validation.buildDefaultValidatorFactory();
+    validator = factory.getValidator();
+    valid = Rosters.request("Team 1", players);
+    invalid = new TeamRequest("Team 1", Rosters.players(players, "LB"));
+  }
+
+  @TearDown
+  public void tearDown() {
+    factory.close();
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<TeamRequest>> valid() {
+    return validator.validate(valid);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<TeamRequest>> invalid() {
+    return validator.validate(invalid);
+  }
+}
@@ -0,0 +1,101 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * TeamResponse/PlayerResponse のJSON変換
+ *
+ * <p>ObjectMapperはSpring Bootと同じビルダーの既定値で生成し、accessorで比較する（blackbird: アプリケーションと同じく
+ * BlackbirdModuleを登録、reflection: 未登録）。一覧（GET /api/teams）はteams件のチームをまとめて変換する。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeamSerializationBenchmark {
+
+  /** 変換に使用するObjectMapper */
+  @State(Scope.Benchmark)
+  public static class Mapper {
+    @Param({"blackbird", "reflection"})
+    String accessor;
+
+    ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+      Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+      if (accessor.equals("blackbird")) {
+        builder.modulesToInstall(new BlackbirdModule());
+      }
+      objectMapper = builder.build();
+    }
+  }
+
+  /** 1チーム分（GET /api/teams/{id}、POST/PUTのリクエスト本文） */
+  @State(Scope.Benchmark)
+  public static class Roster {
+    @Param({"0", "6", "14"})
+    int players;
+
+    TeamResponse team;
+    byte[] requestJson;
+
+    @Setup
+    public void setUp(Mapper mapper) throws IOException {
+      team = Rosters.team(1, players);
+      requestJson = mapper.objectMapper.writeValueAsBytes(Rosters.request("Team 1", players));
+    }
+  }
+
+  /** チーム一覧 */
+  @State(Scope.Benchmark)
+  public static class TeamList {
+    @Param({"10", "100"})
+    int teams;
+
+    @Param({"6", "14"})
+    int players;
+
+    List<TeamResponse> list;
+
+    @Setup
+    public void setUp() {
+      list = Rosters.teams(teams, players);
+    }
+  }
+
+  @Benchmark
+  public byte[] writeTeam(Mapper mapper, Roster roster) throws IOException {
+    return mapper.objectMapper.writeValueAsBytes(roster.team);
+  }
+
+  @Benchmark
+  public TeamRequest readTeamRequest(Mapper mapper, Roster roster) throws IOException {
+    return mapper.objectMapper.readValue(roster.requestJson, TeamRequest.class);
+  }
+
+  @Benchmark
+  public byte[] writeTeamList(Mapper mapper, TeamList teams) throws IOException {
+    return mapper.objectMapper.writeValueAsBytes(teams.list);
+  }
+}
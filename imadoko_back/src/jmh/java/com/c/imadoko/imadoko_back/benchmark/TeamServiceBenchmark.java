@@ -0,0 +1,96 @@
+package com.c.imadoko.imadoko_back.benchmark;
+
+import com.c.imadoko.imadoko_back.ImadokoBackApplication;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.service.TeamService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * TeamService の登録・更新（H2インメモリDB）
+ *
+ * <p>Webサーバーを除いたアプリケーション全体を起動し、マイグレーション・キャッシュ・トランザクションを含めて計測する。
+ * 登録はチーム名が重複しないよう毎回別の名前を使い、イテレーションごとにテーブルを空にする。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TeamServiceBenchmark {
+
+  @Param({"6", "14"})
+  int players;
+
+  private ConfigurableApplicationContext context;
+  private TeamService teamService;
+  private JdbcTemplate jdbcTemplate;
+  private long sequence;
+  private Long updateTargetId;
+  private TeamRequest[] updates;
+
+  @Setup(Level.Trial)
+  public void startContext() {
+    context =
+        new SpringApplicationBuilder(ImadokoBackApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test") // 初期データを投入しない
+            .properties(
+                "spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "spring.jpa.show-sql=false")
+            .run();
+    teamService = context.getBean(TeamService.class);
+    jdbcTemplate = context.getBean(JdbcTemplate.class);
+  }
+
+  @Setup(Level.Iteration)
+  public void prepareUpdateTarget() {
+    String name = "Update Target";
+    updateTargetId = teamService.create(Rosters.request(name, players)).id();
+    // 同じ名前で選手を入れ替える2種類のリクエストを交互に適用する
+    updates = new TeamRequest[] {Rosters.request(name, players), Rosters.request(name, players)};
+  }
+
+  @TearDown(Level.Iteration)
+  public void clearTables() {
+    jdbcTemplate.update("DELETE FROM player");
+    jdbcTemplate.update("DELETE FROM team");
+  }
+
+  @TearDown(Level.Trial)
+  public void closeContext() {
+    context.close();
+  }
+
+  @Benchmark
+  public TeamResponse create() {
+    return teamService.create(Rosters.request("Team " + sequence++, players));
+  }
+
+  @Benchmark
+  public TeamResponse update() {
+    return teamService.update(updateTargetId, updates[(int) (sequence++ & 1)]);
+  }
+}
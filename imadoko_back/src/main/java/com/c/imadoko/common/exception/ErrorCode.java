@@ -10,9 +10,21 @@ public enum ErrorCode {
 
     INTERNAL_SERVER_ERROR("E999", "予期せぬエラーが発生しました", HttpStatus.INTERNAL_SERVER_ERROR),
     INVALID_REQUEST("E400", "リクエストが不正です", HttpStatus.BAD_REQUEST),
+    SERVICE_BUSY("E503", "混み合っています。しばらくしてから再度お試しください", HttpStatus.SERVICE_UNAVAILABLE),
+    TOO_MANY_REQUESTS("E429", "リクエストが多すぎます。しばらくしてから再度お試しください", HttpStatus.TOO_MANY_REQUESTS),
+    IDEMPOTENCY_IN_PROGRESS("E409", "同じIdempotency-Keyのリクエストを処理中です。しばらくしてから再度お試しください", HttpStatus.CONFLICT),
+    IDEMPOTENCY_KEY_MISMATCH("E422", "同じIdempotency-Keyで異なる内容のリクエストが送信されました", HttpStatus.UNPROCESSABLE_ENTITY),
+    PAYLOAD_TOO_LARGE("E413", "リクエストの本文が大きすぎます", HttpStatus.PAYLOAD_TOO_LARGE),
 
     TEAM_NOT_FOUND("E101", "指定されたチームが見つかりません", HttpStatus.NOT_FOUND),
-    DUPLICATE_TEAM_NAME("E102", "そのチーム名は既に使用されています", HttpStatus.CONFLICT);
+    DUPLICATE_TEAM_NAME("E102", "そのチーム名は既に使用されています", HttpStatus.CONFLICT),
+    TEAM_VERSION_MISMATCH("E103", "チームは既に更新されています。最新の情報を取得してください", HttpStatus.PRECONDITION_FAILED),
+    CONCURRENT_UPDATE("E104", "他の更新と競合しました。再度お試しください", HttpStatus.CONFLICT),
+    NOT_ENOUGH_PLAYERS("E105", "スタメンを組むにはリベロ以外の選手が6人以上必要です", HttpStatus.UNPROCESSABLE_ENTITY),
+
+    MATCH_NOT_FOUND("E201", "指定された試合が見つかりません", HttpStatus.NOT_FOUND),
+    MATCH_SEQ_MISMATCH("E202", "試合は既に更新されています。最新の状態を取得してください", HttpStatus.PRECONDITION_FAILED),
+    MATCH_CONCURRENT_APPEND("E203", "他の端末の記録と同時に追記されました。再度お試しください", HttpStatus.CONFLICT);
 
     private final String code;
     private final String message;
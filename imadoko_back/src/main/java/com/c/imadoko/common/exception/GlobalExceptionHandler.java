@@ -2,27 +2,70 @@ package com.c.imadoko.common.exception;
 
 import com.c.imadoko.common.api.ErrorResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /** 応答したエラーコードを保持するリクエスト属性。リクエストのメトリクスのタグに使用する */
+    public static final String ERROR_CODE_ATTRIBUTE = GlobalExceptionHandler.class.getName() + ".errorCode";
+
+    /** 一意制約違反のSQLSTATE（PostgreSQL・H2共通） */
+    private static final String UNIQUE_VIOLATION = "23505";
+
+    /**
+     * 例外に対応するエラーコード（各ハンドラーと同じ対応）
+     *
+     * <p>ハンドラーを通らない箇所（サービスのメトリクスなど）で、応答と同じ分類を行うために使用する。
+     */
+    public static ErrorCode errorCodeOf(Throwable ex) {
+        if (ex instanceof ImadokoException ie) {
+            return ie.getErrorCode();
+        }
+        if (ex instanceof MethodArgumentNotValidException) {
+            return ErrorCode.INVALID_REQUEST;
+        }
+        if (ex instanceof ObjectOptimisticLockingFailureException) {
+            return ErrorCode.CONCURRENT_UPDATE;
+        }
+        if (ex instanceof DataIntegrityViolationException dive && isDuplicateTeamName(dive)) {
+            return ErrorCode.DUPLICATE_TEAM_NAME;
+        }
+        if (ex instanceof CannotCreateTransactionException || ex instanceof CannotGetJdbcConnectionException) {
+            return ErrorCode.SERVICE_BUSY;
+        }
+        return ErrorCode.INTERNAL_SERVER_ERROR;
+    }
+
     @ExceptionHandler(ImadokoException.class)
     public ResponseEntity<ErrorResponse> handleImadokoException(ImadokoException ex) {
         ErrorCode ec = ex.getErrorCode();
+        recordErrorCode(ec);
         // 業務例外はWARNレベルでログ出力（必要に応じてINFO/ERROR調整）
         log.warn("Business exception occurred: code={}, message={}", ec.getCode(), ec.getMessage());
 
-        return ResponseEntity
-                .status(ec.getStatus())
-                .body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(ec.getStatus());
+        if (ex.getRetryAfter() != null) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfterSeconds(ex.getRetryAfter()));
+        }
+        return response.body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of()));
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -34,6 +77,7 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.toList());
 
         ErrorCode ec = ErrorCode.INVALID_REQUEST;
+        recordErrorCode(ec);
         log.warn("Validation error: {}", details);
 
         return ResponseEntity
@@ -41,14 +85,77 @@ public class GlobalExceptionHandler {
                 .body(ErrorResponse.of(ec.getCode(), "入力内容に誤りがあります", details));
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        // 同時更新による競合は業務例外と同様に扱う
+        ErrorCode ec = ErrorCode.CONCURRENT_UPDATE;
+        recordErrorCode(ec);
+        log.warn("Optimistic locking failure: entity={}, id={}", ex.getPersistentClassName(), ex.getIdentifier());
+
+        return ResponseEntity
+                .status(ec.getStatus())
+                .body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of()));
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponse> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (!isDuplicateTeamName(ex)) {
+            return handleException(ex);
+        }
+        // チーム名の重複は事前に検索せず、UNIQUE制約の違反で検出している
+        ErrorCode ec = ErrorCode.DUPLICATE_TEAM_NAME;
+        recordErrorCode(ec);
+        log.warn("Business exception occurred: code={}, message={}", ec.getCode(), ec.getMessage());
+
+        return ResponseEntity
+                .status(ec.getStatus())
+                .body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of()));
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<ErrorResponse> handleConnectionUnavailable(RuntimeException ex) {
+        // コネクションの取得待ちがタイムアウトした（混雑）。再試行できるよう503を返す
+        ErrorCode ec = ErrorCode.SERVICE_BUSY;
+        recordErrorCode(ec);
+        log.warn("Database connection unavailable: {}", ex.getMessage());
+
+        return ResponseEntity
+                .status(ec.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception ex) {
         // 予期せぬエラーはERRORレベルでスタックトレースを出力
         log.error("Unexpected error occurred", ex);
 
         ErrorCode ec = ErrorCode.INTERNAL_SERVER_ERROR;
+        recordErrorCode(ec);
         return ResponseEntity
                 .status(ec.getStatus())
                 .body(ErrorResponse.of(ec.getCode(), ec.getMessage(), List.of(ex.getMessage())));
     }
+
+    private static boolean isDuplicateTeamName(DataIntegrityViolationException ex) {
+        Throwable cause = ex.getMostSpecificCause();
+        if (!(cause instanceof SQLException sql) || !UNIQUE_VIOLATION.equals(sql.getSQLState())) {
+            return false;
+        }
+        String message = sql.getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("team_name");
+    }
+
+    /** Retry-After は秒単位のため切り上げる（0秒は即時の再試行を招くため最低1秒） */
+    private static String retryAfterSeconds(Duration retryAfter) {
+        long millis = retryAfter.toMillis();
+        return Long.toString(Math.max(1, (millis + 999) / 1000));
+    }
+
+    private static void recordErrorCode(ErrorCode ec) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(ERROR_CODE_ATTRIBUTE, ec, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
 }
@@ -2,12 +2,22 @@ package com.c.imadoko.common.exception;
 
 import lombok.Getter;
 
+import java.time.Duration;
+
 @Getter
 public class ImadokoException extends RuntimeException {
     private final ErrorCode errorCode;
 
+    /** 再試行までの待ち時間。指定した場合は Retry-After ヘッダーで返す */
+    private final Duration retryAfter;
+
     public ImadokoException(ErrorCode errorCode) {
+        this(errorCode, null);
+    }
+
+    public ImadokoException(ErrorCode errorCode, Duration retryAfter) {
         super(errorCode.getMessage());
         this.errorCode = errorCode;
+        this.retryAfter = retryAfter;
     }
 }
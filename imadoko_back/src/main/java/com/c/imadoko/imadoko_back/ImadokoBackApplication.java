@@ -3,7 +3,8 @@ package com.c.imadoko.imadoko_back;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// 共通パッケージ（com.c.imadoko.common）のGlobalExceptionHandlerも読み込む
+@SpringBootApplication(scanBasePackages = "com.c.imadoko")
 public class ImadokoBackApplication {
 
   public static void main(String[] args) {
@@ -0,0 +1,68 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.InvalidMimeTypeException;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * 応答の形式ごとのETagの接尾辞
+ *
+ * <p>同じ内容でもAcceptによってJSON/CBOR/Smile（JacksonConfig）のいずれかで返すため、強いETagが形式をまたいで一致しないよう
+ * CBORとSmileには接尾辞を付ける（JSONは従来どおり接尾辞なし）。形式はAcceptから、メッセージコンバーターと同じ優先順で判定する。
+ * If-Matchの照合では接尾辞を取り除き、どの形式で取得したETagでも更新できるようにする。
+ */
+enum ETagEncoding {
+  JSON(MediaType.APPLICATION_JSON, ""),
+  CBOR(MediaType.APPLICATION_CBOR, "-cbor"),
+  SMILE(new MediaType("application", "x-jackson-smile"), "-smile");
+
+  private final MediaType mediaType;
+  private final String suffix;
+
+  ETagEncoding(MediaType mediaType, String suffix) {
+    this.mediaType = mediaType;
+    this.suffix = suffix;
+  }
+
+  /** Acceptのうち優先度の高いものから、返す形式を判定する。未指定や判定できない場合はJSON */
+  static ETagEncoding fromAccept(String accept) {
+    if (accept == null || accept.isBlank()) {
+      return JSON;
+    }
+    List<MediaType> accepted;
+    try {
+      accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+      MimeTypeUtils.sortBySpecificity(accepted);
+    } catch (InvalidMediaTypeException | InvalidMimeTypeException e) {
+      return JSON;
+    }
+    for (MediaType type : accepted) {
+      // ワイルドカードはJSONを含むため、コンバーターの順と同じくJSONが選ばれる
+      for (ETagEncoding encoding : values()) {
+        if (type.includes(encoding.mediaType)) {
+          return encoding;
+        }
+      }
+    }
+    return JSON;
+  }
+
+  /** 引用符を含まない値に接尾辞を付け、強いETagとして返す */
+  String tag(String value) {
+    return "\"" + value + suffix + "\"";
+  }
+
+  /** ETagから形式の接尾辞を取り除く。接尾辞がない場合はそのまま返す */
+  static String strip(String etag) {
+    for (ETagEncoding encoding : values()) {
+      String end = encoding.suffix + "\"";
+      if (!encoding.suffix.isEmpty() && etag.endsWith(end)) {
+        return etag.substring(0, etag.length() - end.length()) + "\"";
+      }
+    }
+    return etag;
+  }
+}
@@ -0,0 +1,29 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeRequest;
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeResult;
+import com.c.imadoko.imadoko_back.service.LineupOptimizer;
+import com.c.imadoko.imadoko_back.service.TeamService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/** スタメン最適化API。パスに ":" を含むため、TeamBulkControllerと同様に "/api" を基点に定義している */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@RequiredArgsConstructor
+public class LineupController {
+
+  private final TeamService teamService;
+  private final LineupOptimizer lineupOptimizer;
+
+  /** 本文を省略した場合はすべて既定の条件で探索する */
+  @PostMapping("/teams/{id}/lineups:optimize")
+  public ResponseEntity<LineupOptimizeResult> optimize(
+      @PathVariable Long id, @Valid @RequestBody(required = false) LineupOptimizeRequest request) {
+    LineupOptimizeRequest conditions = request == null ? LineupOptimizeRequest.defaults() : request;
+    return ResponseEntity.ok(lineupOptimizer.optimize(teamService.findById(id), conditions));
+  }
+}
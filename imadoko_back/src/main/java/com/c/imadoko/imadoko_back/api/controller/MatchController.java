@@ -0,0 +1,99 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.MatchEventRequest;
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import com.c.imadoko.imadoko_back.service.MatchBroadcaster;
+import com.c.imadoko.imadoko_back.service.MatchService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 試合状態API
+ *
+ * <p>ETagは適用済みイベントのseqから生成する（状態を返す場合は応答の形式（{@link ETagEncoding}）も含める）。
+ * イベント登録時にIf-Matchを指定すると、他の端末が先に登録していた場合は412になる。
+ */
+@RestController
+@RequestMapping("/api/matches")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@RequiredArgsConstructor
+public class MatchController {
+
+  private final MatchService matchService;
+  private final MatchBroadcaster matchBroadcaster;
+
+  @PostMapping
+  public ResponseEntity<MatchState> createMatch(
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    MatchState state = matchService.create();
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .eTag(matchETag(state.matchId(), 0, ETagEncoding.fromAccept(accept)))
+        .body(state);
+  }
+
+  @GetMapping("/{id}")
+  public ResponseEntity<MatchState> getMatch(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    MatchState state = matchService.findState(id);
+    return ResponseEntity.ok()
+        .eTag(matchETag(id, state.seq(), ETagEncoding.fromAccept(accept)))
+        .body(state);
+  }
+
+  /**
+   * 観戦用のスコアボード配信（Server-Sent Events）
+   *
+   * <p>接続直後に現在の値、以降は更新のたびに {@code state} イベントとして {@link
+   * com.c.imadoko.imadoko_back.api.dto.MatchDelta} を送信する。
+   */
+  @GetMapping(path = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamMatch(@PathVariable Long id) {
+    return matchBroadcaster.subscribe(id);
+  }
+
+  /** 本文は返さず、登録後のETagのみ返す（続けて登録する場合はそのままIf-Matchに指定できる） */
+  @PostMapping("/{id}/events")
+  public ResponseEntity<Void> appendEvent(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Valid @RequestBody MatchEventRequest request) {
+    long seq = matchService.append(id, request, expectedSeq(id, ifMatch));
+    return ResponseEntity.status(HttpStatus.CREATED)
+        .eTag(matchETag(id, seq, ETagEncoding.JSON))
+        .build();
+  }
+
+  private static String matchETag(Long id, long seq, ETagEncoding encoding) {
+    return encoding.tag("match-" + id + "-s" + seq);
+  }
+
+  /**
+   * If-Matchの値（matchETagの形式）からseqを取り出す。未指定または{@code *}の場合はnull
+   *
+   * <p>形式の接尾辞（{@link ETagEncoding}）は取り除いて照合する。
+   */
+  private static Long expectedSeq(Long id, String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ETagEncoding.strip(ifMatch.trim());
+    String prefix = "\"match-" + id + "-s";
+    if (!value.startsWith(prefix) || !value.endsWith("\"")) {
+      throw new ImadokoException(ErrorCode.MATCH_SEQ_MISMATCH);
+    }
+    try {
+      return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new ImadokoException(ErrorCode.MATCH_SEQ_MISMATCH);
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import com.c.imadoko.imadoko_back.config.SqlBudget;
+import com.c.imadoko.imadoko_back.domain.PlayerSummary;
+import com.c.imadoko.imadoko_back.service.SearchService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+/** 選手API。選手の登録・更新はチーム単位で行うため、ここでは検索のみを提供する */
+@RestController
+@RequestMapping("/api/players")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@RequiredArgsConstructor
+public class PlayerController {
+
+  private final SearchService searchService;
+
+  /** 姓または名で検索する。positionはカンマ区切りまたは複数指定で絞り込む（例: {@code position=S,Li}） */
+  @GetMapping("/search")
+  @SqlBudget(1)
+  public List<PlayerSummary> search(
+      @RequestParam(defaultValue = "") String q,
+      @RequestParam(name = "position", required = false) List<String> positions,
+      @RequestParam(defaultValue = "0") int limit) {
+    return searchService.searchPlayers(q, positions, limit);
+  }
+}
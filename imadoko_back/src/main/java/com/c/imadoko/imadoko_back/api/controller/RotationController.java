@@ -0,0 +1,25 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import com.c.imadoko.imadoko_back.api.dto.RotationRequest;
+import com.c.imadoko.imadoko_back.api.dto.RotationResult;
+import com.c.imadoko.imadoko_back.service.RotationService;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/** ローテーション計算API。ブラウザを介さずに複数ラインナップのローテーションをまとめて計算する */
+@RestController
+@RequestMapping("/api/rotations")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@RequiredArgsConstructor
+public class RotationController {
+
+  private final RotationService rotationService;
+
+  /** 結果はリクエストと同じ順序で返す */
+  @PostMapping
+  public ResponseEntity<List<RotationResult>> rotate(@RequestBody List<RotationRequest> requests) {
+    return ResponseEntity.ok(rotationService.computeAll(requests));
+  }
+}
@@ -0,0 +1,57 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import com.c.imadoko.imadoko_back.api.dto.BulkResult;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.service.TeamBulkService;
+import com.c.imadoko.imadoko_back.service.TeamTransferService;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * チームの一括操作API（一括登録、NDJSONでのエクスポート/インポート）
+ *
+ * <p>{@code /api/teams:bulk} はクラス側のパスと結合すると "/" が補われるため、TeamControllerとは分けて定義している。
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "${app.cors.allowed-origins}")
+@RequiredArgsConstructor
+public class TeamBulkController {
+
+  private static final String NDJSON = "application/x-ndjson";
+
+  private final TeamBulkService teamBulkService;
+  private final TeamTransferService teamTransferService;
+
+  /** 項目ごとのバリデーションはサービス側で行い、不正な項目があっても他の項目は登録する */
+  @PostMapping("/teams:bulk")
+  public ResponseEntity<BulkResult> createTeams(@RequestBody List<TeamRequest> requests) {
+    return ResponseEntity.ok(teamBulkService.createAll(requests, 0));
+  }
+
+  /** 全チームを1行1チームのNDJSONでストリーミング出力する */
+  @GetMapping(path = "/teams/export", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> exportTeams() {
+    StreamingResponseBody body = teamTransferService::exportTo;
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON))
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("teams.ndjson").build().toString())
+        .body(body);
+  }
+
+  /** NDJSONを逐次読み込みながら登録する。リクエスト全体をメモリに載せないため本文は直接読み出す */
+  @PostMapping(path = "/teams/import", consumes = NDJSON)
+  public ResponseEntity<BulkResult> importTeams(HttpServletRequest request) throws IOException {
+    return ResponseEntity.ok(teamTransferService.importFrom(request.getInputStream()));
+  }
+}
@@ -1,14 +1,34 @@
 package com.c.imadoko.imadoko_back.api.controller;
 
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.CursorPage;
+import com.c.imadoko.imadoko_back.api.dto.TeamChanges;
+import com.c.imadoko.imadoko_back.api.dto.TeamFields;
+import com.c.imadoko.imadoko_back.api.dto.TeamPatchRequest;
 import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
-import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.config.SqlBudget;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import com.c.imadoko.imadoko_back.service.SearchService;
+import com.c.imadoko.imadoko_back.service.TeamChangeService;
+import com.c.imadoko.imadoko_back.service.TeamEventBroadcaster;
 import com.c.imadoko.imadoko_back.service.TeamService;
 import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/teams")
@@ -16,28 +36,156 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class TeamController {
 
+  private static final String EXPAND_PLAYERS = "players";
+
   private final TeamService teamService;
+  private final TeamChangeService teamChangeService;
+  private final TeamEventBroadcaster teamEventBroadcaster;
+  private final SearchService searchService;
+
+  /**
+   * ページング指定なしの場合は従来どおり全チームを選手込みで返す
+   *
+   * <p>ETagは本文と同じ（キャッシュされた）一覧から生成するため、304の場合もシリアライズは行わない。ETagには応答の形式
+   * （{@link ETagEncoding}）も含める。
+   * {@code fields}を指定した場合はキャッシュされた一覧から選択した項目のみを返す（ETagも項目ごとに異なる）。
+   */
+  @GetMapping(params = {"!after", "!limit"})
+  @SqlBudget(1)
+  public ResponseEntity<List<TeamResponse>> getAllTeams(
+      @RequestParam(required = false) String fields, WebRequest request) {
+    TeamFields selected = TeamFields.parse(fields);
+    List<TeamResponse> teams = teamService.findAll();
+    String etag = listETag(teams, selected, encoding(request));
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(teams.stream().map(selected::apply).toList());
+  }
 
+  /**
+   * キーセットページングによるチーム一覧
+   *
+   * <p>既定では選手を読み込まない概要（id, teamName, playerCount）を返す。選手まで必要な場合は{@code expand=players}を指定する。
+   * {@code fields}は{@code expand=players}の場合のみ有効。
+   */
   @GetMapping
-  public ResponseEntity<List<Team>> getAllTeams() {
-    return ResponseEntity.ok(teamService.findAll());
+  @SqlBudget(2)
+  public ResponseEntity<CursorPage<?>> getTeamPage(
+      @RequestParam(required = false) Long after,
+      @RequestParam(defaultValue = "0") int limit,
+      @RequestParam(required = false) String expand,
+      @RequestParam(required = false) String fields,
+      WebRequest request) {
+    if (EXPAND_PLAYERS.equals(expand)) {
+      TeamFields selected = TeamFields.parse(fields);
+      CursorPage<TeamResponse> page = teamService.findPage(after, limit);
+      String etag = listETag(page.items(), selected, encoding(request));
+      if (request.checkNotModified(etag)) {
+        return null;
+      }
+      return ResponseEntity.ok()
+          .eTag(etag)
+          .body(
+              new CursorPage<>(
+                  page.items().stream().map(selected::apply).toList(), page.nextCursor()));
+    }
+    CursorPage<TeamSummary> page = teamService.findSummaries(after, limit);
+    String etag = summaryETag(page.items(), encoding(request));
+    if (request.checkNotModified(etag)) {
+      return null;
+    }
+    return ResponseEntity.ok().eTag(etag).body(page);
+  }
+
+  /**
+   * 差分同期。sinceより後に作成・更新・削除されたチームのみを返す
+   *
+   * <p>初回は{@code since=0}で全チームを取得し、以降はレスポンスのhighWaterMarkを指定する。hasMoreの場合の続きは
+   * cursorを指定して取得する（highWaterMarkは確定していない変更の手前で止まるため）。
+   */
+  @GetMapping("/changes")
+  @SqlBudget(2)
+  public TeamChanges getChanges(
+      @RequestParam(defaultValue = "0") long since, @RequestParam(defaultValue = "0") int limit) {
+    return teamChangeService.findChanges(since, limit);
+  }
+
+  /** チーム名で検索する。完全一致、前方一致、部分一致の順に上位limit件の概要を返す */
+  @GetMapping("/search")
+  @SqlBudget(1)
+  public List<TeamSummary> searchTeams(
+      @RequestParam(defaultValue = "") String q, @RequestParam(defaultValue = "0") int limit) {
+    return searchService.searchTeams(q, limit);
   }
 
+  /**
+   * チームの変更通知（Server-Sent Events）
+   *
+   * <p>いずれかのインスタンスでチームが変更されるたびに {@code change} イベント（teamId, deleted）を送信する。内容は含まないため、
+   * 受け取ったクライアントは差分同期で取得する。
+   */
+  @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamEvents() {
+    return teamEventBroadcaster.subscribe();
+  }
+
+  /**
+   * If-None-Matchが一致する場合はバージョンのみ照会し、チームを読み込まずに304を返す
+   *
+   * <p>{@code fields}を指定した場合のETagは項目を表す接尾辞を含むため、If-Matchには使用できない（412となる）。
+   */
   @GetMapping("/{id}")
-  public ResponseEntity<Team> getTeam(@PathVariable Long id) {
-    return ResponseEntity.ok(teamService.findById(id));
+  @SqlBudget(2)
+  public ResponseEntity<TeamResponse> getTeam(
+      @PathVariable Long id, @RequestParam(required = false) String fields, WebRequest request) {
+    TeamFields selected = TeamFields.parse(fields);
+    ETagEncoding encoding = encoding(request);
+    if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+      Optional<Long> version = teamService.findVersion(id);
+      if (version.isPresent()
+          && request.checkNotModified(teamETag(id, version.get(), selected, encoding))) {
+        return null;
+      }
+    }
+    return withETag(ResponseEntity.ok(), teamService.findById(id), selected, encoding);
   }
 
   @PostMapping
-  public ResponseEntity<Team> createTeam(@Valid @RequestBody TeamRequest request) {
-    Team created = teamService.create(request);
-    return ResponseEntity.status(HttpStatus.CREATED).body(created);
+  public ResponseEntity<TeamResponse> createTeam(
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @Valid @RequestBody TeamRequest request) {
+    TeamResponse created = teamService.create(request);
+    return withETag(
+        ResponseEntity.status(HttpStatus.CREATED), created, ETagEncoding.fromAccept(accept));
   }
 
+  /** If-Matchが指定された場合、バージョンが一致しなければ412を返す（後勝ちによる上書きを防ぐ） */
   @PutMapping("/{id}")
-  public ResponseEntity<Team> updateTeam(
-      @PathVariable Long id, @Valid @RequestBody TeamRequest request) {
-    return ResponseEntity.ok(teamService.update(id, request));
+  public ResponseEntity<TeamResponse> updateTeam(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @Valid @RequestBody TeamRequest request) {
+    Long expectedVersion = expectedVersion(id, ifMatch);
+    TeamResponse updated =
+        expectedVersion == null
+            ? teamService.update(id, request)
+            : teamService.update(id, request, expectedVersion);
+    return withETag(ResponseEntity.ok(), updated, ETagEncoding.fromAccept(accept));
+  }
+
+  /** 部分更新（JSON Merge Patch）。チーム名のみ変更する場合は選手リストを送る必要がない */
+  @PatchMapping(
+      path = "/{id}",
+      consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+  public ResponseEntity<TeamResponse> patchTeam(
+      @PathVariable Long id,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+      @Valid @RequestBody TeamPatchRequest request) {
+    TeamResponse patched = teamService.patch(id, request, expectedVersion(id, ifMatch));
+    return withETag(ResponseEntity.ok(), patched, ETagEncoding.fromAccept(accept));
   }
 
   @DeleteMapping("/{id}")
@@ -46,4 +194,78 @@ public class TeamController {
     return ResponseEntity.noContent().build();
   }
 
+  private static ResponseEntity<TeamResponse> withETag(
+      ResponseEntity.BodyBuilder builder, TeamResponse team, ETagEncoding encoding) {
+    return withETag(builder, team, TeamFields.ALL, encoding);
+  }
+
+  private static ResponseEntity<TeamResponse> withETag(
+      ResponseEntity.BodyBuilder builder,
+      TeamResponse team,
+      TeamFields fields,
+      ETagEncoding encoding) {
+    if (team.version() != null) {
+      builder.eTag(teamETag(team.id(), team.version(), fields, encoding));
+    }
+    return builder.body(fields.apply(team));
+  }
+
+  private static ETagEncoding encoding(WebRequest request) {
+    return ETagEncoding.fromAccept(request.getHeader(HttpHeaders.ACCEPT));
+  }
+
+  /** 全項目の場合はIf-Matchで照合できる形式、項目を選択した場合はその項目のハッシュを付けた形式 */
+  private static String teamETag(Long id, long version, TeamFields fields, ETagEncoding encoding) {
+    String suffix =
+        fields.isAll()
+            ? ""
+            : "-f" + DigestUtils.md5DigestAsHex(fields.key().getBytes(StandardCharsets.UTF_8));
+    return encoding.tag("team-" + id + "-v" + version + suffix);
+  }
+
+  /** 一覧のETag。返す一覧そのものから、各チームのidとバージョン、選択した項目で生成する */
+  private static String listETag(
+      List<TeamResponse> teams, TeamFields fields, ETagEncoding encoding) {
+    Stream<String> keys = teams.stream().map(team -> team.id() + ":" + team.version());
+    return digestETag(
+        fields.isAll() ? keys : Stream.concat(Stream.of(fields.key()), keys), encoding);
+  }
+
+  /** 概要にはバージョンを含まないため、返す項目そのものから生成する */
+  private static String summaryETag(List<TeamSummary> summaries, ETagEncoding encoding) {
+    return digestETag(
+        summaries.stream()
+            .map(summary -> summary.id() + ":" + summary.playerCount() + ":" + summary.teamName()),
+        encoding);
+  }
+
+  private static String digestETag(Stream<String> keys, ETagEncoding encoding) {
+    byte[] joined = keys.collect(Collectors.joining(",")).getBytes(StandardCharsets.UTF_8);
+    return encoding.tag("teams-" + DigestUtils.md5DigestAsHex(joined));
+  }
+
+  /**
+   * If-Matchの値（teamETagの形式）からバージョンを取り出す。未指定または{@code *}の場合はnull
+   *
+   * <p>形式の接尾辞（{@link ETagEncoding}）は取り除いて照合する。別チームのETagや不正な形式の場合は412とする。
+   */
+  private static Long expectedVersion(Long id, String ifMatch) {
+    if (ifMatch == null || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String value = ETagEncoding.strip(ifMatch.trim());
+    if (value.startsWith("W/")) {
+      // 弱いETagは強い比較を要求するIf-Matchでは一致しない
+      throw new ImadokoException(ErrorCode.TEAM_VERSION_MISMATCH);
+    }
+    String prefix = "\"team-" + id + "-v";
+    if (!value.startsWith(prefix) || !value.endsWith("\"")) {
+      throw new ImadokoException(ErrorCode.TEAM_VERSION_MISMATCH);
+    }
+    try {
+      return Long.parseLong(value.substring(prefix.length(), value.length() - 1));
+    } catch (NumberFormatException e) {
+      throw new ImadokoException(ErrorCode.TEAM_VERSION_MISMATCH);
+    }
+  }
 }
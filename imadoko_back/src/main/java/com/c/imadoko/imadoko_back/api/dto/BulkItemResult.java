@@ -0,0 +1,24 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/** 一括登録の1件ごとの結果。indexはリクエスト内の位置（0始まり） */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkItemResult(
+    int index, Status status, Long id, String teamName, String code, List<String> details) {
+
+  public enum Status {
+    CREATED,
+    FAILED
+  }
+
+  public static BulkItemResult created(int index, Long id, String teamName) {
+    return new BulkItemResult(index, Status.CREATED, id, teamName, null, null);
+  }
+
+  public static BulkItemResult failed(
+      int index, String teamName, String code, List<String> details) {
+    return new BulkItemResult(index, Status.FAILED, null, teamName, code, details);
+  }
+}
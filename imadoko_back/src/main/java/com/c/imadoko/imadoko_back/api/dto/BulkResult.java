@@ -0,0 +1,13 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import java.util.List;
+
+/** 一括登録の結果。失敗した項目があっても、他の項目は登録される */
+public record BulkResult(int created, int failed, List<BulkItemResult> items) {
+
+  public static BulkResult of(List<BulkItemResult> items) {
+    int created =
+        (int) items.stream().filter(i -> i.status() == BulkItemResult.Status.CREATED).count();
+    return new BulkResult(created, items.size() - created, items);
+  }
+}
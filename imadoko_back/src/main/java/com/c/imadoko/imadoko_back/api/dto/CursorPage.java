@@ -0,0 +1,10 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import java.util.List;
+
+/**
+ * キーセット方式のページングレスポンス
+ *
+ * <p>nextCursorを次回リクエストの{@code after}に指定すると続きを取得できる。最終ページではnull。
+ */
+public record CursorPage<T>(List<T> items, Long nextCursor) {}
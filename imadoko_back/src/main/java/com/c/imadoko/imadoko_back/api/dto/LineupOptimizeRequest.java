@@ -0,0 +1,47 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * スタメン最適化の条件
+ *
+ * <p>未指定（null）の項目は既定値を使用する。制約はすべて既定で有効。
+ *
+ * @param topK 返す候補数（既定5）
+ * @param budgetMs 探索に使う時間の上限（ミリ秒、既定2000）。超えた場合はそれまでの最良候補を返す
+ * @param oppositeSetter セッターとオポジットを対角に配置する
+ * @param separateMiddles 前衛でミドルブロッカー同士を隣接させない
+ * @param liberoForBackRowMb 後衛のミドルブロッカーをリベロと交代できる配置を優先する（リベロ登録時のみ）
+ * @param setterStartSlot セッターの開始スロット（1〜6）。未指定の場合は開始位置も探索する
+ */
+public record LineupOptimizeRequest(
+    @Min(value = 1, message = "topKは1以上で指定してください")
+        @Max(value = 50, message = "topKは50以下で指定してください")
+        Integer topK,
+    @Min(value = 10, message = "budgetMsは10以上で指定してください")
+        @Max(value = 10000, message = "budgetMsは10000以下で指定してください")
+        Long budgetMs,
+    Boolean oppositeSetter,
+    Boolean separateMiddles,
+    Boolean liberoForBackRowMb,
+    @Min(value = 1, message = "setterStartSlotは1〜6で指定してください")
+        @Max(value = 6, message = "setterStartSlotは1〜6で指定してください")
+        Integer setterStartSlot) {
+
+  public static final int DEFAULT_TOP_K = 5;
+  public static final long DEFAULT_BUDGET_MS = 2000;
+
+  /** 既定値のみのリクエスト（本文なしで呼び出された場合） */
+  public static LineupOptimizeRequest defaults() {
+    return new LineupOptimizeRequest(null, null, null, null, null, null);
+  }
+
+  public int topKOrDefault() {
+    return topK == null ? DEFAULT_TOP_K : topK;
+  }
+
+  public long budgetMsOrDefault() {
+    return budgetMs == null ? DEFAULT_BUDGET_MS : budgetMs;
+  }
+}
@@ -0,0 +1,22 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * スタメン最適化の結果
+ *
+ * <p>completeがfalseの場合は時間上限で探索を打ち切っており、lineupsはそれまでに見つかった最良の候補。
+ */
+public record LineupOptimizeResult(
+    List<Candidate> lineups, boolean complete, long evaluated, long elapsedMs) {
+
+  /**
+   * スタメン候補
+   *
+   * @param assignment 開始時の配置（スロット番号 → 選手ID）
+   * @param setterSlot セッターの開始スロット。セッターがいない場合は0
+   * @param liberoId 後衛のミドルブロッカーと交代するリベロ。リベロ制約が無効、または登録がない場合はnull
+   */
+  public record Candidate(int score, Map<Integer, Long> assignment, int setterSlot, Long liberoId) {}
+}
@@ -0,0 +1,26 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import com.c.imadoko.imadoko_back.domain.PackedLineup;
+
+/**
+ * 観戦者向けに配信するスコアボード（スコア、サーブ権、ローテーション位置）
+ *
+ * <p>配置や選手情報は含めない。常に最新の値をそのまま送るため、途中の通知を間引いても表示は最新の状態に揃う。
+ */
+public record MatchDelta(long seq, String serve, Side a, Side b) {
+
+  /** rotation は現在のローテーション位置（0〜5、サイドアウト数を6で割った余り） */
+  public record Side(int so, int br, int sets, int points, int rotation) {
+
+    static Side of(MatchState.Side side) {
+      MatchState.Score score = side.score();
+      return new Side(
+          score.so(), score.br(), score.sets(), score.points(), score.so() % PackedLineup.SLOTS);
+    }
+  }
+
+  public static MatchDelta of(MatchState state) {
+    return new MatchDelta(state.seq(), state.serve(), Side.of(state.a()), Side.of(state.b()));
+  }
+}
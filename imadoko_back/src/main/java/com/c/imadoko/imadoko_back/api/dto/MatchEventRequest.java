@@ -0,0 +1,37 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.c.imadoko.imadoko_back.domain.MatchEventType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import java.util.Map;
+
+/**
+ * 試合イベントの登録リクエスト。そのままイベントログのpayloadとして保存する
+ *
+ * <p>typeごとに使用する項目:
+ *
+ * <ul>
+ *   <li>TEAM: side, teamId
+ *   <li>LINEUP: side, assignment（スロット番号 → 選手ID）
+ *   <li>SUBSTITUTION: side, slot, playerId（nullで外す）
+ *   <li>SCORE: side, field（so/br/sets）, value
+ *   <li>RALLY: side（得点したサイド）
+ *   <li>SWAP_SIDES: なし
+ * </ul>
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MatchEventRequest(
+    @NotNull(message = "typeは必須です") MatchEventType type,
+    @Pattern(regexp = "^(A|B)$", message = "sideはAまたはBを指定してください") String side,
+    Long teamId,
+    @Min(value = 1, message = "slotは1〜6で指定してください")
+        @Max(value = 6, message = "slotは1〜6で指定してください")
+        Integer slot,
+    Long playerId,
+    @Pattern(regexp = "^(so|br|sets)$", message = "fieldはso, br, setsのいずれかを指定してください")
+        String field,
+    @Min(value = 0, message = "valueは0以上で指定してください") Integer value,
+    Map<Integer, Long> assignment) {}
@@ -1,12 +1,26 @@
 package com.c.imadoko.imadoko_back.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 
+/**
+ * 選手の作成/更新リクエスト
+ *
+ * <p>idは既存選手を更新する場合のみ指定する。未指定、またはチームに存在しないidの場合は新しい選手として登録される。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PlayerRequest(
+    Long id,
     @NotBlank(message = "名は必須です") @Size(max = 30, message = "名は30文字以内で入力してください") String firstName,
     @NotBlank(message = "姓は必須です") @Size(max = 30, message = "姓は30文字以内で入力してください") String lastName,
     @NotBlank(message = "ポジションは必須です")
         @Pattern(regexp = "^(S|WS|MB|OP|Li)$", message = "ポジションはS, WS, MB, OP, Liのいずれかを指定してください")
-        String position) {}
+        String position) {
+
+  /** 新規選手用 */
+  public PlayerRequest(String firstName, String lastName, String position) {
+    this(null, firstName, lastName, position);
+  }
+}
@@ -0,0 +1,14 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.c.imadoko.imadoko_back.domain.Player;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/** 選手のレスポンス。fieldsで選択されなかった項目はnullとなり、出力されない */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PlayerResponse(Long id, String firstName, String lastName, String position) {
+
+  public static PlayerResponse from(Player player) {
+    return new PlayerResponse(
+        player.getId(), player.getFirstName(), player.getLastName(), player.getPosition());
+  }
+}
@@ -0,0 +1,16 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import java.util.Map;
+
+/**
+ * ローテーション計算の1ラインナップ分のリクエスト
+ *
+ * <p>assignmentはスロット番号(1〜6) → 選手ID。空きスロットは省略またはnull。
+ * setterIdとtargetSlotを指定した場合は、セッターを目標スロットへ移動させるローテーションも計算する。
+ */
+public record RotationRequest(Map<Integer, Long> assignment, Long setterId, Integer targetSlot) {
+
+  public RotationRequest(Map<Integer, Long> assignment) {
+    this(assignment, null, null);
+  }
+}
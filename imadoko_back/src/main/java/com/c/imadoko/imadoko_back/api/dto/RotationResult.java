@@ -0,0 +1,17 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ローテーション計算の結果
+ *
+ * <p>rotations[r]はr回ローテーションした配置（スロット番号 → 選手ID、空きはnull）。setterRotationはセッター指定時のみ。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RotationResult(List<Map<Integer, Long>> rotations, SetterRotation setterRotation) {
+
+  /** セッターを目標スロットへ移動させるのに必要なローテーション数と、その後の配置 */
+  public record SetterRotation(int rotations, Map<Integer, Long> finalAssignment) {}
+}
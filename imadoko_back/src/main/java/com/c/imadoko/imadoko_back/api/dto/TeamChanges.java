@@ -0,0 +1,17 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import java.util.List;
+
+/**
+ * 差分同期のレスポンス
+ *
+ * <p>upsertedは変更されたチームの現在の状態、deletedは削除されたチームのid。highWaterMarkは確定した変更の位置で、次回の同期の
+ * {@code since} に指定する。hasMoreがtrueの場合は続きがあり、cursor（返した最後の変更のseq）を {@code since} に指定して取得する。
+ * 確定していない変更があるとhighWaterMarkはcursorより手前に留まるため、続きの取得にhighWaterMarkを使うと進まないことがある。
+ */
+public record TeamChanges(
+    List<TeamResponse> upserted,
+    List<Long> deleted,
+    long highWaterMark,
+    long cursor,
+    boolean hasMore) {}
@@ -0,0 +1,83 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * チームのレスポンスで返す項目（{@code fields=id,teamName,players.position}）
+ *
+ * <p>選手の項目は{@code players.}を付けて指定し、{@code players}のみの場合は選手の全項目を返す。チームのidとversionは常に返す。
+ * 未指定の場合は全項目（{@link #ALL}）。
+ *
+ * @param teamName チーム名を返すか
+ * @param players 返す選手の項目。空の場合は選手を返さない
+ */
+public record TeamFields(boolean teamName, Set<String> players) {
+
+  private static final Set<String> PLAYER_FIELDS =
+      Set.of("id", "firstName", "lastName", "position");
+  private static final String PLAYERS_PREFIX = "players.";
+
+  public static final TeamFields ALL = new TeamFields(true, PLAYER_FIELDS);
+
+  public TeamFields {
+    players = Set.copyOf(players);
+  }
+
+  /** 未知の項目が含まれる場合はリクエスト不正とする */
+  public static TeamFields parse(String fields) {
+    if (fields == null || fields.isBlank()) {
+      return ALL;
+    }
+    boolean teamName = false;
+    Set<String> players = new TreeSet<>();
+    for (String raw : fields.split(",")) {
+      String field = raw.strip();
+      if (field.isEmpty() || field.equals("id") || field.equals("version")) {
+        continue;
+      }
+      if (field.equals("teamName")) {
+        teamName = true;
+      } else if (field.equals("players")) {
+        players.addAll(PLAYER_FIELDS);
+      } else if (field.startsWith(PLAYERS_PREFIX)
+          && PLAYER_FIELDS.contains(field.substring(PLAYERS_PREFIX.length()))) {
+        players.add(field.substring(PLAYERS_PREFIX.length()));
+      } else {
+        throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+      }
+    }
+    return new TeamFields(teamName, players);
+  }
+
+  public boolean isAll() {
+    return teamName && players.containsAll(PLAYER_FIELDS);
+  }
+
+  /** 選択されなかった項目をnullにしたコピーを返す */
+  public TeamResponse apply(TeamResponse team) {
+    if (isAll()) {
+      return team;
+    }
+    return new TeamResponse(
+        team.id(),
+        teamName ? team.teamName() : null,
+        players.isEmpty() ? null : team.players().stream().map(this::apply).toList(),
+        team.version());
+  }
+
+  /** ETagに含める、選択した項目の正規化した表現 */
+  public String key() {
+    return (teamName ? "teamName" : "") + ":" + String.join(",", new TreeSet<>(players));
+  }
+
+  private PlayerResponse apply(PlayerResponse player) {
+    return new PlayerResponse(
+        players.contains("id") ? player.id() : null,
+        players.contains("firstName") ? player.firstName() : null,
+        players.contains("lastName") ? player.lastName() : null,
+        players.contains("position") ? player.position() : null);
+  }
+}
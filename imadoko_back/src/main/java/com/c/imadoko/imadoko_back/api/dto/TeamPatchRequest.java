@@ -0,0 +1,17 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * チームの部分更新リクエスト（JSON Merge Patch形式）
+ *
+ * <p>指定されなかった（nullの）項目は変更しない。playersを省略すればチーム名の変更だけで選手は一切更新されない。
+ */
+public record TeamPatchRequest(
+    @Pattern(regexp = ".*\\S.*", message = "チーム名は必須です")
+        @Size(max = 50, message = "チーム名は50文字以内で入力してください")
+        String teamName,
+    @Valid @Size(max = 14, message = "選手は最大14人まで登録できます") List<PlayerRequest> players) {}
@@ -0,0 +1,51 @@
+package com.c.imadoko.imadoko_back.api.dto;
+
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * チームのレスポンス
+ *
+ * <p>不変のため、キャッシュしたものをそのまま複数のリクエストで共有できる。fieldsで選択されなかった項目はnullとなり、出力されない。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TeamResponse(Long id, String teamName, List<PlayerResponse> players, Long version) {
+
+  public TeamResponse {
+    players = players == null ? null : List.copyOf(players);
+  }
+
+  /** エンティティから生成する。選手の遅延ロードが発生しうるため、トランザクション内で呼び出すこと */
+  public static TeamResponse from(Team team) {
+    return new TeamResponse(
+        team.getId(),
+        team.getTeamName(),
+        team.getPlayers().stream().map(PlayerResponse::from).toList(),
+        team.getVersion());
+  }
+
+  /** チームid順に並んだ行から組み立てる。同じチームの行は連続していること */
+  public static List<TeamResponse> fromRows(List<TeamPlayerRow> rows) {
+    List<TeamResponse> teams = new ArrayList<>();
+    int start = 0;
+    while (start < rows.size()) {
+      TeamPlayerRow first = rows.get(start);
+      List<PlayerResponse> players = new ArrayList<>();
+      int end = start;
+      while (end < rows.size() && rows.get(end).teamId().equals(first.teamId())) {
+        TeamPlayerRow row = rows.get(end);
+        if (row.playerId() != null) {
+          players.add(
+              new PlayerResponse(row.playerId(), row.firstName(), row.lastName(), row.position()));
+        }
+        end++;
+      }
+      teams.add(new TeamResponse(first.teamId(), first.teamName(), players, first.version()));
+      start = end;
+    }
+    return teams;
+  }
+}
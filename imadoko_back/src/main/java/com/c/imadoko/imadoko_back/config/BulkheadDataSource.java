@@ -0,0 +1,117 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 同時に取得できるコネクション数を制限するDataSource
+ *
+ * <p>仮想スレッドではリクエスト数だけスレッドが作られるため、そのままではコネクションプールの待ち行列に数千のスレッドが並び、
+ * プールの connection-timeout で失敗する。プールの手前で先着順（公平なセマフォ）に待たせ、プールからは待たずに取得できる数だけ通す。
+ *
+ * <p>許可はコネクションを close した時点で返却する。待ち時間が {@code maxWait} を超えた場合は
+ * {@link SQLTransientConnectionException} を投げる。
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+  private final Semaphore permits;
+  private final long maxWaitNanos;
+
+  public BulkheadDataSource(DataSource target, int maxConcurrent, Duration maxWait) {
+    super(target);
+    if (maxConcurrent < 1) {
+      throw new IllegalArgumentException("maxConcurrent: " + maxConcurrent);
+    }
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.maxWaitNanos = maxWait.toNanos();
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    acquire();
+    return guarded(() -> obtainTargetDataSource().getConnection());
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    acquire();
+    return guarded(() -> obtainTargetDataSource().getConnection(username, password));
+  }
+
+  /** 空いている許可数 */
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+
+  /** 許可待ちのスレッド数（概算） */
+  public int queueLength() {
+    return permits.getQueueLength();
+  }
+
+  private void acquire() throws SQLException {
+    try {
+      if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+        throw new SQLTransientConnectionException(
+            "Connection bulkhead wait timed out after "
+                + TimeUnit.NANOSECONDS.toMillis(maxWaitNanos)
+                + "ms (waiting="
+                + permits.getQueueLength()
+                + ")");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+  }
+
+  private Connection guarded(ConnectionSupplier supplier) throws SQLException {
+    Connection connection;
+    try {
+      connection = supplier.get();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+    return releasingOnClose(connection);
+  }
+
+  /** close() で許可を1回だけ返却するプロキシを返す */
+  private Connection releasingOnClose(Connection connection) {
+    AtomicBoolean released = new AtomicBoolean();
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                try {
+                  connection.close();
+                } finally {
+                  if (released.compareAndSet(false, true)) {
+                    permits.release();
+                  }
+                }
+                return null;
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+              }
+            });
+  }
+
+  @FunctionalInterface
+  private interface ConnectionSupplier {
+    Connection get() throws SQLException;
+  }
+}
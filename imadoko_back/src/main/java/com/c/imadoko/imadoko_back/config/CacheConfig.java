@@ -0,0 +1,42 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * TeamServiceの読み取りキャッシュ設定
+ *
+ * <p>キャッシュごとにサイズ上限とTTLを設定する。put/evictはトランザクションのコミット後に反映されるため、ロールバックされた更新がキャッシュに残ることはない。
+ * ヒット率やエビクション数は actuator の {@code cache.gets} / {@code cache.evictions} で確認できる。
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  /** チーム単体（キー: チームID） */
+  public static final String TEAMS = "teams";
+
+  /** 全チーム一覧（エントリは1件のみ） */
+  public static final String TEAM_LIST = "teamList";
+
+  @Value("${app.cache.teams.spec}")
+  private String teamsSpec;
+
+  @Value("${app.cache.team-list.spec}")
+  private String teamListSpec;
+
+  @Bean
+  public CacheManager cacheManager() {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+    cacheManager.setAllowNullValues(false);
+    cacheManager.registerCustomCache(TEAMS, Caffeine.from(teamsSpec).build());
+    cacheManager.registerCustomCache(TEAM_LIST, Caffeine.from(teamListSpec).build());
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+}
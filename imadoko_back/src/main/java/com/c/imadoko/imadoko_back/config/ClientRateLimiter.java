@@ -0,0 +1,82 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * クライアントごとのトークンバケットによる流量制限
+ *
+ * <p>1秒あたり{@code rate}回まで、最大{@code burst}回までの連続したリクエストを許可する。バケットはトークン数ではなく
+ * 「次にトークンが満ちる理論上の時刻」を1つのlongで持ち（GCRA）、CASで更新するためロックを取らない。
+ *
+ * <p>バケットは最後の利用から満杯に戻るまでの時間で破棄する（破棄しても満杯のバケットと同じ扱いになるため、制限は緩まない）。
+ * クライアント数は{@code maxClients}を上限とし、超えた場合は古いものから破棄する。
+ */
+public class ClientRateLimiter {
+
+  private final double rate;
+  private final int burst;
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final LongSupplier nanoClock;
+  private final Cache<String, AtomicLong> buckets;
+
+  public ClientRateLimiter(double rate, int burst, long maxClients) {
+    this(rate, burst, maxClients, System::nanoTime);
+  }
+
+  ClientRateLimiter(double rate, int burst, long maxClients, LongSupplier nanoClock) {
+    if (rate <= 0 || burst < 1) {
+      throw new IllegalArgumentException("rate: " + rate + ", burst: " + burst);
+    }
+    this.rate = rate;
+    this.burst = burst;
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+    this.burstNanos = intervalNanos * burst;
+    this.nanoClock = nanoClock;
+    this.buckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxClients)
+            .expireAfterAccess(Duration.ofNanos(burstNanos))
+            .ticker(nanoClock::getAsLong)
+            .build();
+  }
+
+  /**
+   * 1回分のトークンを取得する
+   *
+   * @return 許可した場合は{@link Duration#ZERO}、拒否した場合は次のトークンが満ちるまでの時間
+   */
+  public Duration tryAcquire(String client) {
+    long now = nanoClock.getAsLong();
+    AtomicLong bucket = buckets.get(client, key -> new AtomicLong(now));
+    while (true) {
+      long current = bucket.get();
+      long next = Math.max(current, now) + intervalNanos;
+      long wait = next - now - burstNanos;
+      if (wait > 0) {
+        return Duration.ofNanos(wait);
+      }
+      if (bucket.compareAndSet(current, next)) {
+        return Duration.ZERO;
+      }
+    }
+  }
+
+  public double rate() {
+    return rate;
+  }
+
+  public int burst() {
+    return burst;
+  }
+
+  /** 保持しているクライアント数（概算） */
+  public long clients() {
+    return buckets.estimatedSize();
+  }
+}
@@ -0,0 +1,20 @@
+package com.c.imadoko.imadoko_back.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 遅延初期化（fast-startupプロファイル）を有効にした場合の設定
+ *
+ * <p>Hibernateやサービスは初回アクセス時に初期化するが、マイグレーションは起動時に実行し、未適用のままhealthがUPにならないようにする。
+ */
+@Configuration
+public class FastStartupConfig {
+
+  @Bean
+  static LazyInitializationExcludeFilter eagerFlywayMigration() {
+    return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class);
+  }
+}
@@ -0,0 +1,66 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.imadoko_back.repo.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Clock;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Idempotency-Keyの設定（{@code app.idempotency.enabled=false}で無効化）
+ *
+ * <p>{@code app.idempotency.persist=true}の場合は完了したレスポンスをデータベース（idempotency_record）にも保存する。
+ * 複数インスタンスで動かす場合や、再起動をまたいで再送を受ける場合に有効にする。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(
+    name = "app.idempotency.enabled",
+    havingValue = "true",
+    matchIfMissing = true)
+public class IdempotencyConfig {
+
+  @Bean
+  IdempotencyStore idempotencyStore(
+      Environment env, ObjectProvider<IdempotencyRecordRepository> repository) {
+    long maximumSize = env.getProperty("app.idempotency.maximum-size", Long.class, 10_000L);
+    Duration ttl = env.getProperty("app.idempotency.ttl", Duration.class, Duration.ofHours(24));
+    boolean persist = env.getProperty("app.idempotency.persist", Boolean.class, false);
+    log.info(
+        "Idempotency-Key enabled: maximumSize={}, ttl={}, persist={}", maximumSize, ttl, persist);
+    return new IdempotencyStore(
+        maximumSize, ttl, persist ? repository.getObject() : null, Clock.systemDefaultZone());
+  }
+
+  @Bean
+  IdempotencyFilter idempotencyFilter(
+      IdempotencyStore idempotencyStore,
+      ObjectMapper objectMapper,
+      Environment env,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    return new IdempotencyFilter(
+        idempotencyStore,
+        objectMapper,
+        env.getProperty("app.idempotency.max-wait", Duration.class, Duration.ofSeconds(10)),
+        env.getProperty("app.idempotency.max-body-size", DataSize.class, DataSize.ofMegabytes(1))
+            .toBytes(),
+        meterRegistry);
+  }
+
+  @Bean
+  MeterBinder idempotencyMetrics(IdempotencyStore idempotencyStore) {
+    return registry ->
+        Gauge.builder("app.idempotency.keys", idempotencyStore, IdempotencyStore::size)
+            .description("Idempotency keys held in memory")
+            .register(registry);
+  }
+}
@@ -0,0 +1,335 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.common.api.ErrorResponse;
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.GlobalExceptionHandler;
+import com.c.imadoko.imadoko_back.config.IdempotencyStore.Entry;
+import com.c.imadoko.imadoko_back.config.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * Idempotency-Keyによる再送の重複排除（POST /api/teams、PUT /api/teams/{id}。ヘッダーがない場合は何もしない）
+ *
+ * <p>同じキーの最初のレスポンス（ステータス・本文・Content-Type / Location / ETag）を{@link IdempotencyStore}に保存し、
+ * 再送にはハンドラーを実行せずにそのまま返す（{@code Idempotent-Replayed: true}）。処理中のキーへの再送は完了を待ってから
+ * 同じレスポンスを返し、{@code maxWait}を過ぎた場合は{@link ErrorCode#IDEMPOTENCY_IN_PROGRESS}を返す。
+ *
+ * <p>同じキーでメソッド・パスは同じだが本文（またはIf-Match）が異なる場合は{@link ErrorCode#IDEMPOTENCY_KEY_MISMATCH}を返す。
+ * 5xxと429（流量制限）は保存しないため、同じキーで再試行できる。
+ *
+ * <p>本文はハッシュのためにメモリに読み込むため、{@code maxBodySize}を超える場合は読み込まずに
+ * {@link ErrorCode#PAYLOAD_TOO_LARGE}を返す。
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // ReadYourWritesFilterの内側、計測用のフィルターより外側
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "Idempotency-Key";
+  public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+  private static final Pattern TEAM_PATH = Pattern.compile("/api/teams/[^/:]+");
+  private static final int MAX_KEY_LENGTH = 255;
+
+  private final IdempotencyStore store;
+  private final ObjectMapper objectMapper;
+  private final Duration maxWait;
+  private final long maxBodySize;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+
+  public IdempotencyFilter(
+      IdempotencyStore store,
+      ObjectMapper objectMapper,
+      Duration maxWait,
+      long maxBodySize,
+      ObjectProvider<MeterRegistry> meterRegistry) {
+    this.store = store;
+    this.objectMapper = objectMapper;
+    this.maxWait = maxWait;
+    this.maxBodySize = maxBodySize;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (request.getHeader(HEADER) == null) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return switch (request.getMethod()) {
+      case "POST" -> !path.equals("/api/teams");
+      case "PUT" -> !TEAM_PATH.matcher(path).matches();
+      default -> true;
+    };
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String idempotencyKey = request.getHeader(HEADER);
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+      writeError(request, response, ErrorCode.INVALID_REQUEST);
+      return;
+    }
+    byte[] body = readBody(request);
+    if (body == null) {
+      count("too_large");
+      writeError(request, response, ErrorCode.PAYLOAD_TOO_LARGE);
+      return;
+    }
+    String key = request.getMethod() + " " + request.getRequestURI() + " " + idempotencyKey;
+    String fingerprint = fingerprint(request, body);
+
+    while (true) {
+      Entry mine = new Entry(fingerprint, new CompletableFuture<>());
+      Entry entry = store.begin(key, mine);
+      if (entry == mine) {
+        execute(new CachedBodyRequest(request, body), response, chain, key, mine);
+        return;
+      }
+      if (!entry.fingerprint().equals(fingerprint)) {
+        count("mismatch");
+        writeError(request, response, ErrorCode.IDEMPOTENCY_KEY_MISMATCH);
+        return;
+      }
+      StoredResponse stored;
+      try {
+        stored = entry.response().get(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (TimeoutException e) {
+        count("timeout");
+        response.setHeader(
+            HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, maxWait.toSeconds())));
+        writeError(request, response, ErrorCode.IDEMPOTENCY_IN_PROGRESS);
+        return;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ServletException(e);
+      } catch (ExecutionException e) {
+        throw new ServletException(e.getCause());
+      }
+      if (stored != null) {
+        count("replayed");
+        replay(stored, response);
+        return;
+      }
+      // 最初のリクエストが保存せずに終わった（5xxなど）。改めて処理する
+    }
+  }
+
+  private void execute(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      FilterChain chain,
+      String key,
+      Entry mine)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+    boolean completed = false;
+    try {
+      chain.doFilter(request, wrapper);
+      int status = wrapper.getStatus();
+      if (status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value()) {
+        store.complete(
+            key,
+            mine,
+            new StoredResponse(
+                mine.fingerprint(),
+                status,
+                wrapper.getContentType(),
+                wrapper.getHeader(HttpHeaders.LOCATION),
+                wrapper.getHeader(HttpHeaders.ETAG),
+                wrapper.getContentAsByteArray()));
+        completed = true;
+        count("executed");
+      }
+    } finally {
+      if (!completed) {
+        store.abandon(key, mine);
+      }
+      wrapper.copyBodyToResponse();
+    }
+  }
+
+  /**
+   * 本文を読み込む。Content-Lengthまたは読み込んだバイト数が上限を超えた場合はnullを返す
+   *
+   * <p>Content-Lengthがない（チャンク転送の）場合も、上限の1バイト先まで読んだところで打ち切る。
+   */
+  private byte[] readBody(HttpServletRequest request) throws IOException {
+    if (request.getContentLengthLong() > maxBodySize) {
+      return null;
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    InputStream in = request.getInputStream();
+    byte[] buffer = new byte[StreamUtils.BUFFER_SIZE];
+    long total = 0;
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      total += read;
+      if (total > maxBodySize) {
+        return null;
+      }
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static void replay(StoredResponse stored, HttpServletResponse response)
+      throws IOException {
+    response.setStatus(stored.status());
+    response.setHeader(REPLAYED_HEADER, "true");
+    if (stored.contentType() != null) {
+      response.setContentType(stored.contentType());
+    }
+    if (stored.location() != null) {
+      response.setHeader(HttpHeaders.LOCATION, stored.location());
+    }
+    if (stored.etag() != null) {
+      response.setHeader(HttpHeaders.ETAG, stored.etag());
+    }
+    response.setContentLength(stored.body().length);
+    response.getOutputStream().write(stored.body());
+  }
+
+  private void writeError(
+      HttpServletRequest request, HttpServletResponse response, ErrorCode errorCode)
+      throws IOException {
+    request.setAttribute(GlobalExceptionHandler.ERROR_CODE_ATTRIBUTE, errorCode);
+    response.setStatus(errorCode.getStatus().value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(
+        response.getOutputStream(),
+        ErrorResponse.of(errorCode.getCode(), errorCode.getMessage(), List.of()));
+  }
+
+  private void count(String outcome) {
+    meterRegistry.ifAvailable(
+        registry ->
+            Counter.builder("app.idempotency.requests")
+                .description("Requests with an Idempotency-Key")
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment());
+  }
+
+  /** 本文と、結果が変わるヘッダー（If-Match・Content-Type）のハッシュ */
+  private static String fingerprint(HttpServletRequest request, byte[] body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(
+          (Objects.toString(request.getHeader(HttpHeaders.IF_MATCH), "")
+                  + "\n"
+                  + Objects.toString(request.getContentType(), "")
+                  + "\n")
+              .getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest(body));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /** 先に読み取った本文を、ハンドラーが改めて読めるようにする */
+  private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+
+    private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+      super(request);
+      this.body = body;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+      ByteArrayInputStream in = new ByteArrayInputStream(body);
+      return new ServletInputStream() {
+        @Override
+        public int read() {
+          return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+          return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+          return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+          return true;
+        }
+
+        /** 本文は読み込み済みのため、すぐに読める状態と全件読み込み済みを通知する */
+        @Override
+        public void setReadListener(ReadListener listener) {
+          try {
+            if (!isFinished()) {
+              listener.onDataAvailable();
+            }
+            if (isFinished()) {
+              listener.onAllDataRead();
+            }
+          } catch (IOException e) {
+            listener.onError(e);
+          }
+        }
+      };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+      String encoding = getCharacterEncoding();
+      Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+      return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+    }
+
+    @Override
+    public int getContentLength() {
+      return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+      return body.length;
+    }
+  }
+}
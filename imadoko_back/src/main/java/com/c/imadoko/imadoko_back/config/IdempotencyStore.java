@@ -0,0 +1,149 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.imadoko_back.domain.IdempotencyRecord;
+import com.c.imadoko.imadoko_back.repo.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+
+/**
+ * Idempotency-Keyごとの最初のレスポンスの保存先
+ *
+ * <p>メモリ上（Caffeine）に件数の上限と保持期間を設けて保存する。処理中のキーも同じ場所に登録し、同じキーの2件目以降は
+ * 処理中のレスポンスを待つ（データベースへの同時実行が起きない）。
+ *
+ * <p>{@code repository}を指定した場合は完了したレスポンスをデータベースにも保存し、再起動後や他のインスタンスでも再生できる
+ * ようにする。処理中の待ち合わせはインスタンス内のみで行う。
+ */
+@Slf4j
+public class IdempotencyStore {
+
+  /** 保存したレスポンス */
+  public record StoredResponse(
+      String fingerprint,
+      int status,
+      String contentType,
+      String location,
+      String etag,
+      byte[] body) {}
+
+  /**
+   * 処理中または完了したリクエスト
+   *
+   * <p>レスポンスを保存しなかった場合（5xxなど）はnullで完了し、待っていたリクエストは改めて処理する。
+   */
+  public record Entry(String fingerprint, CompletableFuture<StoredResponse> response) {}
+
+  private final Cache<String, Entry> entries;
+  private final Duration ttl;
+  private final IdempotencyRecordRepository repository;
+  private final Clock clock;
+  private final AtomicReference<LocalDateTime> nextPurge;
+
+  public IdempotencyStore(
+      long maximumSize, Duration ttl, IdempotencyRecordRepository repository, Clock clock) {
+    this.entries = Caffeine.newBuilder().maximumSize(maximumSize).expireAfterWrite(ttl).build();
+    this.ttl = ttl;
+    this.repository = repository;
+    this.clock = clock;
+    this.nextPurge = new AtomicReference<>(LocalDateTime.now(clock));
+  }
+
+  /**
+   * キーの処理を開始する
+   *
+   * @return 自分が最初の場合は{@code mine}、既に処理中・完了済みの場合はそのエントリ
+   */
+  public Entry begin(String key, Entry mine) {
+    Entry existing = entries.asMap().putIfAbsent(key, mine);
+    if (existing != null) {
+      return existing;
+    }
+    Optional<StoredResponse> persisted = load(key);
+    if (persisted.isPresent()) {
+      Entry replay =
+          new Entry(
+              persisted.get().fingerprint(), CompletableFuture.completedFuture(persisted.get()));
+      entries.put(key, replay);
+      mine.response().complete(persisted.get());
+      return replay;
+    }
+    return mine;
+  }
+
+  /** 最初のレスポンスを保存し、待っているリクエストに渡す */
+  public void complete(String key, Entry mine, StoredResponse response) {
+    mine.response().complete(response);
+    if (repository == null) {
+      return;
+    }
+    LocalDateTime now = LocalDateTime.now(clock);
+    try {
+      repository.insert(
+          key,
+          response.fingerprint(),
+          response.status(),
+          response.contentType(),
+          response.location(),
+          response.etag(),
+          response.body(),
+          now.plus(ttl));
+      purgeExpired(now);
+    } catch (DataAccessException e) {
+      // 他のインスタンスが先に登録した場合など。メモリ上のレスポンスは再生できる
+      log.warn("Failed to persist idempotent response: key={}, {}", key, e.getMessage());
+    }
+  }
+
+  /** レスポンスを保存せずにキーを解放する。待っているリクエストは改めて処理する */
+  public void abandon(String key, Entry mine) {
+    entries.asMap().remove(key, mine);
+    mine.response().complete(null);
+  }
+
+  /** メモリ上のキーの数（概算） */
+  public long size() {
+    return entries.estimatedSize();
+  }
+
+  private Optional<StoredResponse> load(String key) {
+    if (repository == null) {
+      return Optional.empty();
+    }
+    try {
+      return repository
+          .findValid(key, LocalDateTime.now(clock))
+          .map(IdempotencyStore::toResponse);
+    } catch (DataAccessException e) {
+      log.warn("Failed to load idempotent response: key={}, {}", key, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** 期限切れの行は保持期間ごとに1回、登録したインスタンスが削除する */
+  private void purgeExpired(LocalDateTime now) {
+    LocalDateTime scheduled = nextPurge.get();
+    if (now.isBefore(scheduled) || !nextPurge.compareAndSet(scheduled, now.plus(ttl))) {
+      return;
+    }
+    int deleted = repository.deleteExpired(now);
+    log.debug("Purged expired idempotency records: {}", deleted);
+  }
+
+  private static StoredResponse toResponse(IdempotencyRecord record) {
+    return new StoredResponse(
+        record.getFingerprint(),
+        record.getStatus(),
+        record.getContentType(),
+        record.getLocation(),
+        record.getEtag(),
+        record.getBody());
+  }
+}
@@ -0,0 +1,45 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * JSON変換の設定
+ *
+ * <p>Moduleのbeanは自動構成のObjectMapperに登録される。BlackbirdModuleはgetter/setter・コンストラクタの呼び出しを
+ * リフレクションではなくLambdaMetafactoryで生成したアクセサで行う（Java 11以降ではAfterburnerの後継）。
+ *
+ * <p>JSONに加えて、{@code Accept}（リクエスト本文は{@code Content-Type}）でCBOR（{@code application/cbor}）と
+ * Smile（{@code application/x-jackson-smile}）を選択できる。どちらも同じDTOを同じ設定・モジュールで変換するバイナリ形式で、
+ * 数値や繰り返されるキーが短くなる。既定のコンバーターと同じ型のため、コンバーターの一覧ではJSONより後の位置で置き換えられ、{@code Accept}が未指定や
+ * ワイルドカードの場合は従来どおりJSONを返す。
+ */
+@Configuration
+public class JacksonConfig {
+
+  @Bean
+  public Module blackbirdModule() {
+    return new BlackbirdModule();
+  }
+
+  /** builderはプロトタイプのため、JSONと同じカスタマイズ（Moduleのbeanなど）を適用した別のインスタンスになる */
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+      Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(
+        builder.factory(new SmileFactory()).build());
+  }
+}
@@ -0,0 +1,33 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.GlobalExceptionHandler;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * メトリクスの設定
+ *
+ * <p>エンドポイントごとの {@code http.server.requests} に、GlobalExceptionHandlerが応答したエラーコード（{@code error.code}）を追加する。
+ * ヒストグラムの出力対象は application.properties の {@code management.metrics.distribution.*} で指定する。
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  ServerRequestObservationConvention errorCodeServerRequestObservationConvention() {
+    return new DefaultServerRequestObservationConvention() {
+      @Override
+      public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object errorCode =
+            context.getCarrier().getAttribute(GlobalExceptionHandler.ERROR_CODE_ATTRIBUTE);
+        return super.getLowCardinalityKeyValues(context)
+            .and("error.code", errorCode instanceof ErrorCode ec ? ec.getCode() : "none");
+      }
+    };
+  }
+}
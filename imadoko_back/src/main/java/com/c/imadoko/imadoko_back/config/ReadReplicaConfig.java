@@ -0,0 +1,154 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * リードレプリカの設定（{@code app.datasource.replica.url}を指定した場合に有効）
+ *
+ * <p>DataSourceを{@link LazyConnectionDataSourceProxy}で包み、{@code @Transactional(readOnly = true)}のトランザクション
+ * （読み取り専用に設定されたコネクション）は{@link ReplicaRouting}経由でレプリカから、それ以外はプライマリから取得する。
+ * コネクションは最初のSQLの実行時に取得するため、トランザクションの読み取り専用指定が反映された後に振り分けられる。
+ *
+ * <p>レプリカのプールはBeanとして登録しない（DataSourceのBeanが増えると自動構成のプライマリが作られなくなるため）。
+ * プールのメトリクスは {@code hikaricp.*}（pool=replica）として出力する。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReadReplicaConfig {
+
+  /** レプリカの遅延（秒）。レプリカでない（リカバリー中でない）場合は0、WALをすべて適用済みの場合も0とする */
+  static final String DEFAULT_LAG_QUERY =
+      "select case when not pg_is_in_recovery() then 0"
+          + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+          + " else extract(epoch from now() - pg_last_xact_replay_timestamp()) end";
+
+  @Bean(destroyMethod = "close")
+  ReplicaRouting replicaRouting(Environment env, ObjectProvider<MeterRegistry> meterRegistry) {
+    HikariDataSource pool = new HikariDataSource();
+    pool.setPoolName("replica");
+    pool.setJdbcUrl(env.getRequiredProperty("app.datasource.replica.url"));
+    pool.setUsername(
+        env.getProperty(
+            "app.datasource.replica.username", env.getProperty("spring.datasource.username")));
+    pool.setPassword(
+        env.getProperty(
+            "app.datasource.replica.password", env.getProperty("spring.datasource.password")));
+    String driver = env.getProperty("spring.datasource.driver-class-name");
+    if (driver != null) {
+      pool.setDriverClassName(driver);
+    }
+    int poolSize =
+        env.getProperty(
+            "app.datasource.replica.maximum-pool-size",
+            Integer.class,
+            env.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+    pool.setMaximumPoolSize(poolSize);
+    pool.setReadOnly(true);
+    // レプリカが停止していても起動でき、取得待ちが長引く前にプライマリへ切り替えられるようにする
+    pool.setInitializationFailTimeout(-1);
+    pool.setConnectionTimeout(
+        env.getProperty(
+                "app.datasource.replica.connection-timeout", Duration.class, Duration.ofSeconds(1))
+            .toMillis());
+    meterRegistry.ifAvailable(pool::setMetricRegistry);
+
+    DataSource replica = pool;
+    if (env.getProperty("app.datasource.bulkhead.enabled", Boolean.class, false)) {
+      Duration maxWait =
+          env.getProperty(
+              "app.datasource.bulkhead.max-wait", Duration.class, Duration.ofSeconds(60));
+      replica = new BulkheadDataSource(pool, poolSize, maxWait);
+    }
+
+    Duration maxLag =
+        env.getProperty("app.datasource.replica.max-lag", Duration.class, Duration.ofSeconds(1));
+    Duration pinWindow =
+        env.getProperty(
+            "app.datasource.replica.read-your-writes", Duration.class, Duration.ofSeconds(5));
+    log.info(
+        "Read replica routing enabled: maxLag={}, readYourWrites={}, poolSize={}",
+        maxLag,
+        pinWindow,
+        poolSize);
+    ReplicaRouting routing =
+        new ReplicaRouting(
+            replica,
+            env.getProperty("app.datasource.replica.lag-query", DEFAULT_LAG_QUERY),
+            maxLag,
+            pinWindow);
+    routing.start(
+        env.getProperty(
+            "app.datasource.replica.check-interval", Duration.class, Duration.ofSeconds(1)));
+    return routing;
+  }
+
+  @Bean
+  static BeanPostProcessor readReplicaRouting(ObjectProvider<ReplicaRouting> replicaRouting) {
+    return new RoutingPostProcessor(replicaRouting);
+  }
+
+  @Bean
+  ReadYourWritesFilter readYourWritesFilter(ReplicaRouting replicaRouting, Environment env) {
+    return new ReadYourWritesFilter(
+        replicaRouting,
+        env.getProperty(
+            "app.datasource.replica.read-your-writes", Duration.class, Duration.ofSeconds(5)),
+        env.getProperty("app.datasource.replica.cookie-same-site", "Lax"));
+  }
+
+  @Bean
+  MeterBinder replicaRoutingMetrics(ReplicaRouting replicaRouting) {
+    return registry -> {
+      Gauge.builder("app.datasource.replica.lag", replicaRouting, ReplicaRouting::lagSeconds)
+          .description("Replication lag of the read replica in seconds (NaN if unknown)")
+          .baseUnit("seconds")
+          .register(registry);
+      Gauge.builder(
+              "app.datasource.replica.available",
+              replicaRouting,
+              routing -> routing.isAvailable() ? 1 : 0)
+          .description("Whether read-only transactions are routed to the replica")
+          .register(registry);
+    };
+  }
+
+  /** コネクションプールの上限制御（VirtualThreadConfig）より後に適用し、上限制御を含むプライマリを包む */
+  private static final class RoutingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final ObjectProvider<ReplicaRouting> replicaRouting;
+
+    private RoutingPostProcessor(ObjectProvider<ReplicaRouting> replicaRouting) {
+      this.replicaRouting = replicaRouting;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource primary) || bean instanceof LazyConnectionDataSourceProxy) {
+        return bean;
+      }
+      LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+      proxy.setReadOnlyDataSource(replicaRouting.getObject().readOnlyDataSource(primary));
+      return proxy;
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.LOWEST_PRECEDENCE;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package com.c.imadoko.imadoko_back.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 更新したクライアントの直後の読み取りをプライマリで行う（read-your-writes）
+ *
+ * <p>更新系メソッドのリクエストには、固定期間の終了時刻（エポックミリ秒）をCookieで返す。期間内のCookieを持つリクエストは
+ * {@link ReplicaRouting}でスレッド単位にプライマリへ固定するため、別のインスタンスに振り分けられても自分の更新を読める。
+ * 更新を処理したインスタンス自体も同じ期間プライマリに固定する。
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  static final String COOKIE = "imadoko_primary_until";
+
+  private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+  private final ReplicaRouting routing;
+  private final Duration window;
+  private final String sameSite;
+
+  public ReadYourWritesFilter(ReplicaRouting routing, Duration window, String sameSite) {
+    this.routing = routing;
+    this.window = window;
+    this.sameSite = sameSite;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    if (WRITE_METHODS.contains(request.getMethod())) {
+      // 本文の書き込みでレスポンスがコミットされる前に設定する（失敗した更新でも固定されるだけで害はない）
+      routing.pinPrimary();
+      response.addHeader(HttpHeaders.SET_COOKIE, pinCookie(request).toString());
+      chain.doFilter(request, response);
+      return;
+    }
+    if (!isPinned(request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    ReplicaRouting.pinCurrentThread();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ReplicaRouting.unpinCurrentThread();
+    }
+  }
+
+  private ResponseCookie pinCookie(HttpServletRequest request) {
+    long until = System.currentTimeMillis() + window.toMillis();
+    return ResponseCookie.from(COOKIE, Long.toString(until))
+        .path(request.getContextPath() + "/api")
+        .maxAge(window)
+        .httpOnly(true)
+        .secure(request.isSecure())
+        .sameSite(sameSite)
+        .build();
+  }
+
+  /** 期間内のCookieがあるか。残りが期間を超える値（改ざんや時計のずれ）は無視する */
+  private boolean isPinned(HttpServletRequest request) {
+    Cookie[] cookies = request.getCookies();
+    if (cookies == null) {
+      return false;
+    }
+    long now = System.currentTimeMillis();
+    for (Cookie cookie : cookies) {
+      if (COOKIE.equals(cookie.getName())) {
+        try {
+          long remaining = Long.parseLong(cookie.getValue()) - now;
+          return remaining > 0 && remaining <= window.toMillis();
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return false;
+  }
+}
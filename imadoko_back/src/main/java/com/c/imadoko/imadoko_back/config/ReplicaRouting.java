@@ -0,0 +1,156 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * 読み取り専用トランザクションのレプリカへの振り分け
+ *
+ * <p>{@link #readOnlyDataSource}が返すDataSourceは、レプリカが利用可能で、かつプライマリに固定されていない場合のみレプリカのコネクションを返し、
+ * それ以外はプライマリのコネクションを返す。レプリカの遅延は{@code lagQuery}で定期的に確認し、{@code maxLag}を超えた場合や確認・接続に失敗した場合は
+ * 次の確認で回復するまでプライマリを使用する（起動直後も最初の確認まではプライマリ）。
+ *
+ * <p>プライマリへの固定は2種類ある。
+ *
+ * <ul>
+ *   <li>スレッド単位: 直前に更新したクライアントのリクエスト（{@link ReadYourWritesFilter}）。自分の更新が反映されていないレプリカを読まないようにする
+ *   <li>インスタンス単位: このインスタンスでの更新後や、他のインスタンスの変更通知を受けた後の一定時間。破棄したキャッシュを遅延したレプリカの内容で埋め直さないようにする
+ * </ul>
+ */
+@Slf4j
+public class ReplicaRouting implements AutoCloseable {
+
+  private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+  private final DataSource replica;
+  private final String lagQuery;
+  private final long maxLagMillis;
+  private final long pinNanos;
+  private final ScheduledExecutorService checker;
+
+  private volatile boolean available;
+  private volatile double lagSeconds = Double.NaN;
+  private volatile long pinnedUntil = System.nanoTime();
+
+  public ReplicaRouting(DataSource replica, String lagQuery, Duration maxLag, Duration pinWindow) {
+    this.replica = replica;
+    this.lagQuery = lagQuery;
+    this.maxLagMillis = maxLag.toMillis();
+    this.pinNanos = pinWindow.toNanos();
+    this.checker =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread thread = new Thread(r, "replica-lag-check");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /** レプリカの遅延の定期確認を開始する。最初の確認で利用可能と判定されるまではプライマリを使用する */
+  public void start(Duration checkInterval) {
+    checker.scheduleWithFixedDelay(
+        this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /** 読み取り専用トランザクション用のDataSource。レプリカを使用できない場合はprimaryから取得する */
+  public DataSource readOnlyDataSource(DataSource primary) {
+    return new DelegatingDataSource(replica) {
+      @Override
+      public Connection getConnection() throws SQLException {
+        if (!useReplica()) {
+          return primary.getConnection();
+        }
+        try {
+          return super.getConnection();
+        } catch (SQLException e) {
+          markUnavailable("connection failed: " + e.getMessage());
+          return primary.getConnection();
+        }
+      }
+    };
+  }
+
+  /** このインスタンスの読み取りを一定時間プライマリに固定する */
+  public void pinPrimary() {
+    pinnedUntil = System.nanoTime() + pinNanos;
+  }
+
+  /** 現在のスレッドの読み取りをプライマリに固定する。{@link #unpinCurrentThread}と対で呼ぶ */
+  static void pinCurrentThread() {
+    PINNED.set(Boolean.TRUE);
+  }
+
+  static void unpinCurrentThread() {
+    PINNED.remove();
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+
+  /** 直近に確認したレプリカの遅延（秒）。確認できていない場合はNaN */
+  public double lagSeconds() {
+    return lagSeconds;
+  }
+
+  /** 確認を停止し、レプリカのプールを閉じる */
+  @Override
+  public void close() {
+    checker.shutdownNow();
+    try {
+      if (replica.isWrapperFor(Closeable.class)) {
+        replica.unwrap(Closeable.class).close();
+      }
+    } catch (SQLException | IOException e) {
+      log.warn("Failed to close the read replica pool", e);
+    }
+  }
+
+  boolean useReplica() {
+    return available && PINNED.get() == null && System.nanoTime() - pinnedUntil >= 0;
+  }
+
+  void check() {
+    try (Connection connection = replica.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.setQueryTimeout(Math.max(1, (int) TimeUnit.MILLISECONDS.toSeconds(maxLagMillis)));
+      try (ResultSet rs = statement.executeQuery(lagQuery)) {
+        double lag = Double.NaN;
+        if (rs.next()) {
+          double value = rs.getDouble(1);
+          if (!rs.wasNull()) {
+            lag = value;
+          }
+        }
+        lagSeconds = lag;
+        if (Double.isNaN(lag) || lag * 1000 > maxLagMillis) {
+          markUnavailable("lag=" + lag + "s");
+        } else if (!available) {
+          available = true;
+          log.info("Read replica available (lag={}s); read-only transactions use the replica", lag);
+        }
+      }
+    } catch (SQLException | RuntimeException e) {
+      lagSeconds = Double.NaN;
+      markUnavailable("check failed: " + e.getMessage());
+    }
+  }
+
+  private void markUnavailable(String reason) {
+    if (available) {
+      available = false;
+      log.warn("Read replica unavailable ({}); falling back to the primary", reason);
+    }
+  }
+}
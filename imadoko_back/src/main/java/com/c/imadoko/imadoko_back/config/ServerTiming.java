@@ -0,0 +1,116 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * リクエスト（スレッド）単位の処理段階ごとの時間（Server-Timingヘッダー用）
+ *
+ * <p>{@link ServerTimingFilter} が開始・終了し、各段階の開始時刻は {@link ServerTimingAdvice}（本文の読み取り・書き込み）と
+ * {@link ServerTimingAspect}（コントローラー・サービスの呼び出し）が記録する。集計中でないスレッドでは何もしない。
+ */
+public final class ServerTiming {
+
+  /** 本文の読み取り（JSON変換）と入力チェック */
+  public static final String VALIDATION = "val";
+
+  /** TeamServiceの呼び出し（トランザクションのコミットまで） */
+  public static final String SERVICE = "svc";
+
+  /** SQLの実行 */
+  public static final String DB = "db";
+
+  /** レスポンスのJSON変換 */
+  public static final String SERIALIZATION = "ser";
+
+  /** フィルターに入ってからの合計 */
+  public static final String TOTAL = "total";
+
+  private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+  private final long start = System.nanoTime();
+  private long bodyReadStart;
+  private long handlerStart;
+  private long bodyWriteStart;
+  private long serviceNanos;
+
+  private ServerTiming() {}
+
+  static ServerTiming begin() {
+    ServerTiming timing = new ServerTiming();
+    CURRENT.set(timing);
+    return timing;
+  }
+
+  static void end() {
+    CURRENT.remove();
+  }
+
+  static void bodyReadStarted() {
+    ServerTiming timing = CURRENT.get();
+    if (timing != null && timing.bodyReadStart == 0) {
+      timing.bodyReadStart = System.nanoTime();
+    }
+  }
+
+  static void handlerStarted() {
+    ServerTiming timing = CURRENT.get();
+    if (timing != null && timing.handlerStart == 0) {
+      timing.handlerStart = System.nanoTime();
+    }
+  }
+
+  static void bodyWriteStarted() {
+    ServerTiming timing = CURRENT.get();
+    if (timing != null) {
+      timing.bodyWriteStart = System.nanoTime();
+    }
+  }
+
+  static void serviceCompleted(long nanos) {
+    ServerTiming timing = CURRENT.get();
+    if (timing != null) {
+      timing.serviceNanos += nanos;
+    }
+  }
+
+  /**
+   * 段階ごとの時間（ミリ秒）。発生しなかった段階は含まない
+   *
+   * @param db SQLの実行時間（集計していない場合は null）
+   */
+  Map<String, Double> phases(long end, Duration db) {
+    Map<String, Double> phases = new LinkedHashMap<>();
+    if (bodyReadStart != 0) {
+      // 入力チェックで失敗した場合はハンドラーに入らないため、エラー応答の書き込みまでとする
+      long validated =
+          handlerStart != 0 ? handlerStart : bodyWriteStart != 0 ? bodyWriteStart : end;
+      phases.put(VALIDATION, millis(validated - bodyReadStart));
+    }
+    if (serviceNanos != 0) {
+      phases.put(SERVICE, millis(serviceNanos));
+    }
+    if (db != null && !db.isZero()) {
+      phases.put(DB, millis(db.toNanos()));
+    }
+    if (bodyWriteStart != 0) {
+      phases.put(SERIALIZATION, millis(end - bodyWriteStart));
+    }
+    phases.put(TOTAL, millis(end - start));
+    return phases;
+  }
+
+  /** Server-Timingヘッダーの値（例: {@code svc;dur=3.2, db;dur=1.5, total;dur=6.0}） */
+  static String header(Map<String, Double> phases) {
+    return phases.entrySet().stream()
+        .map(e -> String.format(Locale.ROOT, "%s;dur=%.1f", e.getKey(), e.getValue()))
+        .collect(Collectors.joining(", "));
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
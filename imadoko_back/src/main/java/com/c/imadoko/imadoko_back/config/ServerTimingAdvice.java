@@ -0,0 +1,58 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.lang.reflect.Type;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * リクエスト本文の読み取り開始とレスポンス本文の書き込み開始を {@link ServerTiming} に記録する
+ *
+ * <p>例外ハンドラーが返すエラー応答も対象にするため、対象のコントローラーは限定しない（集計中でないリクエストでは何もしない）。
+ */
+@ControllerAdvice
+public class ServerTimingAdvice extends RequestBodyAdviceAdapter
+    implements ResponseBodyAdvice<Object> {
+
+  @Override
+  public boolean supports(
+      MethodParameter methodParameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(
+      HttpInputMessage inputMessage,
+      MethodParameter parameter,
+      Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    ServerTiming.bodyReadStarted();
+    return inputMessage;
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    ServerTiming.bodyWriteStarted();
+    return body;
+  }
+}
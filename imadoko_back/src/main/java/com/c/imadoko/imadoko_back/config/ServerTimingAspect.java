@@ -0,0 +1,35 @@
+package com.c.imadoko.imadoko_back.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * コントローラーの開始（本文の読み取り・入力チェックの完了）とTeamServiceの処理時間を {@link ServerTiming} に記録する
+ *
+ * <p>サービスの時間は {@link ServiceMetricsAspect} と同じく、キャッシュ・トランザクションより外側で計測する。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingAspect {
+
+  @Before("execution(public * com.c.imadoko.imadoko_back.api.controller.TeamController.*(..))")
+  public void handlerStarted() {
+    ServerTiming.handlerStarted();
+  }
+
+  @Around("execution(public * com.c.imadoko.imadoko_back.service.TeamService.*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      ServerTiming.serviceCompleted(System.nanoTime() - start);
+    }
+  }
+}
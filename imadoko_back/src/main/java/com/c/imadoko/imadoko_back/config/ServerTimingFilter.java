@@ -0,0 +1,99 @@
+package com.c.imadoko.imadoko_back.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * TeamControllerのレスポンスに処理段階ごとの時間（Server-Timingヘッダー）を付与する
+ *
+ * <p>JSON変換の時間はヘッダーの送信後に確定するため、レスポンス本文をバッファしてからヘッダーを設定する。そのため対象は本文が小さい
+ * TeamControllerのパスに限定し、ストリーミングで返すエクスポート（{@code /api/teams/export}）と変更通知（{@code /api/teams/events}）は
+ * 対象外とする。
+ *
+ * <p>{@code app.server-timing.log-sample-rate} の割合で、同じ内容を1行のログ（key=value）にも出力する。
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+  static final String HEADER = "Server-Timing";
+
+  private static final List<String> PATHS = List.of("/api/teams", "/api/teams/{id}");
+  private static final Set<String> EXCLUDED = Set.of("/api/teams/export", "/api/teams/events");
+
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+  private final boolean enabled;
+  private final double logSampleRate;
+  private final String timingAllowOrigin;
+
+  public ServerTimingFilter(
+      @Value("${app.server-timing.enabled:true}") boolean enabled,
+      @Value("${app.server-timing.log-sample-rate:0}") double logSampleRate,
+      @Value("${app.cors.allowed-origins}") String allowedOrigins) {
+    this.enabled = enabled;
+    this.logSampleRate = logSampleRate;
+    // ブラウザのPerformance APIから参照できるようにする（開発者ツールでは指定がなくても表示される）
+    this.timingAllowOrigin = allowedOrigins.replace(",", ", ");
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    if (!enabled) {
+      return true;
+    }
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    return EXCLUDED.contains(path) || PATHS.stream().noneMatch(p -> pathMatcher.match(p, path));
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    ContentCachingResponseWrapper buffered = new ContentCachingResponseWrapper(response);
+    ServerTiming timing = ServerTiming.begin();
+    try {
+      chain.doFilter(request, buffered);
+    } finally {
+      ServerTiming.end();
+    }
+    SqlStatementCounter.Stats sql = SqlStatementCounter.current();
+    Map<String, Double> phases = timing.phases(System.nanoTime(), sql != null ? sql.time() : null);
+    buffered.setHeader(HEADER, ServerTiming.header(phases));
+    buffered.setHeader("Timing-Allow-Origin", timingAllowOrigin);
+    if (logSampleRate > 0 && ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+      log(request, buffered.getStatus(), phases);
+    }
+    buffered.copyBodyToResponse();
+  }
+
+  private void log(HttpServletRequest request, int status, Map<String, Double> phases) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    log.info(
+        "server-timing method={} uri={} status={} {}",
+        request.getMethod(),
+        pattern != null ? pattern : request.getRequestURI(),
+        status,
+        phases.entrySet().stream()
+            .map(e -> String.format(Locale.ROOT, "%s=%.1f", e.getKey(), e.getValue()))
+            .collect(Collectors.joining(" ")));
+  }
+}
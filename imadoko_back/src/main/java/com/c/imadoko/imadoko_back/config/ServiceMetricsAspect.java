@@ -0,0 +1,58 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * サービスの処理時間（{@code app.service}）
+ *
+ * <p>キャッシュ・トランザクションより外側で計測するため、キャッシュヒットやコミット時の失敗も含めた呼び出し元から見た時間になる。
+ * 失敗は応答と同じエラーコードでタグ付けし、業務エラー（4xx）と障害（5xx）、遅い成功を区別できるようにする。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+  static final String METRIC = "app.service";
+
+  private final MeterRegistry registry;
+
+  @Around("execution(public * com.c.imadoko.imadoko_back.service.TeamService.*(..))")
+  public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+    Timer.Sample sample = Timer.start(registry);
+    ErrorCode errorCode = null;
+    try {
+      return joinPoint.proceed();
+    } catch (Throwable e) {
+      errorCode = GlobalExceptionHandler.errorCodeOf(e);
+      throw e;
+    } finally {
+      sample.stop(
+          Timer.builder(METRIC)
+              .description("Service method latency")
+              .tag("service", joinPoint.getSignature().getDeclaringType().getSimpleName())
+              .tag("method", joinPoint.getSignature().getName())
+              .tag("outcome", outcome(errorCode))
+              .tag("error.code", errorCode == null ? "none" : errorCode.getCode())
+              .register(registry));
+    }
+  }
+
+  private static String outcome(ErrorCode errorCode) {
+    if (errorCode == null) {
+      return "SUCCESS";
+    }
+    return errorCode.getStatus().is5xxServerError() ? "SERVER_ERROR" : "CLIENT_ERROR";
+  }
+}
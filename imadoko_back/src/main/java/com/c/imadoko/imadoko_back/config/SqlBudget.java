@@ -0,0 +1,22 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * エンドポイント1リクエストあたりのSQL発行数の上限
+ *
+ * <p>コントローラーのメソッド（またはクラス）に付与する。{@code app.sql.budget.endpoints.{Controller}.{method}} が
+ * 設定されている場合はそちらを優先し、どちらもない場合は {@code app.sql.budget.default} を使う。
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+  /** 許容するSQLの件数 */
+  int value();
+}
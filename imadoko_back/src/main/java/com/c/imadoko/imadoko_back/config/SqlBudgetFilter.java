@@ -0,0 +1,148 @@
+package com.c.imadoko.imadoko_back.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * リクエストごとのSQL発行数の計測と上限チェック
+ *
+ * <p>レスポンスの書き込み（JSON変換時の遅延ロード）まで含めて数えるため、ハンドラーの外側のフィルターで集計する。
+ * 結果は {@code app.sql.statements} / {@code app.sql.time} に記録し、上限（{@link SqlBudget}）を超えた場合や同じSELECTが
+ * 繰り返された場合（N+1の疑い）はWARNログを出力して {@code app.sql.budget.violations} を数える。
+ *
+ * <p>{@code app.sql.budget.fail-on-exceed=true} の場合は例外を投げる（テストで上限超過を検出するため）。
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1) // ServerTimingFilterより外側で集計する
+public class SqlBudgetFilter extends OncePerRequestFilter {
+
+  private final Environment environment;
+  private final ObjectProvider<MeterRegistry> meterRegistry;
+  private final int defaultBudget;
+  private final int repeatThreshold;
+  private final boolean failOnExceed;
+  private final Map<Method, Integer> budgets = new ConcurrentHashMap<>();
+
+  public SqlBudgetFilter(
+      Environment environment,
+      ObjectProvider<MeterRegistry> meterRegistry,
+      @Value("${app.sql.budget.default:10}") int defaultBudget,
+      @Value("${app.sql.budget.repeat-threshold:3}") int repeatThreshold,
+      @Value("${app.sql.budget.fail-on-exceed:false}") boolean failOnExceed) {
+    this.environment = environment;
+    this.meterRegistry = meterRegistry;
+    this.defaultBudget = defaultBudget;
+    this.repeatThreshold = repeatThreshold;
+    this.failOnExceed = failOnExceed;
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    SqlStatementCounter.Stats stats = SqlStatementCounter.begin();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      SqlStatementCounter.end();
+    }
+    if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE)
+        instanceof HandlerMethod handler) {
+      check(request, handler, stats);
+    }
+  }
+
+  private void check(
+      HttpServletRequest request, HandlerMethod handler, SqlStatementCounter.Stats stats) {
+    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+    String endpoint = request.getMethod() + " " + uri;
+    int budget = budgets.computeIfAbsent(handler.getMethod(), m -> budgetOf(handler));
+    List<String> repeated = stats.repeated(repeatThreshold);
+    boolean exceeded = stats.statements() > budget;
+
+    MeterRegistry registry = meterRegistry.getIfAvailable();
+    if (registry != null) {
+      Tags tags = Tags.of("method", request.getMethod(), "uri", uri);
+      DistributionSummary.builder("app.sql.statements")
+          .description("SQL statements per request")
+          .tags(tags)
+          .register(registry)
+          .record(stats.statements());
+      Timer.builder("app.sql.time")
+          .description("SQL execution time per request")
+          .tags(tags)
+          .register(registry)
+          .record(stats.time());
+      if (exceeded) {
+        registry
+            .counter("app.sql.budget.violations", tags.and("reason", "statements"))
+            .increment();
+      }
+      if (!repeated.isEmpty()) {
+        registry
+            .counter("app.sql.budget.violations", tags.and("reason", "repeated"))
+            .increment();
+      }
+    }
+
+    if (!exceeded && repeated.isEmpty()) {
+      log.debug("SQL {}: {}", endpoint, stats);
+      return;
+    }
+    String message =
+        String.format(
+            "%s: %s %s, budget=%d%s",
+            exceeded ? "SQL budget exceeded" : "Repeated SQL (possible N+1)",
+            endpoint,
+            stats,
+            budget,
+            repeated.isEmpty() ? "" : ", repeated=" + repeated);
+    if (failOnExceed) {
+      throw new IllegalStateException(message);
+    }
+    log.warn(message);
+  }
+
+  private int budgetOf(HandlerMethod handler) {
+    Integer configured =
+        environment.getProperty(
+            "app.sql.budget.endpoints."
+                + handler.getBeanType().getSimpleName()
+                + "."
+                + handler.getMethod().getName(),
+            Integer.class);
+    if (configured != null) {
+      return configured;
+    }
+    SqlBudget annotation = handler.getMethodAnnotation(SqlBudget.class);
+    if (annotation == null) {
+      annotation =
+          AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), SqlBudget.class);
+    }
+    return annotation != null ? annotation.value() : defaultBudget;
+  }
+}
@@ -0,0 +1,94 @@
+package com.c.imadoko.imadoko_back.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * リクエスト（スレッド）単位のSQL実行数・実行時間の集計
+ *
+ * <p>{@link #begin()} から {@link #end()} までの間に同じスレッドで発行されたSQLを数える。集計中でないスレッド（バッチ・起動処理など）の
+ * SQLは数えない。同じSELECTが繰り返し発行された場合はN+1の疑いとして {@link Stats#repeated(int)} で取得できる。
+ *
+ * <p>SQLの記録は {@link SqlStatementInspector}、実行時間は {@link SqlTimingListener} が行う。
+ */
+public final class SqlStatementCounter {
+
+  private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+  private SqlStatementCounter() {}
+
+  /** 集計を開始する。既に集計中の場合は破棄して新しく始める */
+  public static Stats begin() {
+    Stats stats = new Stats();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  /** 集計を終了し、結果を返す。集計中でない場合は null */
+  public static Stats end() {
+    Stats stats = CURRENT.get();
+    CURRENT.remove();
+    return stats;
+  }
+
+  /** 集計中の結果。集計中でない場合は null */
+  public static Stats current() {
+    return CURRENT.get();
+  }
+
+  /** SQLを1件記録する（JDBCのStatementを準備するたびに呼ばれる） */
+  public static void record(String sql) {
+    Stats stats = CURRENT.get();
+    if (stats != null) {
+      stats.record(sql);
+    }
+  }
+
+  static void executed(long nanos) {
+    Stats stats = CURRENT.get();
+    if (stats != null) {
+      stats.nanos += nanos;
+    }
+  }
+
+  /** 集計結果。集計したスレッドからのみ更新される */
+  public static final class Stats {
+    private int statements;
+    private long nanos;
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    private void record(String sql) {
+      statements++;
+      if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+        selects.merge(sql, 1, Integer::sum);
+      }
+    }
+
+    /** 発行したSQLの件数（バッチは1件） */
+    public int statements() {
+      return statements;
+    }
+
+    /** SQLの実行に要した時間の合計 */
+    public Duration time() {
+      return Duration.ofNanos(nanos);
+    }
+
+    /** threshold 回以上発行された同一のSELECT */
+    public List<String> repeated(int threshold) {
+      return selects.entrySet().stream()
+          .filter(e -> e.getValue() >= threshold)
+          .map(e -> e.getValue() + "x " + e.getKey())
+          .toList();
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.ROOT, "statements=%d, time=%.1fms", statements, nanos / 1_000_000.0);
+    }
+  }
+}
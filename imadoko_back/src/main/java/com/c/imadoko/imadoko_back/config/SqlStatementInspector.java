@@ -0,0 +1,17 @@
+package com.c.imadoko.imadoko_back.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * 発行されるSQLを {@link SqlStatementCounter} に記録する
+ *
+ * <p>{@code hibernate.session_factory.statement_inspector} で登録する。SQLは変更しない。
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+  @Override
+  public String inspect(String sql) {
+    SqlStatementCounter.record(sql);
+    return sql;
+  }
+}
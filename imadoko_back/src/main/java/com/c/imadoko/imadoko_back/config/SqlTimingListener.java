@@ -0,0 +1,34 @@
+package com.c.imadoko.imadoko_back.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * SQLの実行時間を {@link SqlStatementCounter} に加算する
+ *
+ * <p>{@code hibernate.session.events.auto} で登録し、セッションごとに生成される。結果セットの読み取り時間は含まない。
+ */
+public class SqlTimingListener implements SessionEventListener {
+
+  private long executeStart;
+  private long batchStart;
+
+  @Override
+  public void jdbcExecuteStatementStart() {
+    executeStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteStatementEnd() {
+    SqlStatementCounter.executed(System.nanoTime() - executeStart);
+  }
+
+  @Override
+  public void jdbcExecuteBatchStart() {
+    batchStart = System.nanoTime();
+  }
+
+  @Override
+  public void jdbcExecuteBatchEnd() {
+    SqlStatementCounter.executed(System.nanoTime() - batchStart);
+  }
+}
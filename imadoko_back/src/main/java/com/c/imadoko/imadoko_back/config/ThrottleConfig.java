@@ -0,0 +1,62 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.imadoko_back.config.ThrottlingInterceptor.Lane;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * チームAPIの流量制限・同時実行数の上限の設定（{@code app.throttle.enabled=false}で無効化）
+ *
+ * <p>インターセプターの登録はWebConfigで行う。接続元は{@code request.getRemoteAddr()}で識別するため、リバースプロキシの
+ * 後ろで動かす場合は {@code server.forward-headers-strategy} を設定してクライアントのIPが渡るようにする（prodプロファイルで設定済み）。
+ * 設定しない場合は全クライアントがプロキシのIPとして1つのバケットを共有する。
+ *
+ * <p>更新の同時実行数はコネクションプールの最大数より小さくし、読み取り用のコネクションを残す。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.throttle.enabled", havingValue = "true", matchIfMissing = true)
+public class ThrottleConfig {
+
+  @Bean
+  ThrottlingInterceptor throttlingInterceptor(Environment env) {
+    long maxClients = env.getProperty("app.throttle.max-clients", Long.class, 100_000L);
+    Duration retryAfter =
+        env.getProperty("app.throttle.retry-after", Duration.class, Duration.ofSeconds(1));
+    Lane read = lane(env, "read", 20, 40, 100, maxClients, retryAfter);
+    Lane write = lane(env, "write", 5, 10, 5, maxClients, retryAfter);
+    return new ThrottlingInterceptor(read, write);
+  }
+
+  @Bean
+  MeterBinder throttleMetrics(ThrottlingInterceptor throttlingInterceptor) {
+    return throttlingInterceptor::bindTo;
+  }
+
+  private static Lane lane(
+      Environment env,
+      String kind,
+      double rate,
+      int burst,
+      int maxConcurrent,
+      long maxClients,
+      Duration retryAfter) {
+    String prefix = "app.throttle." + kind + ".";
+    rate = env.getProperty(prefix + "rate", Double.class, rate);
+    burst = env.getProperty(prefix + "burst", Integer.class, burst);
+    maxConcurrent = env.getProperty(prefix + "max-concurrent", Integer.class, maxConcurrent);
+    log.info(
+        "Throttle enabled: kind={}, rate={}/s, burst={}, maxConcurrent={}",
+        kind,
+        rate,
+        burst,
+        maxConcurrent);
+    return new Lane(
+        kind, new ClientRateLimiter(rate, burst, maxClients), maxConcurrent, retryAfter);
+  }
+}
@@ -0,0 +1,152 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * リクエストの流量制限と同時実行数の上限（バルクヘッド）
+ *
+ * <p>読み取り（GET/HEAD）と更新（POST/PUT/PATCH/DELETE）を別々に制限する。更新の同時実行数をコネクションプールより小さくしておくことで、
+ * 更新の再試行が集中しても読み取りのコネクションが残る。
+ *
+ * <ul>
+ *   <li>流量: 接続元IPごとの{@link ClientRateLimiter}。超えた場合は次のトークンが満ちるまでの時間をRetry-Afterで返す
+ *   <li>同時実行数: セマフォを待たずに取得し、空きがない場合は{@code retryAfter}後の再試行を求める
+ * </ul>
+ *
+ * <p>いずれも{@link ErrorCode#TOO_MANY_REQUESTS}（429）として{@code GlobalExceptionHandler}が応答する。許可はハンドラーの
+ * 完了後（レスポンスの書き込み後）に返却する。
+ */
+public class ThrottlingInterceptor implements AsyncHandlerInterceptor {
+
+  private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+  private static final String PERMIT = ThrottlingInterceptor.class.getName() + ".permit";
+
+  private final Lane read;
+  private final Lane write;
+
+  public ThrottlingInterceptor(Lane read, Lane write) {
+    this.read = read;
+    this.write = write;
+  }
+
+  public void bindTo(MeterRegistry registry) {
+    read.bindTo(registry);
+    write.bindTo(registry);
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (request.getDispatcherType() != DispatcherType.REQUEST) {
+      return true;
+    }
+    Lane lane = WRITE_METHODS.contains(request.getMethod()) ? write : read;
+    lane.acquire(request.getRemoteAddr());
+    request.setAttribute(PERMIT, lane);
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(
+      HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+    release(request);
+  }
+
+  @Override
+  public void afterConcurrentHandlingStarted(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    release(request);
+  }
+
+  private static void release(HttpServletRequest request) {
+    if (request.getAttribute(PERMIT) instanceof Lane lane) {
+      request.removeAttribute(PERMIT);
+      lane.permits.release();
+    }
+  }
+
+  /** 読み取り・更新それぞれの制限。メトリクスは{@link #bindTo}で {@code app.throttle.*}（kind=read|write）として出力する */
+  public static final class Lane {
+
+    private final String kind;
+    private final ClientRateLimiter rateLimiter;
+    private final int maxConcurrent;
+    private final Semaphore permits;
+    private final Duration retryAfter;
+    private final LongAdder rateRejected = new LongAdder();
+    private final LongAdder bulkheadRejected = new LongAdder();
+
+    public Lane(
+        String kind, ClientRateLimiter rateLimiter, int maxConcurrent, Duration retryAfter) {
+      if (maxConcurrent < 1) {
+        throw new IllegalArgumentException("maxConcurrent: " + maxConcurrent);
+      }
+      this.kind = kind;
+      this.rateLimiter = rateLimiter;
+      this.maxConcurrent = maxConcurrent;
+      this.permits = new Semaphore(maxConcurrent);
+      this.retryAfter = retryAfter;
+    }
+
+    /** 実行中のリクエスト数 */
+    public int active() {
+      return maxConcurrent - permits.availablePermits();
+    }
+
+    public void bindTo(MeterRegistry registry) {
+      rejected(registry, "rate", rateRejected);
+      rejected(registry, "bulkhead", bulkheadRejected);
+      Gauge.builder("app.throttle.active", this, Lane::active)
+          .description("Requests in progress")
+          .tag("kind", kind)
+          .register(registry);
+      Gauge.builder("app.throttle.max-concurrent", this, lane -> lane.maxConcurrent)
+          .description("Maximum concurrent requests (bulkhead size)")
+          .tag("kind", kind)
+          .register(registry);
+      Gauge.builder("app.throttle.rate", rateLimiter, ClientRateLimiter::rate)
+          .description("Requests per second allowed for each client")
+          .tag("kind", kind)
+          .register(registry);
+      Gauge.builder("app.throttle.burst", rateLimiter, ClientRateLimiter::burst)
+          .description("Consecutive requests allowed for each client")
+          .tag("kind", kind)
+          .register(registry);
+      Gauge.builder("app.throttle.clients", rateLimiter, ClientRateLimiter::clients)
+          .description("Clients with a rate limit bucket")
+          .tag("kind", kind)
+          .register(registry);
+    }
+
+    private void acquire(String client) {
+      Duration wait = rateLimiter.tryAcquire(client);
+      if (!wait.isZero()) {
+        rateRejected.increment();
+        throw new ImadokoException(ErrorCode.TOO_MANY_REQUESTS, wait);
+      }
+      if (!permits.tryAcquire()) {
+        bulkheadRejected.increment();
+        throw new ImadokoException(ErrorCode.TOO_MANY_REQUESTS, retryAfter);
+      }
+    }
+
+    private void rejected(MeterRegistry registry, String reason, LongAdder count) {
+      FunctionCounter.builder("app.throttle.rejected", count, LongAdder::sum)
+          .description("Requests rejected with 429")
+          .tags("kind", kind, "reason", reason)
+          .register(registry);
+    }
+  }
+}
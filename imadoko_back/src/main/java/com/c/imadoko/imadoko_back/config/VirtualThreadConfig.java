@@ -0,0 +1,123 @@
+package com.c.imadoko.imadoko_back.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * 仮想スレッドでリクエストを処理する場合の設定（virtual-threadsプロファイルで有効化）
+ *
+ * <p>仮想スレッドの有効化自体は {@code spring.threads.virtual.enabled}（JDK 21以上）で行う。ここではDataSourceを
+ * {@link BulkheadDataSource} で包み、コネクションプールの最大数を超える取得をプールの手前で待たせる。
+ *
+ * <p>待ちはプール側の {@code hikaricp.connections.acquire} には現れないため、待機数を
+ * {@code app.datasource.bulkhead.waiting} として出力する。
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.bulkhead.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  @Bean
+  static BeanPostProcessor dataSourceBulkhead(Environment env) {
+    if (env.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+        && Runtime.version().feature() < 21) {
+      log.warn(
+          "spring.threads.virtual.enabled is set but JDK {} has no virtual threads; requests run on platform threads",
+          Runtime.version().feature());
+    }
+    Duration maxWait =
+        env.getProperty("app.datasource.bulkhead.max-wait", Duration.class, Duration.ofSeconds(60));
+    Integer configured = env.getProperty("app.datasource.bulkhead.max-concurrent", Integer.class);
+
+    return new BulkheadPostProcessor(configured, maxWait);
+  }
+
+  @Bean
+  MeterBinder dataSourceBulkheadMetrics(ObjectProvider<DataSource> dataSources) {
+    return registry ->
+        dataSources.orderedStream()
+            .map(VirtualThreadConfig::bulkheadOf)
+            .flatMap(Optional::stream)
+            .forEach(
+                bulkhead -> {
+                  Gauge.builder(
+                          "app.datasource.bulkhead.waiting",
+                          bulkhead,
+                          BulkheadDataSource::queueLength)
+                      .description("Threads waiting for a connection permit")
+                      .register(registry);
+                  Gauge.builder(
+                          "app.datasource.bulkhead.available",
+                          bulkhead,
+                          BulkheadDataSource::availablePermits)
+                      .description("Connection permits not in use")
+                      .register(registry);
+                });
+  }
+
+  /** レプリカへの振り分け（ReadReplicaConfig）で包まれている場合も、内側の上限制御を取り出す */
+  private static Optional<BulkheadDataSource> bulkheadOf(DataSource dataSource) {
+    try {
+      return dataSource.isWrapperFor(BulkheadDataSource.class)
+          ? Optional.of(dataSource.unwrap(BulkheadDataSource.class))
+          : Optional.empty();
+    } catch (SQLException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * DataSourceをBulkheadDataSourceで包む
+   *
+   * <p>レプリカへの振り分け（ReadReplicaConfig）より先に適用し、プライマリのプールを直接包む。
+   */
+  private static final class BulkheadPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final Integer configured;
+    private final Duration maxWait;
+
+    private BulkheadPostProcessor(Integer configured, Duration maxWait) {
+      this.configured = configured;
+      this.maxWait = maxWait;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+      if (!(bean instanceof DataSource dataSource)
+          || bean instanceof BulkheadDataSource
+          || bean instanceof LazyConnectionDataSourceProxy) {
+        return bean;
+      }
+      // 未指定の場合はプールの最大数に合わせる（プールで待つスレッドが生じない）
+      int maxConcurrent =
+          configured != null
+              ? configured
+              : bean instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+      log.info(
+          "Connection bulkhead enabled: dataSource={}, maxConcurrent={}, maxWait={}",
+          beanName,
+          maxConcurrent,
+          maxWait);
+      return new BulkheadDataSource(dataSource, maxConcurrent, maxWait);
+    }
+
+    @Override
+    public int getOrder() {
+      return Ordered.HIGHEST_PRECEDENCE;
+    }
+  }
+}
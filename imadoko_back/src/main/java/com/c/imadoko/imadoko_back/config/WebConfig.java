@@ -1,8 +1,14 @@
 package com.c.imadoko.imadoko_back.config;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
@@ -11,14 +17,51 @@ public class WebConfig implements WebMvcConfigurer {
   @Value("${app.cors.allowed-origins}")
   private String allowedOrigins;
 
+  /** 流量制限（ThrottleConfig）。無効化されている場合は登録しない */
+  private final ObjectProvider<ThrottlingInterceptor> throttlingInterceptor;
+
+  public WebConfig(ObjectProvider<ThrottlingInterceptor> throttlingInterceptor) {
+    this.throttlingInterceptor = throttlingInterceptor;
+  }
+
   @Override
   public void addCorsMappings(CorsRegistry registry) {
     registry
         .addMapping("/api/**")
         .allowedOrigins(allowedOrigins.split(","))
-        .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
+        .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
         .allowedHeaders("*")
+        .exposedHeaders("ETag", "Server-Timing", "Retry-After", IdempotencyFilter.REPLAYED_HEADER)
         .allowCredentials(true)
         .maxAge(3600);
   }
+
+  /**
+   * APIの応答はAcceptによって形式（JSON/CBOR/Smile、JacksonConfig）が変わるため、キャッシュが形式ごとに保持するようVaryを付ける
+   *
+   * <p>304を返す場合も付くよう、ハンドラーの実行前に設定する。ETagも形式ごとに異なる値にしている（ETagEncoding）。
+   *
+   * <p>チームAPIには流量制限を掛ける。一括登録（/api/teams:bulk）は /api/teams/** に含まれないため個別に指定する。
+   * 接続を保持し続けるSSE（/api/teams/events）は同時実行数に数えないよう除外する。
+   */
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(
+            new HandlerInterceptor() {
+              @Override
+              public boolean preHandle(
+                  HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+              }
+            })
+        .addPathPatterns("/api/**");
+    throttlingInterceptor.ifAvailable(
+        interceptor ->
+            registry
+                .addInterceptor(interceptor)
+                .addPathPatterns("/api/teams", "/api/teams/**", "/api/teams:bulk")
+                .excludePathPatterns("/api/teams/events"));
+  }
 }
@@ -0,0 +1,45 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Idempotency-Keyごとに保存した最初のレスポンス
+ *
+ * <p>keyは「メソッド パス Idempotency-Key」、fingerprintはリクエスト本文などのハッシュ。登録は
+ * {@code IdempotencyRecordRepository#insert} で行う。
+ */
+@Entity
+@Immutable
+@Table(name = "idempotency_record")
+@Getter
+@NoArgsConstructor
+public class IdempotencyRecord {
+  @Id
+  @Column(name = "idempotency_key", length = 400)
+  private String key;
+
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Column(nullable = false)
+  private int status;
+
+  @Column(length = 100)
+  private String contentType;
+
+  @Column(length = 400)
+  private String location;
+
+  @Column(length = 200)
+  private String etag;
+
+  @Column(nullable = false)
+  private byte[] body;
+
+  @Column(nullable = false)
+  private LocalDateTime expiresAt;
+}
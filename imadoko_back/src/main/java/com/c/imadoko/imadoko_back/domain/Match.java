@@ -0,0 +1,25 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 試合。スコアや配置は {@link MatchEvent} と {@link MatchSnapshot} から復元する */
+@Entity
+@Table(name = "matches")
+@Data
+@NoArgsConstructor
+public class Match {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "match_seq")
+  @SequenceGenerator(name = "match_seq", sequenceName = "match_seq", allocationSize = 50)
+  private Long id;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+
+  public Match(LocalDateTime createdAt) {
+    this.createdAt = createdAt;
+  }
+}
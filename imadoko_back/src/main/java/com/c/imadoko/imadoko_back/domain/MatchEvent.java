@@ -0,0 +1,35 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 試合イベント（追記専用）
+ *
+ * <p>登録は {@code MatchEventRepository#append} の1文のINSERTで行うため、エンティティとしては読み取りのみ。
+ * payloadはイベントのリクエスト本文（JSON）。
+ */
+@Entity
+@Immutable
+@Table(name = "match_event")
+@IdClass(MatchSeqId.class)
+@Getter
+@NoArgsConstructor
+public class MatchEvent {
+  @Id private Long matchId;
+
+  @Id private Long seq;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 20)
+  private MatchEventType type;
+
+  @Column(nullable = false, length = 4000)
+  private String payload;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+}
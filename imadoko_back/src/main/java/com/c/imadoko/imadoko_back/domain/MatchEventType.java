@@ -0,0 +1,17 @@
+package com.c.imadoko.imadoko_back.domain;
+
+/** 試合イベントの種類 */
+public enum MatchEventType {
+  /** チームの設定（配置はリセットされる） */
+  TEAM,
+  /** 基準配置（ローテーション0回時点）の一括設定 */
+  LINEUP,
+  /** 基準配置の1スロットへの選手の配置（playerIdがnullの場合は外す） */
+  SUBSTITUTION,
+  /** スコアの直接修正（so/br/sets） */
+  SCORE,
+  /** ラリーの得点。サーブ権の有無からサイドアウト/ブレイクを判定する */
+  RALLY,
+  /** コートチェンジ（A/Bの入れ替え） */
+  SWAP_SIDES
+}
@@ -0,0 +1,15 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import java.io.Serializable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** 試合ごとの連番をキーとするテーブル（イベント、スナップショット）の複合主キー */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MatchSeqId implements Serializable {
+  private Long matchId;
+  private Long seq;
+}
@@ -0,0 +1,26 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/** seq番目のイベントまでを適用した試合状態（{@link MatchState}のJSON）。登録は {@code MatchSnapshotRepository#insert} で行う */
+@Entity
+@Immutable
+@Table(name = "match_snapshot")
+@IdClass(MatchSeqId.class)
+@Getter
+@NoArgsConstructor
+public class MatchSnapshot {
+  @Id private Long matchId;
+
+  @Id private Long seq;
+
+  @Column(nullable = false, length = 4000)
+  private String state;
+
+  @Column(nullable = false)
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,101 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 試合状態（フロントエンドの MatchState に相当）
+ *
+ * <p>seq番目までのイベントを適用した結果。base はローテーション0回時点の配置（スロット番号 → 選手ID）で、
+ * 現在の配置は score.so 回ローテーションしたもの。ベンチの並び順は端末ごとの表示状態のため保持しない。
+ */
+@JsonIgnoreProperties(value = "serve", allowGetters = true)
+public record MatchState(Long matchId, long seq, Side a, Side b) {
+
+  public static MatchState initial(Long matchId) {
+    return new MatchState(matchId, 0, Side.EMPTY, Side.EMPTY);
+  }
+
+  /** サーブ権のあるサイド（"A" / "B"）。サイドアウト数が不正な場合はnull */
+  @JsonProperty("serve")
+  public String serve() {
+    int diff = b.score().so() - a.score().so();
+    return diff == 0 ? "A" : diff == 1 ? "B" : null;
+  }
+
+  public Side side(String side) {
+    return "A".equals(side) ? a : b;
+  }
+
+  public MatchState withSide(String side, Side value) {
+    return "A".equals(side) ? new MatchState(matchId, seq, value, b) : new MatchState(matchId, seq, a, value);
+  }
+
+  public MatchState withSeq(long seq) {
+    return new MatchState(matchId, seq, a, b);
+  }
+
+  public MatchState swapSides() {
+    return new MatchState(matchId, seq, b, a);
+  }
+
+  public record Side(Long teamId, Map<Integer, Long> base, Score score) {
+
+    static final Side EMPTY = new Side(null, Collections.unmodifiableMap(emptyBase()), Score.ZERO);
+
+    public Side withTeam(Long teamId) {
+      return new Side(teamId, EMPTY.base(), score);
+    }
+
+    public Side withBase(Map<Integer, Long> base) {
+      Map<Integer, Long> copy = emptyBase();
+      base.forEach(copy::put);
+      return new Side(teamId, Collections.unmodifiableMap(copy), score);
+    }
+
+    /** slotに選手を配置する。既に他のスロットにいる場合はそちらから外す */
+    public Side withPlayer(int slot, Long playerId) {
+      Map<Integer, Long> copy = new LinkedHashMap<>(base);
+      if (playerId != null) {
+        copy.replaceAll((s, id) -> playerId.equals(id) ? null : id);
+      }
+      copy.put(slot, playerId);
+      return new Side(teamId, Collections.unmodifiableMap(copy), score);
+    }
+
+    public Side withScore(Score score) {
+      return new Side(teamId, base, score);
+    }
+
+    private static Map<Integer, Long> emptyBase() {
+      Map<Integer, Long> base = new LinkedHashMap<>();
+      for (int slot = 1; slot <= PackedLineup.SLOTS; slot++) {
+        base.put(slot, null);
+      }
+      return base;
+    }
+  }
+
+  /** points は so + br */
+  public record Score(int so, int br, int sets, int points) {
+
+    static final Score ZERO = new Score(0, 0, 0, 0);
+
+    public Score withSo(int so) {
+      int value = Math.max(0, so);
+      return new Score(value, br, sets, value + br);
+    }
+
+    public Score withBr(int br) {
+      int value = Math.max(0, br);
+      return new Score(so, value, sets, so + value);
+    }
+
+    public Score withSets(int sets) {
+      return new Score(so, br, sets, points);
+    }
+  }
+}
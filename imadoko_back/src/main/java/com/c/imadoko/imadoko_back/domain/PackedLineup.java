@@ -0,0 +1,114 @@
+package com.c.imadoko.imadoko_back.domain;
+
+/**
+ * コート上の6人の配置（CourtAssignment）をlong 1つに詰めて扱うローテーション計算
+ *
+ * <p>ローテーション順（1→6→5→4→3→2）のi番目の位置に立つ選手のインデックスを、下位から8bitずつ格納する。
+ * 空きスロットは {@link #EMPTY}。ローテーションはビット回転だけで計算できるため、オブジェクトを生成しない。
+ *
+ * <p>フロントエンドの {@code rotation.ts}（rotateAssignment / reverseRotateSlot / calculateSetterRotation）と同じ規則。
+ */
+public final class PackedLineup {
+
+  /** コート上のスロット数 */
+  public static final int SLOTS = 6;
+
+  /** 空きスロットを表す値 */
+  public static final int EMPTY = 0xFF;
+
+  /** 選手インデックスとして使える最大値 */
+  public static final int MAX_PLAYER_INDEX = EMPTY - 1;
+
+  /** 全スロットが空の配置 */
+  public static final long EMPTY_LINEUP = 0xFFFF_FFFF_FFFFL;
+
+  private static final int BITS = 8;
+  private static final long MASK = EMPTY_LINEUP;
+
+  /** ローテーション順 → スロット番号 */
+  private static final int[] CYCLE = {1, 6, 5, 4, 3, 2};
+
+  /** スロット番号 → ローテーション順の位置（添字0は未使用） */
+  private static final int[] CYCLE_INDEX = {-1, 0, 5, 4, 3, 2, 1};
+
+  private PackedLineup() {}
+
+  /** スロット(1〜6)の選手インデックスを返す。空きの場合は {@link #EMPTY} */
+  public static int get(long lineup, int slot) {
+    return (int) (lineup >>> shift(slot)) & EMPTY;
+  }
+
+  /** スロット(1〜6)に選手インデックスを設定した配置を返す */
+  public static long with(long lineup, int slot, int playerIndex) {
+    if (playerIndex < 0 || playerIndex > EMPTY) {
+      throw new IllegalArgumentException("playerIndex: " + playerIndex);
+    }
+    int shift = shift(slot);
+    return (lineup & ~((long) EMPTY << shift)) | ((long) playerIndex << shift);
+  }
+
+  /** 選手が立っているスロット番号を返す。配置にいない場合は0 */
+  public static int slotOf(long lineup, int playerIndex) {
+    for (int i = 0; i < SLOTS; i++) {
+      if (((lineup >>> (i * BITS)) & EMPTY) == playerIndex) {
+        return CYCLE[i];
+      }
+    }
+    return 0;
+  }
+
+  /** 1→6→5→4→3→2 の順に rotations 回ローテーションした配置を返す（負の数は逆回転） */
+  public static long rotate(long lineup, int rotations) {
+    int n = normalize(rotations);
+    if (n == 0) {
+      return lineup;
+    }
+    int bits = n * BITS;
+    return ((lineup << bits) | (lineup >>> (SLOTS * BITS - bits))) & MASK;
+  }
+
+  /** 表示上のスロットから、rotations 回ローテーションする前のスロットを逆算する */
+  public static int reverseRotateSlot(int displaySlot, int rotations) {
+    int index = cycleIndex(displaySlot);
+    return CYCLE[(index - normalize(rotations) + SLOTS) % SLOTS];
+  }
+
+  /**
+   * セッターを目標スロットに移動させるために必要なローテーション数（0〜5）を返す
+   *
+   * @return セッターが配置にいない場合は -1
+   */
+  public static int setterRotations(long lineup, int setterIndex, int targetSlot) {
+    int targetIndex = cycleIndex(targetSlot);
+    int current = slotOf(lineup, setterIndex);
+    if (current == 0) {
+      return -1;
+    }
+    return (targetIndex - CYCLE_INDEX[current] + SLOTS) % SLOTS;
+  }
+
+  /** 6通りのローテーションをすべて out に書き込む（out[r] = r回ローテーションした配置） */
+  public static void allRotations(long lineup, long[] out) {
+    if (out.length < SLOTS) {
+      throw new IllegalArgumentException("out.length must be >= " + SLOTS);
+    }
+    for (int r = 0; r < SLOTS; r++) {
+      out[r] = rotate(lineup, r);
+    }
+  }
+
+  private static int normalize(int rotations) {
+    return ((rotations % SLOTS) + SLOTS) % SLOTS;
+  }
+
+  private static int cycleIndex(int slot) {
+    if (slot < 1 || slot > SLOTS) {
+      throw new IllegalArgumentException("slot: " + slot);
+    }
+    return CYCLE_INDEX[slot];
+  }
+
+  private static int shift(int slot) {
+    return cycleIndex(slot) * BITS;
+  }
+}
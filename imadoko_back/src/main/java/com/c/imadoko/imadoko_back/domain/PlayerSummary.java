@@ -0,0 +1,5 @@
+package com.c.imadoko.imadoko_back.domain;
+
+/** 選手検索の結果。所属チームのidと名前を含む */
+public record PlayerSummary(
+    Long id, String firstName, String lastName, String position, Long teamId, String teamName) {}
@@ -13,7 +13,8 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 public class Team {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "team_seq")
+  @SequenceGenerator(name = "team_seq", sequenceName = "team_seq", allocationSize = 50)
   private Long id;
 
   @NotBlank(message = "チーム名は必須です")
@@ -21,9 +22,12 @@ public class Team {
   @Column(unique = true, nullable = false)
   private String teamName;
 
+  /** 楽観ロック用のバージョン。ETagの生成にも使用する */
+  @Version private Long version;
+
   @Size(max = 14, message = "選手は最大14人まで登録できます")
   @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-  @JoinColumn(name = "team_id")
+  @JoinColumn(name = "team_id", nullable = false) // INSERT時に外部キーを含め、後続のUPDATEを省く
   private List<Player> players = new ArrayList<>();
 
   public Team(String teamName) {
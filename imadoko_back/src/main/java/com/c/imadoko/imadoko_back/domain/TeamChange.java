@@ -0,0 +1,28 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * チームの変更履歴（作成・更新・削除）
+ *
+ * <p>登録は {@code TeamChangeRepository#record} のINSERTで行うため、エンティティとしては読み取りのみ。変更内容は持たず、
+ * 同期時にチームの現在の状態（削除済みの場合は削除）を返す。
+ */
+@Entity
+@Immutable
+@Table(name = "team_change")
+@Getter
+@NoArgsConstructor
+public class TeamChange {
+  @Id private Long seq;
+
+  @Column(nullable = false)
+  private Long teamId;
+
+  @Column(nullable = false)
+  private LocalDateTime changedAt;
+}
@@ -0,0 +1,6 @@
+package com.c.imadoko.imadoko_back.domain;
+
+import java.time.LocalDateTime;
+
+/** チームごとの最新の変更（変更履歴のseqと登録時刻） */
+public record TeamChangeMark(Long teamId, long seq, LocalDateTime changedAt) {}
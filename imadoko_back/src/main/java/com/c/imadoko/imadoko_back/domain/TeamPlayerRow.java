@@ -0,0 +1,15 @@
+package com.c.imadoko.imadoko_back.domain;
+
+/**
+ * チームと選手を1行にしたコンストラクタ射影（left join のため、選手のいないチームは選手の項目がnullの1行になる）
+ *
+ * <p>エンティティを生成せずにレスポンスを組み立てるために使用する。
+ */
+public record TeamPlayerRow(
+    Long teamId,
+    String teamName,
+    Long version,
+    Long playerId,
+    String firstName,
+    String lastName,
+    String position) {}
@@ -0,0 +1,4 @@
+package com.c.imadoko.imadoko_back.domain;
+
+/** 一覧表示用の軽量なチーム情報（Playerエンティティは読み込まない） */
+public record TeamSummary(Long id, String teamName, long playerCount) {}
@@ -0,0 +1,50 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.IdempotencyRecord;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  @Query("select r from IdempotencyRecord r where r.key = :key and r.expiresAt > :now")
+  Optional<IdempotencyRecord> findValid(@Param("key") String key, @Param("now") LocalDateTime now);
+
+  /**
+   * レスポンスを登録する
+   *
+   * <p>リクエストの処理（トランザクション）の完了後に呼び出すため、別トランザクションで実行する。他のインスタンスが同じキーを
+   * 先に登録した場合は主キー制約で失敗する。
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Modifying
+  @Query(
+      value =
+          "insert into idempotency_record"
+              + " (idempotency_key, fingerprint, status, content_type, location, etag, body,"
+              + " expires_at)"
+              + " values (:key, :fingerprint, :status, :contentType, :location, :etag, :body,"
+              + " :expiresAt)",
+      nativeQuery = true)
+  int insert(
+      @Param("key") String key,
+      @Param("fingerprint") String fingerprint,
+      @Param("status") int status,
+      @Param("contentType") String contentType,
+      @Param("location") String location,
+      @Param("etag") String etag,
+      @Param("body") byte[] body,
+      @Param("expiresAt") LocalDateTime expiresAt);
+
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  @Modifying
+  @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
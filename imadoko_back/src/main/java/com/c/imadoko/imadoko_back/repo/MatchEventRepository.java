@@ -0,0 +1,41 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.MatchEvent;
+import com.c.imadoko.imadoko_back.domain.MatchSeqId;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchEventRepository extends JpaRepository<MatchEvent, MatchSeqId> {
+
+  @Query("select max(e.seq) from MatchEvent e where e.matchId = :matchId")
+  Optional<Long> findLastSeq(@Param("matchId") Long matchId);
+
+  /** スナップショット以降のイベント（seq昇順） */
+  List<MatchEvent> findByMatchIdAndSeqGreaterThanOrderBySeq(Long matchId, long seq);
+
+  /**
+   * seq番目のイベントを1文のINSERTで追記する
+   *
+   * <p>直前のイベントがseq - 1番目の場合のみ登録され、登録件数（0または1）を返す。
+   * 同じseqでの同時追記は主キー制約で失敗し、存在しない試合は外部キー制約で失敗する。
+   */
+  @Modifying
+  @Query(
+      value =
+          "insert into match_event (match_id, seq, type, payload, created_at)"
+              + " select :matchId, :seq, :type, :payload, current_timestamp"
+              + " where (select coalesce(max(e.seq), 0) from match_event e where e.match_id = :matchId)"
+              + " = :seq - 1",
+      nativeQuery = true)
+  int append(
+      @Param("matchId") Long matchId,
+      @Param("seq") long seq,
+      @Param("type") String type,
+      @Param("payload") String payload);
+}
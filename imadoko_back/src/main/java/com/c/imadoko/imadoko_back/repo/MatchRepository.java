@@ -0,0 +1,8 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.Match;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchRepository extends JpaRepository<Match, Long> {}
@@ -0,0 +1,29 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.MatchSeqId;
+import com.c.imadoko.imadoko_back.domain.MatchSnapshot;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MatchSnapshotRepository extends JpaRepository<MatchSnapshot, MatchSeqId> {
+
+  Optional<MatchSnapshot> findFirstByMatchIdOrderBySeqDesc(Long matchId);
+
+  /**
+   * スナップショットを登録する
+   *
+   * <p>イベントの追記と同じトランザクションで実行する。追記がロールバックされた場合はスナップショットも残らない。
+   */
+  @Modifying
+  @Query(
+      value =
+          "insert into match_snapshot (match_id, seq, state, created_at)"
+              + " values (:matchId, :seq, :state, current_timestamp)",
+      nativeQuery = true)
+  int insert(@Param("matchId") Long matchId, @Param("seq") long seq, @Param("state") String state);
+}
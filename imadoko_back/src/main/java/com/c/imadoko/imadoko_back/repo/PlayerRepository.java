@@ -0,0 +1,39 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.Player;
+import com.c.imadoko.imadoko_back.domain.PlayerSummary;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PlayerRepository extends JpaRepository<Player, Long> {
+
+  /**
+   * 姓または名による選手検索。完全一致、前方一致、部分一致の順に、同順位は姓・名の順で返す
+   *
+   * <p>絞り込みは{@code lower(last_name)}・{@code lower(first_name)}のトライグラム索引（PostgreSQL）を使用する。
+   */
+  @Query(
+      "select new com.c.imadoko.imadoko_back.domain.PlayerSummary("
+          + "p.id, p.firstName, p.lastName, p.position, t.id, t.teamName)"
+          + " from Team t join t.players p"
+          + " where (lower(p.lastName) like :match escape '\\'"
+          + " or lower(p.firstName) like :match escape '\\')"
+          + " and p.position in :positions"
+          + " order by case when lower(p.lastName) = :exact or lower(p.firstName) = :exact then 0"
+          + " when lower(p.lastName) like :prefix escape '\\'"
+          + " or lower(p.firstName) like :prefix escape '\\' then 1"
+          + " else 2 end,"
+          + " p.lastName, p.firstName, p.id")
+  List<PlayerSummary> searchSummaries(
+      @Param("match") String match,
+      @Param("exact") String exact,
+      @Param("prefix") String prefix,
+      @Param("positions") Collection<String> positions,
+      Pageable pageable);
+}
@@ -0,0 +1,69 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.TeamChange;
+import com.c.imadoko.imadoko_back.domain.TeamChangeMark;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TeamChangeRepository extends JpaRepository<TeamChange, Long> {
+
+  /**
+   * チームの変更を記録する（作成・更新・削除共通）
+   *
+   * <p>同期では最新の変更のみを使うため、同じチームの古い履歴は削除してチームごとに1件にする。
+   */
+  default void recordLatest(Long teamId, LocalDateTime changedAt) {
+    deleteByTeamId(teamId);
+    record(teamId, changedAt);
+  }
+
+  /** 一括登録用の{@link #recordLatest(Long, LocalDateTime)}。登録済み（flush済み）のチームを対象とする */
+  default void recordLatest(Collection<Long> teamIds, LocalDateTime changedAt) {
+    deleteByTeamIdIn(teamIds);
+    recordAll(teamIds, changedAt);
+  }
+
+  /** 履歴を1件追加する。古い履歴は残るため、通常は{@link #recordLatest(Long, LocalDateTime)}を使う */
+  @Modifying
+  @Query(
+      value = "insert into team_change (team_id, changed_at) values (:teamId, :changedAt)",
+      nativeQuery = true)
+  int record(@Param("teamId") Long teamId, @Param("changedAt") LocalDateTime changedAt);
+
+  /** 登録済み（flush済み）のチームを1文でまとめて記録する。{@link #recordLatest(Collection, LocalDateTime)}から使う */
+  @Modifying
+  @Query(
+      value =
+          "insert into team_change (team_id, changed_at)"
+              + " select t.id, :changedAt from team t where t.id in :teamIds order by t.id",
+      nativeQuery = true)
+  int recordAll(
+      @Param("teamIds") Collection<Long> teamIds, @Param("changedAt") LocalDateTime changedAt);
+
+  /** 同じチームの古い履歴を削除する。同期では最新の変更のみを使うため、削除しても結果は変わらない */
+  @Modifying
+  @Query("delete from TeamChange c where c.teamId = :teamId")
+  int deleteByTeamId(@Param("teamId") Long teamId);
+
+  @Modifying
+  @Query("delete from TeamChange c where c.teamId in :teamIds")
+  int deleteByTeamIdIn(@Param("teamIds") Collection<Long> teamIds);
+
+  /** sinceより後に変更されたチームを、最新の変更のseq昇順で取得する */
+  @Query(
+      "select new com.c.imadoko.imadoko_back.domain.TeamChangeMark("
+          + "c.teamId, max(c.seq), max(c.changedAt))"
+          + " from TeamChange c"
+          + " where c.seq > :since"
+          + " group by c.teamId"
+          + " order by max(c.seq)")
+  List<TeamChangeMark> findMarksAfter(@Param("since") long since, Pageable pageable);
+}
@@ -1,19 +1,108 @@
 package com.c.imadoko.imadoko_back.repo;
 
 import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface TeamRepository extends JpaRepository<Team, Long> {
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+  String ROWS =
+      "select new com.c.imadoko.imadoko_back.domain.TeamPlayerRow("
+          + "t.id, t.teamName, t.version, p.id, p.firstName, p.lastName, p.position)"
+          + " from Team t left join t.players p";
+
   boolean existsByTeamName(String teamName);
 
   Optional<Team> findByTeamName(String teamName);
 
+  /** 一括登録時の重複チェック用。指定した名前のうち既に使用されているものを1クエリで取得する */
+  @Query("select t.teamName from Team t where t.teamName in :names")
+  List<String> findExistingTeamNames(@Param("names") Collection<String> names);
+
   @EntityGraph(attributePaths = {"players"})
   @Override
   List<Team> findAll();
+
+  /** キャッシュ後にセッション外で参照されるため、選手も同時に読み込んでおく */
+  @EntityGraph(attributePaths = {"players"})
+  @Override
+  Optional<Team> findById(Long id);
+
+  /** レスポンス用の全チーム・全選手。エンティティを生成せず、チームid・選手id順の行で返す */
+  @Query(ROWS + " order by t.id, p.id")
+  List<TeamPlayerRow> findAllRows();
+
+  @Query(ROWS + " where t.id = :id order by p.id")
+  List<TeamPlayerRow> findRowsById(@Param("id") Long id);
+
+  @Query(ROWS + " where t.id in :ids order by t.id, p.id")
+  List<TeamPlayerRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+  /** id昇順のキーセットページング。選手数は集計のみで、Playerエンティティは読み込まない */
+  @Query(
+      "select new com.c.imadoko.imadoko_back.domain.TeamSummary(t.id, t.teamName, count(p))"
+          + " from Team t left join t.players p"
+          + " where t.id > :after"
+          + " group by t.id, t.teamName"
+          + " order by t.id")
+  List<TeamSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+  /**
+   * チーム名検索。完全一致、前方一致、部分一致の順に、同順位は短い名前から返す
+   *
+   * <p>絞り込みは{@code lower(team_name)}のトライグラム索引（PostgreSQL）を使用する。パターンはSearchPatternで組み立てる。
+   */
+  @Query(
+      "select new com.c.imadoko.imadoko_back.domain.TeamSummary(t.id, t.teamName, count(p))"
+          + " from Team t left join t.players p"
+          + " where lower(t.teamName) like :match escape '\\'"
+          + " group by t.id, t.teamName"
+          + " order by case when lower(t.teamName) = :exact then 0"
+          + " when lower(t.teamName) like :prefix escape '\\' then 1 else 2 end,"
+          + " length(t.teamName), t.teamName, t.id")
+  List<TeamSummary> searchSummaries(
+      @Param("match") String match,
+      @Param("exact") String exact,
+      @Param("prefix") String prefix,
+      Pageable pageable);
+
+  /** 条件付きGETの判定用。エンティティを読み込まずにバージョンのみ取得する */
+  @Query("select t.version from Team t where t.id = :id")
+  Optional<Long> findVersionById(@Param("id") Long id);
+
+  /**
+   * チームを1文で削除し、削除件数（0または1）を返す
+   *
+   * <p>所属選手は外部キーの ON DELETE CASCADE で削除されるため、エンティティの読み込みや選手ごとのDELETEは行わない。
+   */
+  @Modifying(clearAutomatically = true)
+  @Query("delete from Team t where t.id = :id")
+  int deleteTeamById(@Param("id") Long id);
+
+  /**
+   * エクスポート用に全チームを選手込みでカーソル読み出しする
+   *
+   * <p>id順に並べることで、fetch joinでも1チーム分の行が揃った時点でTeamが返される。呼び出し側はトランザクション内で使用し、処理後にcloseすること。
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "200"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select t from Team t left join fetch t.players order by t.id")
+  Stream<Team> streamAllWithPlayers();
 }
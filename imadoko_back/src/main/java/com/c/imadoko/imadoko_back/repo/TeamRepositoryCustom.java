@@ -0,0 +1,14 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.Team;
+
+public interface TeamRepositoryCustom {
+
+  /**
+   * チーム自体に変更がなくてもバージョンを進める
+   *
+   * <p>選手の属性のみ変更した場合、Teamはdirtyにならずバージョンが変わらないため、ETagを更新するために使用する。
+   * コミット時ではなくその場でUPDATEを発行し、エンティティのバージョンも更新する（レスポンスとキャッシュに新しいバージョンを返すため）。
+   */
+  void forceVersionIncrement(Team team);
+}
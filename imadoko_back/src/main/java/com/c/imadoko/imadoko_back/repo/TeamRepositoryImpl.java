@@ -0,0 +1,16 @@
+package com.c.imadoko.imadoko_back.repo;
+
+import com.c.imadoko.imadoko_back.domain.Team;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+
+class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public void forceVersionIncrement(Team team) {
+    entityManager.lock(team, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+  }
+}
@@ -0,0 +1,72 @@
+package com.c.imadoko.imadoko_back.service;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Eventsの1接続分の送信状態
+ *
+ * <p>送信は共有の{@link SseSender}で行い、接続ごとのスレッドは持たない。未送信の値は1件だけ保持し、送信中に届いた値は
+ * {@code merge}（保持中の値, 新しい値）でまとめる。切断を検出した場合は{@code onClosed}にこの接続を渡し、以降は送信しない。
+ *
+ * @param <T> 送信する値
+ */
+@Slf4j
+final class CoalescingSseSubscriber<T> {
+
+  private final SseEmitter emitter;
+  private final SseSender sender;
+  private final BinaryOperator<T> merge;
+  private final Function<T, SseEmitter.SseEventBuilder> toEvent;
+  private final Consumer<CoalescingSseSubscriber<T>> onClosed;
+  private final AtomicReference<T> pending = new AtomicReference<>();
+  private final AtomicBoolean sending = new AtomicBoolean();
+
+  CoalescingSseSubscriber(
+      SseEmitter emitter,
+      SseSender sender,
+      BinaryOperator<T> merge,
+      Function<T, SseEmitter.SseEventBuilder> toEvent,
+      Consumer<CoalescingSseSubscriber<T>> onClosed) {
+    this.emitter = emitter;
+    this.sender = sender;
+    this.merge = merge;
+    this.toEvent = toEvent;
+    this.onClosed = onClosed;
+  }
+
+  void offer(T value) {
+    pending.accumulateAndGet(value, (prev, next) -> prev == null ? next : merge.apply(prev, next));
+    schedule();
+  }
+
+  private void schedule() {
+    if (pending.get() != null && sending.compareAndSet(false, true)) {
+      sender.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    try {
+      T value;
+      while ((value = pending.getAndSet(null)) != null) {
+        emitter.send(toEvent.apply(value));
+      }
+    } catch (IOException | IllegalStateException e) {
+      // 切断済みの接続。以降の値は送らない
+      log.debug("Event stream closed: reason={}", e.getMessage());
+      onClosed.accept(this);
+      return;
+    } finally {
+      sending.set(false);
+    }
+    // drain終了直前に追加された値を取りこぼさない
+    schedule();
+  }
+}
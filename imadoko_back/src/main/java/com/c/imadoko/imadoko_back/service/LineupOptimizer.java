@@ -0,0 +1,375 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeRequest;
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeResult;
+import com.c.imadoko.imadoko_back.api.dto.PlayerResponse;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.domain.PackedLineup;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * ロスター（最大14人）からスタメン6人と開始ローテーションを探索する
+ *
+ * <p>リベロ以外の選手から6人の組み合わせを列挙し、組み合わせ単位で専用のForkJoinPool上で並列に評価する。
+ * 配置はローテーションで移り合うものを同一視し、先頭の選手をローテーション順の0番目に固定した5!通りを調べ、6通りの開始位置はその中で評価する。
+ * 組み合わせごとにポジション構成から得点の上限を求め、既に見つかっている上位k件に届かないものは配置を調べずに捨てる。
+ *
+ * <p>時間上限を過ぎると未着手の組み合わせは評価せず、それまでの上位k件を返す。プールが混んでいて着手が遅れた場合も同様。
+ */
+@Slf4j
+@Service
+public class LineupOptimizer {
+
+  static final int S = 0;
+  static final int WS = 1;
+  static final int MB = 2;
+  static final int OP = 3;
+  static final int LI = 4;
+
+  /** 理想的な構成（S, WS, MB, OPの人数）からのずれ1人あたりの減点 */
+  static final int COMPOSITION_PENALTY = 10;
+
+  /** セッターとオポジットが対角にいる場合の加点 */
+  static final int OPPOSITE_SETTER_BONUS = 20;
+
+  /** 前衛でミドルブロッカー同士が隣接するローテーション1つあたりの減点 */
+  static final int ADJACENT_MIDDLES_PENALTY = 10;
+
+  /** 後衛（サーバー以外）にリベロと交代できるミドルブロッカーがいるローテーション1つあたりの加点 */
+  static final int LIBERO_COVERAGE_BONUS = 3;
+
+  /** 開始ローテーションの前衛アタッカー1人あたりの加点 */
+  static final int FRONT_ATTACKER_BONUS = 2;
+
+  private static final int[] IDEAL = {1, 2, 2, 1};
+  private static final int[] FRONT_ROW = {4, 3, 2};
+
+  private final ForkJoinPool pool;
+
+  public LineupOptimizer(@Value("${app.lineup.parallelism:0}") int parallelism) {
+    int size = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.pool = new ForkJoinPool(size);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+
+  public LineupOptimizeResult optimize(TeamResponse team, LineupOptimizeRequest request) {
+    long start = System.nanoTime();
+    long deadline = start + TimeUnit.MILLISECONDS.toNanos(request.budgetMsOrDefault());
+
+    List<PlayerResponse> roster = team.players();
+    int[] roles = new int[roster.size()];
+    List<Integer> candidates = new ArrayList<>();
+    Long liberoId = null;
+    for (int i = 0; i < roster.size(); i++) {
+      roles[i] = role(roster.get(i).position());
+      if (roles[i] != LI) {
+        candidates.add(i);
+      } else if (liberoId == null) {
+        liberoId = roster.get(i).id();
+      }
+    }
+    if (candidates.size() < PackedLineup.SLOTS) {
+      throw new ImadokoException(ErrorCode.NOT_ENOUGH_PLAYERS);
+    }
+
+    Search search =
+        new Search(
+            roles,
+            request.topKOrDefault(),
+            deadline,
+            !Boolean.FALSE.equals(request.oppositeSetter()),
+            !Boolean.FALSE.equals(request.separateMiddles()),
+            liberoId != null && !Boolean.FALSE.equals(request.liberoForBackRowMb()),
+            request.setterStartSlot() == null ? 0 : request.setterStartSlot());
+    List<int[]> combinations = combinations(candidates);
+
+    TopK top;
+    try {
+      top =
+          pool.submit(
+                  () ->
+                      combinations.parallelStream()
+                          .collect(
+                              () -> new TopK(search.k),
+                              (acc, combination) -> search.evaluate(combination, acc),
+                              TopK::merge))
+              .get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ImadokoException(ErrorCode.INTERNAL_SERVER_ERROR);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Lineup search failed", e.getCause());
+    }
+
+    Long libero = search.libero ? liberoId : null;
+    List<LineupOptimizeResult.Candidate> lineups =
+        top.sorted().stream().map(e -> toCandidate(e, roster, roles, libero)).toList();
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    boolean complete = !search.truncated.get();
+    if (!complete) {
+      log.info(
+          "Lineup search for team {} hit the {}ms budget after {} lineups",
+          team.id(),
+          request.budgetMsOrDefault(),
+          search.evaluated.sum());
+    }
+    return new LineupOptimizeResult(lineups, complete, search.evaluated.sum(), elapsedMs);
+  }
+
+  private static LineupOptimizeResult.Candidate toCandidate(
+      Entry entry, List<PlayerResponse> roster, int[] roles, Long liberoId) {
+    Map<Integer, Long> assignment = new LinkedHashMap<>();
+    int setterSlot = 0;
+    for (int slot = 1; slot <= PackedLineup.SLOTS; slot++) {
+      int index = PackedLineup.get(entry.lineup(), slot);
+      assignment.put(slot, roster.get(index).id());
+      if (setterSlot == 0 && roles[index] == S) {
+        setterSlot = slot;
+      }
+    }
+    return new LineupOptimizeResult.Candidate(entry.score(), assignment, setterSlot, liberoId);
+  }
+
+  /** リベロ以外の選手から6人を選ぶ組み合わせ（C(14,6) = 3003通り以下） */
+  private static List<int[]> combinations(List<Integer> candidates) {
+    List<int[]> result = new ArrayList<>();
+    int[] picked = new int[PackedLineup.SLOTS];
+    collect(candidates, 0, 0, picked, result);
+    return result;
+  }
+
+  private static void collect(
+      List<Integer> candidates, int from, int depth, int[] picked, List<int[]> result) {
+    if (depth == picked.length) {
+      result.add(picked.clone());
+      return;
+    }
+    for (int i = from; i <= candidates.size() - (picked.length - depth); i++) {
+      picked[depth] = candidates.get(i);
+      collect(candidates, i + 1, depth + 1, picked, result);
+    }
+  }
+
+  static int role(String position) {
+    return switch (position) {
+      case "S" -> S;
+      case "WS" -> WS;
+      case "MB" -> MB;
+      case "OP" -> OP;
+      case "Li" -> LI;
+      default -> throw new IllegalArgumentException("Unknown position: " + position);
+    };
+  }
+
+  /** 1回の探索の条件と、スレッド間で共有する状態 */
+  private static final class Search {
+    final int[] roles;
+    final int k;
+    final long deadline;
+    final boolean oppositeSetter;
+    final boolean separateMiddles;
+    final boolean libero;
+    final int setterStartSlot;
+
+    /** 上位k件に入るための最低得点（各スレッドの上位k件の最低点のうち最大のもの） */
+    final AtomicInteger threshold = new AtomicInteger(Integer.MIN_VALUE);
+
+    final AtomicBoolean truncated = new AtomicBoolean();
+    final LongAdder evaluated = new LongAdder();
+
+    Search(
+        int[] roles,
+        int k,
+        long deadline,
+        boolean oppositeSetter,
+        boolean separateMiddles,
+        boolean libero,
+        int setterStartSlot) {
+      this.roles = roles;
+      this.k = k;
+      this.deadline = deadline;
+      this.oppositeSetter = oppositeSetter;
+      this.separateMiddles = separateMiddles;
+      this.libero = libero;
+      this.setterStartSlot = setterStartSlot;
+    }
+
+    void evaluate(int[] combination, TopK acc) {
+      if (System.nanoTime() > deadline) {
+        truncated.set(true);
+        return;
+      }
+      int[] counts = new int[LI];
+      for (int index : combination) {
+        counts[roles[index]]++;
+      }
+      if (setterStartSlot != 0 && counts[S] == 0) {
+        return;
+      }
+      int composition = 0;
+      for (int role = 0; role < IDEAL.length; role++) {
+        composition -= COMPOSITION_PENALTY * Math.abs(counts[role] - IDEAL[role]);
+      }
+      int upperBound =
+          composition
+              + (oppositeSetter && counts[S] > 0 && counts[OP] > 0 ? OPPOSITE_SETTER_BONUS : 0)
+              + (libero && counts[MB] > 0 ? LIBERO_COVERAGE_BONUS * PackedLineup.SLOTS : 0)
+              + FRONT_ATTACKER_BONUS * FRONT_ROW.length;
+      if (upperBound < threshold.get()) {
+        return;
+      }
+
+      // 先頭の選手をローテーション順の0番目に固定し、残り5人の並びを順に調べる（Heap's algorithm）
+      int[] order = combination.clone();
+      int[] c = new int[order.length];
+      score(order, composition, acc);
+      int i = 1;
+      while (i < order.length) {
+        if (c[i] < i - 1) {
+          int j = i % 2 == 1 ? 1 : c[i] + 1;
+          int tmp = order[j];
+          order[j] = order[i];
+          order[i] = tmp;
+          score(order, composition, acc);
+          c[i]++;
+          i = 1;
+        } else {
+          c[i] = 0;
+          i++;
+        }
+      }
+    }
+
+    /** orderはローテーション順（1→6→5→4→3→2）の並び */
+    private void score(int[] order, int composition, TopK acc) {
+      long lineup = 0;
+      for (int i = 0; i < order.length; i++) {
+        lineup |= (long) order[i] << (i * 8);
+      }
+
+      int base = composition;
+      if (oppositeSetter && isOpposite(order, S, OP)) {
+        base += OPPOSITE_SETTER_BONUS;
+      }
+      for (int r = 0; r < PackedLineup.SLOTS; r++) {
+        long rotated = PackedLineup.rotate(lineup, r);
+        if (separateMiddles && adjacentFrontMiddles(rotated)) {
+          base -= ADJACENT_MIDDLES_PENALTY;
+        }
+        if (libero && (roleAt(rotated, 5) == MB || roleAt(rotated, 6) == MB)) {
+          base += LIBERO_COVERAGE_BONUS;
+        }
+      }
+
+      for (int r = 0; r < PackedLineup.SLOTS; r++) {
+        long start = PackedLineup.rotate(lineup, r);
+        if (setterStartSlot != 0 && roleAt(start, setterStartSlot) != S) {
+          continue;
+        }
+        int attackers = 0;
+        for (int slot : FRONT_ROW) {
+          if (roleAt(start, slot) != S) {
+            attackers++;
+          }
+        }
+        evaluated.increment();
+        int score = base + FRONT_ATTACKER_BONUS * attackers;
+        if (acc.offer(score, start)) {
+          threshold.accumulateAndGet(acc.minScore(), Math::max);
+        }
+      }
+    }
+
+    private boolean isOpposite(int[] order, int a, int b) {
+      for (int i = 0; i < 3; i++) {
+        int x = roles[order[i]];
+        int y = roles[order[i + 3]];
+        if ((x == a && y == b) || (x == b && y == a)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private boolean adjacentFrontMiddles(long lineup) {
+      return roleAt(lineup, 3) == MB && (roleAt(lineup, 4) == MB || roleAt(lineup, 2) == MB);
+    }
+
+    private int roleAt(long lineup, int slot) {
+      return roles[PackedLineup.get(lineup, slot)];
+    }
+  }
+
+  private record Entry(int score, long lineup) {}
+
+  /** 得点が高い順（同点は配置の値が小さい順）で並べる */
+  private static final Comparator<Entry> BEST_FIRST =
+      Comparator.comparingInt(Entry::score).reversed().thenComparingLong(Entry::lineup);
+
+  /** スレッドごとの上位k件。先頭が最も順位の低い候補 */
+  private static final class TopK {
+    private final int k;
+    private final PriorityQueue<Entry> heap;
+
+    TopK(int k) {
+      this.k = k;
+      this.heap = new PriorityQueue<>(k + 1, BEST_FIRST.reversed());
+    }
+
+    /**
+     * 候補を追加する
+     *
+     * @return 上位k件が埋まった状態で追加された場合true（最低得点が更新された可能性がある）
+     */
+    boolean offer(int score, long lineup) {
+      if (heap.size() == k) {
+        Entry worst = heap.peek();
+        if (score < worst.score() || (score == worst.score() && lineup >= worst.lineup())) {
+          return false;
+        }
+      }
+      heap.add(new Entry(score, lineup));
+      if (heap.size() > k) {
+        heap.poll();
+      }
+      return heap.size() == k;
+    }
+
+    int minScore() {
+      return heap.peek().score();
+    }
+
+    void merge(TopK other) {
+      for (Entry e : other.heap) {
+        offer(e.score(), e.lineup());
+      }
+    }
+
+    List<Entry> sorted() {
+      List<Entry> list = new ArrayList<>(heap);
+      list.sort(BEST_FIRST);
+      return list;
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.imadoko_back.api.dto.MatchDelta;
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 試合状態の観戦者への配信（Server-Sent Events）
+ *
+ * <p>試合ごとに1つのチャネルが最新の状態を保持し、コミットされたイベントをメモリ上で適用する。DBを読むのはチャネルの作成時と、
+ * 通知の取りこぼしでseqが飛んだ場合のみで、観戦者の人数やイベント数には比例しない。
+ *
+ * <p>送信は共有の{@link SseSender}で行い、接続ごとのスレッドは持たない。接続ごとに保持するのは未送信の最新値1件だけで、
+ * 送信が追いつかない接続には途中の値を間引いて最新の値のみ送る（seqが戻らないよう、新しい値のみ採用する）。
+ *
+ * <p>配信対象はこのインスタンスで登録されたイベントのみ。
+ */
+@Service
+public class MatchBroadcaster {
+
+  private final MatchService matchService;
+  private final SseSender sender;
+  private final long timeoutMs;
+  private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+
+  public MatchBroadcaster(
+      MatchService matchService,
+      SseSender sender,
+      @Value("${app.match.stream.timeout-ms:1800000}") long timeoutMs) {
+    this.matchService = matchService;
+    this.sender = sender;
+    this.timeoutMs = timeoutMs;
+  }
+
+  /** 観戦を開始する。接続直後に現在の状態を1件送信する */
+  public SseEmitter subscribe(Long matchId) {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    CoalescingSseSubscriber<MatchDelta> subscriber =
+        new CoalescingSseSubscriber<>(
+            emitter,
+            sender,
+            (prev, next) -> prev.seq() > next.seq() ? prev : next,
+            delta ->
+                SseEmitter.event()
+                    .id(Long.toString(delta.seq()))
+                    .name("state")
+                    .data(delta, MediaType.APPLICATION_JSON),
+            s -> unsubscribe(matchId, s));
+    Channel channel =
+        channels.compute(
+            matchId,
+            (id, existing) -> {
+              Channel c = existing != null ? existing : new Channel(id);
+              c.subscribers.add(subscriber);
+              return c;
+            });
+    emitter.onCompletion(() -> unsubscribe(matchId, subscriber));
+    emitter.onTimeout(() -> unsubscribe(matchId, subscriber));
+    emitter.onError(e -> unsubscribe(matchId, subscriber));
+
+    MatchDelta current;
+    try {
+      current = channel.current();
+    } catch (RuntimeException e) {
+      // 存在しない試合など。チャネルを残さないよう登録を取り消す
+      unsubscribe(matchId, subscriber);
+      throw e;
+    }
+    subscriber.offer(current);
+    return emitter;
+  }
+
+  /** 観戦中の接続数（試合ごと） */
+  public int subscriberCount(Long matchId) {
+    Channel channel = channels.get(matchId);
+    return channel == null ? 0 : channel.subscribers.size();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void onAppended(MatchEventAppended appended) {
+    Channel channel = channels.get(appended.matchId());
+    if (channel != null) {
+      channel.publish(channel.advance(appended));
+    }
+  }
+
+  private void unsubscribe(Long matchId, CoalescingSseSubscriber<MatchDelta> subscriber) {
+    channels.computeIfPresent(
+        matchId,
+        (id, channel) -> {
+          channel.subscribers.remove(subscriber);
+          return channel.subscribers.isEmpty() ? null : channel;
+        });
+  }
+
+  /** 試合ごとの共有チャネル */
+  private final class Channel {
+    final Long matchId;
+    final Set<CoalescingSseSubscriber<MatchDelta>> subscribers = ConcurrentHashMap.newKeySet();
+
+    /** 最後に適用した状態。初回の観戦開始時に読み込む */
+    private MatchState state;
+
+    Channel(Long matchId) {
+      this.matchId = matchId;
+    }
+
+    synchronized MatchDelta current() {
+      if (state == null) {
+        state = matchService.findState(matchId);
+      }
+      return MatchDelta.of(state);
+    }
+
+    /** イベントを適用する。seqが連続していない場合（通知の順序が前後した、取りこぼした）はDBから読み直す */
+    synchronized MatchDelta advance(MatchEventAppended appended) {
+      if (state != null && appended.seq() <= state.seq()) {
+        return MatchDelta.of(state);
+      }
+      if (state != null && appended.seq() == state.seq() + 1) {
+        state = MatchService.apply(state, appended.event()).withSeq(appended.seq());
+      } else {
+        state = matchService.findState(matchId);
+      }
+      return MatchDelta.of(state);
+    }
+
+    void publish(MatchDelta delta) {
+      for (CoalescingSseSubscriber<MatchDelta> subscriber : subscribers) {
+        subscriber.offer(delta);
+      }
+    }
+  }
+}
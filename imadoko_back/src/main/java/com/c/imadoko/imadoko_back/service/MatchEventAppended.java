@@ -0,0 +1,6 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.imadoko_back.api.dto.MatchEventRequest;
+
+/** イベント追記の通知。コミット後に {@link MatchBroadcaster} が受け取る */
+public record MatchEventAppended(Long matchId, long seq, MatchEventRequest event) {}
@@ -0,0 +1,244 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.MatchEventRequest;
+import com.c.imadoko.imadoko_back.domain.Match;
+import com.c.imadoko.imadoko_back.domain.MatchEvent;
+import com.c.imadoko.imadoko_back.domain.MatchSnapshot;
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import com.c.imadoko.imadoko_back.repo.MatchEventRepository;
+import com.c.imadoko.imadoko_back.repo.MatchRepository;
+import com.c.imadoko.imadoko_back.repo.MatchSnapshotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 試合状態の保存と復元
+ *
+ * <p>更新はイベントログへの1行の追記のみで、状態の読み込みは行わない。ただしseqが {@link #SNAPSHOT_INTERVAL} の倍数になる追記では、
+ * 同じトランザクションで状態を復元してスナップショットを保存する。読み込みは最新のスナップショットに以降のイベントを適用して復元し、
+ * 書き込みは行わない（読み取り専用のレプリカに振り分けられるため）。
+ */
+@Slf4j
+@Service
+@Transactional
+public class MatchService {
+
+  /** この件数のイベントごとに、追記時にスナップショットを保存する */
+  static final int SNAPSHOT_INTERVAL = 50;
+
+  private final MatchRepository matchRepository;
+  private final MatchEventRepository matchEventRepository;
+  private final MatchSnapshotRepository matchSnapshotRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final ObjectWriter eventWriter;
+  private final ObjectReader eventReader;
+  private final ObjectWriter stateWriter;
+  private final ObjectReader stateReader;
+
+  public MatchService(
+      MatchRepository matchRepository,
+      MatchEventRepository matchEventRepository,
+      MatchSnapshotRepository matchSnapshotRepository,
+      ApplicationEventPublisher eventPublisher,
+      ObjectMapper objectMapper) {
+    this.matchRepository = matchRepository;
+    this.matchEventRepository = matchEventRepository;
+    this.matchSnapshotRepository = matchSnapshotRepository;
+    this.eventPublisher = eventPublisher;
+    this.eventWriter = objectMapper.writerFor(MatchEventRequest.class);
+    this.eventReader = objectMapper.readerFor(MatchEventRequest.class);
+    this.stateWriter = objectMapper.writerFor(MatchState.class);
+    this.stateReader = objectMapper.readerFor(MatchState.class);
+  }
+
+  public MatchState create() {
+    Match match = matchRepository.save(new Match(LocalDateTime.now()));
+    return MatchState.initial(match.getId());
+  }
+
+  /**
+   * イベントを追記し、そのseqを返す
+   *
+   * @param expectedSeq 直前のイベントのseq（If-Match）。nullの場合は最新のseqの後ろに追記する
+   */
+  public long append(Long matchId, MatchEventRequest request, Long expectedSeq) {
+    validate(request);
+    long seq =
+        (expectedSeq != null ? expectedSeq : matchEventRepository.findLastSeq(matchId).orElse(0L))
+            + 1;
+
+    int inserted;
+    try {
+      inserted =
+          matchEventRepository.append(matchId, seq, request.type().name(), write(request));
+    } catch (DataIntegrityViolationException e) {
+      if (isMissingMatch(e)) {
+        throw new ImadokoException(ErrorCode.MATCH_NOT_FOUND);
+      }
+      // 同じseqで他の追記が先にコミットされた
+      throw conflict(expectedSeq);
+    }
+    if (inserted == 0) {
+      if (!matchRepository.existsById(matchId)) {
+        throw new ImadokoException(ErrorCode.MATCH_NOT_FOUND);
+      }
+      throw conflict(expectedSeq);
+    }
+    if (seq % SNAPSHOT_INTERVAL == 0) {
+      saveSnapshot(replay(matchId));
+    }
+    eventPublisher.publishEvent(new MatchEventAppended(matchId, seq, request));
+    return seq;
+  }
+
+  /** 最新のスナップショットと、それ以降のイベントから現在の状態を復元する */
+  @Transactional(readOnly = true)
+  public MatchState findState(Long matchId) {
+    return replay(matchId);
+  }
+
+  private MatchState replay(Long matchId) {
+    Optional<MatchSnapshot> snapshot = matchSnapshotRepository.findFirstByMatchIdOrderBySeqDesc(matchId);
+    long from = snapshot.map(MatchSnapshot::getSeq).orElse(0L);
+    List<MatchEvent> tail = matchEventRepository.findByMatchIdAndSeqGreaterThanOrderBySeq(matchId, from);
+
+    MatchState state;
+    if (snapshot.isPresent()) {
+      state = readState(snapshot.get().getState());
+    } else if (!tail.isEmpty() || matchRepository.existsById(matchId)) {
+      state = MatchState.initial(matchId);
+    } else {
+      throw new ImadokoException(ErrorCode.MATCH_NOT_FOUND);
+    }
+
+    for (MatchEvent event : tail) {
+      state = apply(state, readEvent(event.getPayload())).withSeq(event.getSeq());
+    }
+    return state;
+  }
+
+  /** 追記と同じトランザクションで保存する。seqはイベントの主キーで一意なため、同じスナップショットが重複して登録されることはない */
+  private void saveSnapshot(MatchState state) {
+    try {
+      matchSnapshotRepository.insert(state.matchId(), state.seq(), stateWriter.writeValueAsString(state));
+      log.debug("Saved match snapshot: matchId={}, seq={}", state.matchId(), state.seq());
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize match state", e);
+    }
+  }
+
+  /** イベントを1件適用した状態を返す（seqは呼び出し側で設定する） */
+  static MatchState apply(MatchState state, MatchEventRequest event) {
+    return switch (event.type()) {
+      case TEAM -> state.withSide(event.side(), state.side(event.side()).withTeam(event.teamId()));
+      case LINEUP -> state.withSide(event.side(), state.side(event.side()).withBase(event.assignment()));
+      case SUBSTITUTION ->
+          state.withSide(
+              event.side(), state.side(event.side()).withPlayer(event.slot(), event.playerId()));
+      case SCORE -> {
+        MatchState.Side side = state.side(event.side());
+        MatchState.Score score =
+            switch (event.field()) {
+              case "so" -> side.score().withSo(event.value());
+              case "br" -> side.score().withBr(event.value());
+              default -> side.score().withSets(event.value());
+            };
+        yield state.withSide(event.side(), side.withScore(score));
+      }
+      case RALLY -> {
+        // サーブ側の得点はブレイク、レシーブ側の得点はサイドアウト（ローテーションが1つ進む）
+        MatchState.Side side = state.side(event.side());
+        MatchState.Score score = side.score();
+        score =
+            event.side().equals(state.serve())
+                ? score.withBr(score.br() + 1)
+                : score.withSo(score.so() + 1);
+        yield state.withSide(event.side(), side.withScore(score));
+      }
+      case SWAP_SIDES -> state.swapSides();
+    };
+  }
+
+  /** typeごとに必要な項目を確認する。選手やチームの存在確認は行わない（追記を1文で済ませるため） */
+  private static void validate(MatchEventRequest request) {
+    boolean valid =
+        switch (request.type()) {
+          case TEAM, RALLY -> request.side() != null;
+          case LINEUP -> request.side() != null && isValidAssignment(request.assignment());
+          case SUBSTITUTION -> request.side() != null && request.slot() != null;
+          case SCORE -> request.side() != null && request.field() != null && request.value() != null;
+          case SWAP_SIDES -> true;
+        };
+    if (!valid) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+  }
+
+  private static boolean isValidAssignment(Map<Integer, Long> assignment) {
+    if (assignment == null) {
+      return false;
+    }
+    Set<Long> playerIds = new HashSet<>();
+    for (Map.Entry<Integer, Long> entry : assignment.entrySet()) {
+      Integer slot = entry.getKey();
+      if (slot == null || slot < 1 || slot > 6) {
+        return false;
+      }
+      if (entry.getValue() != null && !playerIds.add(entry.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isMissingMatch(DataIntegrityViolationException e) {
+    String message = e.getMostSpecificCause().getMessage();
+    return message != null && message.toLowerCase(Locale.ROOT).contains("fk_match_event_match");
+  }
+
+  /** If-Matchで指定したseqが古い場合は412、指定せずに他の追記と同じseqになった場合は409とする */
+  private static ImadokoException conflict(Long expectedSeq) {
+    return new ImadokoException(
+        expectedSeq != null ? ErrorCode.MATCH_SEQ_MISMATCH : ErrorCode.MATCH_CONCURRENT_APPEND);
+  }
+
+  private String write(MatchEventRequest request) {
+    try {
+      return eventWriter.writeValueAsString(request);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize match event", e);
+    }
+  }
+
+  private MatchEventRequest readEvent(String payload) {
+    try {
+      return eventReader.readValue(payload);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Corrupted match event payload", e);
+    }
+  }
+
+  private MatchState readState(String state) {
+    try {
+      return stateReader.readValue(state);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Corrupted match snapshot", e);
+    }
+  }
+}
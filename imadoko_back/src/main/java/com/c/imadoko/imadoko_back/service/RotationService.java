@@ -0,0 +1,126 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.RotationRequest;
+import com.c.imadoko.imadoko_back.api.dto.RotationResult;
+import com.c.imadoko.imadoko_back.domain.PackedLineup;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * ローテーション計算
+ *
+ * <p>DBは使用しない。選手IDはラインナップごとに0〜5のインデックスへ置き換え、計算自体は {@link PackedLineup} で行う。
+ */
+@Service
+public class RotationService {
+
+  /** 1リクエストで受け付ける最大ラインナップ数 */
+  public static final int MAX_LINEUPS = 5000;
+
+  public List<RotationResult> computeAll(List<RotationRequest> requests) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_LINEUPS) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+    long[] ids = new long[PackedLineup.SLOTS];
+    long[] rotated = new long[PackedLineup.SLOTS];
+    List<RotationResult> results = new ArrayList<>(requests.size());
+    for (RotationRequest request : requests) {
+      results.add(compute(request, ids, rotated));
+    }
+    return results;
+  }
+
+  /** ids/rotatedは呼び出し側で使い回す作業領域 */
+  private RotationResult compute(RotationRequest request, long[] ids, long[] rotated) {
+    if (request == null || request.assignment() == null) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+    long lineup = encode(request.assignment(), ids);
+
+    PackedLineup.allRotations(lineup, rotated);
+    List<Map<Integer, Long>> rotations = new ArrayList<>(PackedLineup.SLOTS);
+    for (long packed : rotated) {
+      rotations.add(decode(packed, ids));
+    }
+
+    RotationResult.SetterRotation setterRotation = null;
+    if (request.setterId() != null || request.targetSlot() != null) {
+      setterRotation = setterRotation(request, lineup, ids, rotated);
+    }
+    return new RotationResult(rotations, setterRotation);
+  }
+
+  private RotationResult.SetterRotation setterRotation(
+      RotationRequest request, long lineup, long[] ids, long[] rotated) {
+    Integer targetSlot = request.targetSlot();
+    if (request.setterId() == null || !isSlot(targetSlot)) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+    int setterIndex = indexOf(ids, request.setterId());
+    int n = setterIndex < 0 ? -1 : PackedLineup.setterRotations(lineup, setterIndex, targetSlot);
+    if (n < 0) {
+      // セッターがコートにいない場合はフロントエンドと同様、目標スロットに置いただけの配置を返す
+      Map<Integer, Long> assignment = decode(PackedLineup.EMPTY_LINEUP, ids);
+      assignment.put(targetSlot, request.setterId());
+      return new RotationResult.SetterRotation(0, assignment);
+    }
+    return new RotationResult.SetterRotation(n, decode(rotated[n], ids));
+  }
+
+  /** 選手IDをidsに登録しながら配置をエンコードする。未使用のidsの要素は参照されない */
+  private static long encode(Map<Integer, Long> assignment, long[] ids) {
+    long lineup = PackedLineup.EMPTY_LINEUP;
+    int count = 0;
+    for (Map.Entry<Integer, Long> entry : assignment.entrySet()) {
+      if (!isSlot(entry.getKey())) {
+        throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+      }
+      Long playerId = entry.getValue();
+      if (playerId == null) {
+        continue;
+      }
+      // 同じ選手が複数のスロットに配置されている
+      if (indexOf(ids, count, playerId) >= 0) {
+        throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+      }
+      ids[count] = playerId;
+      lineup = PackedLineup.with(lineup, entry.getKey(), count++);
+    }
+    // 以降の検索で前のラインナップの値に一致しないよう、未使用分は使われないインデックスで埋める
+    for (int i = count; i < ids.length; i++) {
+      ids[i] = Long.MIN_VALUE;
+    }
+    return lineup;
+  }
+
+  private static Map<Integer, Long> decode(long lineup, long[] ids) {
+    Map<Integer, Long> assignment = new LinkedHashMap<>();
+    for (int slot = 1; slot <= PackedLineup.SLOTS; slot++) {
+      int index = PackedLineup.get(lineup, slot);
+      assignment.put(slot, index == PackedLineup.EMPTY ? null : ids[index]);
+    }
+    return assignment;
+  }
+
+  private static int indexOf(long[] ids, long playerId) {
+    return indexOf(ids, ids.length, playerId);
+  }
+
+  private static int indexOf(long[] ids, int length, long playerId) {
+    for (int i = 0; i < length; i++) {
+      if (ids[i] == playerId) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isSlot(Integer slot) {
+    return slot != null && slot >= 1 && slot <= PackedLineup.SLOTS;
+  }
+}
@@ -0,0 +1,34 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import java.util.Locale;
+
+/**
+ * 名前検索のLIKEパターン
+ *
+ * <p>検索語は小文字化し、{@code lower(列)}に作成したトライグラム索引で絞り込む。2文字以下の検索語はトライグラムが揃わず部分一致では索引が効かないため、前方一致のみとする。
+ * ワイルドカードはバックスラッシュでエスケープする（Hibernateには既定のエスケープ文字がないため、クエリ側で{@code escape '\'}を指定する）。
+ *
+ * @param exact 完全一致の判定用（順位付けに使用）
+ * @param prefix 前方一致のパターン（順位付けに使用）
+ * @param match 絞り込みに使うパターン（3文字以上は部分一致、それ未満は前方一致）
+ */
+record SearchPattern(String exact, String prefix, String match) {
+
+  /** 検索語の最大長。チーム名・選手名の列長を超える語は一致しえない */
+  static final int MAX_QUERY_LENGTH = 50;
+
+  private static final int MIN_CONTAINS_LENGTH = 3;
+
+  static SearchPattern of(String query) {
+    String q = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+    if (q.isEmpty() || q.length() > MAX_QUERY_LENGTH) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+    String escaped = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    String prefix = escaped + "%";
+    String match = q.length() < MIN_CONTAINS_LENGTH ? prefix : "%" + escaped + "%";
+    return new SearchPattern(q, prefix, match);
+  }
+}
@@ -0,0 +1,62 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.domain.PlayerSummary;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import com.c.imadoko.imadoko_back.repo.PlayerRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * チーム・選手の名前検索
+ *
+ * <p>チーム選択や選手登録の入力補完用。全件を取得してクライアントで絞り込む代わりに、順位付けした上位のみを返す。
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class SearchService {
+
+  static final int DEFAULT_LIMIT = 20;
+  static final int MAX_LIMIT = 50;
+
+  private static final Set<String> POSITIONS = Set.of("S", "WS", "MB", "OP", "Li");
+
+  private final TeamRepository teamRepository;
+  private final PlayerRepository playerRepository;
+
+  public List<TeamSummary> searchTeams(String query, int limit) {
+    SearchPattern pattern = SearchPattern.of(query);
+    return teamRepository.searchSummaries(
+        pattern.match(), pattern.exact(), pattern.prefix(), PageRequest.of(0, clamp(limit)));
+  }
+
+  /** positionsが空の場合は全ポジションを対象とする */
+  public List<PlayerSummary> searchPlayers(String query, Collection<String> positions, int limit) {
+    SearchPattern pattern = SearchPattern.of(query);
+    Collection<String> filter = positions == null || positions.isEmpty() ? POSITIONS : positions;
+    if (!POSITIONS.containsAll(filter)) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+    return playerRepository.searchSummaries(
+        pattern.match(),
+        pattern.exact(),
+        pattern.prefix(),
+        filter,
+        PageRequest.of(0, clamp(limit)));
+  }
+
+  private static int clamp(int limit) {
+    if (limit <= 0) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+}
@@ -0,0 +1,32 @@
+package com.c.imadoko.imadoko_back.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Server-Sent Eventsの送信スレッド（チームの変更通知・試合の配信で共有する）
+ *
+ * <p>送信が詰まった接続があってもスレッドは増やさず、{@link CoalescingSseSubscriber}が未送信の値をまとめる。スレッド数は
+ * 接続数ではなく、同時に送信が詰まる接続数の目安で設定する。
+ */
+@Component
+public class SseSender {
+
+  private final ExecutorService pool;
+
+  public SseSender(@Value("${app.sse.sender-threads:4}") int threads) {
+    this.pool = Executors.newFixedThreadPool(threads);
+  }
+
+  void execute(Runnable task) {
+    pool.execute(task);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    pool.shutdownNow();
+  }
+}
@@ -0,0 +1,140 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.BulkItemResult;
+import com.c.imadoko.imadoko_back.api.dto.BulkResult;
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.config.CacheConfig;
+import com.c.imadoko.imadoko_back.domain.Player;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * チームの一括登録
+ *
+ * <p>チーム名の重複は1クエリでまとめて確認し、登録はJDBCバッチで行う。不正な項目はスキップして項目ごとに結果を返す。
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class TeamBulkService {
+
+  /** 1リクエストで受け付ける最大件数 */
+  public static final int MAX_ITEMS = 500;
+
+  /** flush/clearの単位（hibernate.jdbc.batch_size と揃える） */
+  static final int FLUSH_INTERVAL = 50;
+
+  private final TeamRepository teamRepository;
+  private final TeamChangeRepository teamChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final EntityManager entityManager;
+  private final Validator validator;
+
+  /**
+   * チームを一括登録する
+   *
+   * @param indexOffset 結果のindexに加算する値（分割して呼び出す場合の通し番号用）
+   */
+  @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true)
+  public BulkResult createAll(List<TeamRequest> requests, int indexOffset) {
+    if (requests == null || requests.isEmpty() || requests.size() > MAX_ITEMS) {
+      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    }
+
+    List<BulkItemResult> results = new ArrayList<>(requests.size());
+    List<Integer> acceptedIndexes = new ArrayList<>();
+    Set<String> namesInRequest = new HashSet<>();
+    for (int i = 0; i < requests.size(); i++) {
+      TeamRequest request = requests.get(i);
+      List<String> violations = validate(request);
+      if (!violations.isEmpty()) {
+        results.add(failed(indexOffset + i, request, ErrorCode.INVALID_REQUEST, violations));
+      } else if (!namesInRequest.add(request.teamName())) {
+        results.add(failed(indexOffset + i, request, ErrorCode.DUPLICATE_TEAM_NAME, List.of()));
+      } else {
+        acceptedIndexes.add(i);
+        results.add(null);
+      }
+    }
+
+    Set<String> existing =
+        namesInRequest.isEmpty()
+            ? Set.of()
+            : new HashSet<>(teamRepository.findExistingTeamNames(namesInRequest));
+
+    int pending = 0;
+    List<Long> createdIds = new ArrayList<>();
+    for (int i : acceptedIndexes) {
+      TeamRequest request = requests.get(i);
+      if (existing.contains(request.teamName())) {
+        results.set(i, failed(indexOffset + i, request, ErrorCode.DUPLICATE_TEAM_NAME, List.of()));
+        continue;
+      }
+      Team team = toEntity(request);
+      entityManager.persist(team);
+      results.set(i, BulkItemResult.created(indexOffset + i, team.getId(), team.getTeamName()));
+      createdIds.add(team.getId());
+      if (++pending % FLUSH_INTERVAL == 0) {
+        flushAndClear();
+      }
+    }
+    flushAndClear();
+    if (!createdIds.isEmpty()) {
+      teamChangeRepository.recordLatest(createdIds, LocalDateTime.now());
+      eventPublisher.publishEvent(TeamChanged.many());
+    }
+
+    BulkResult result = BulkResult.of(results);
+    log.info("Bulk team import: created={}, failed={}", result.created(), result.failed());
+    return result;
+  }
+
+  private void flushAndClear() {
+    // 永続化コンテキストを空にし、件数が多くてもメモリ使用量を一定に保つ
+    entityManager.flush();
+    entityManager.clear();
+  }
+
+  private List<String> validate(TeamRequest request) {
+    if (request == null) {
+      return List.of("チーム情報が空です");
+    }
+    Set<ConstraintViolation<TeamRequest>> violations = validator.validate(request);
+    return violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage()).sorted().toList();
+  }
+
+  private static BulkItemResult failed(
+      int index, TeamRequest request, ErrorCode ec, List<String> details) {
+    String teamName = request == null ? null : request.teamName();
+    return BulkItemResult.failed(index, teamName, ec.getCode(), details);
+  }
+
+  private static Team toEntity(TeamRequest request) {
+    Team team = new Team(request.teamName());
+    if (request.players() != null) {
+      for (PlayerRequest dto : request.players()) {
+        team.getPlayers().add(new Player(dto.firstName(), dto.lastName(), dto.position()));
+      }
+    }
+    return team;
+  }
+}
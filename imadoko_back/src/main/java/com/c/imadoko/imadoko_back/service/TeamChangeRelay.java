@@ -0,0 +1,256 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.imadoko_back.config.CacheConfig;
+import com.c.imadoko.imadoko_back.config.ReplicaRouting;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * チームの変更の通知をインスタンス間で中継する（PostgreSQLの LISTEN / NOTIFY）
+ *
+ * <p>変更と同じトランザクションで {@code pg_notify} を発行するため、通知はコミットされた変更についてのみ届く。各インスタンスは
+ * コネクションプールとは別の専用コネクションで LISTEN し、受け取った通知でローカルのキャッシュを破棄してから購読者に配信する。
+ * 自インスタンスの変更も同じ経路で届く。
+ *
+ * <p>PostgreSQL以外（テストのH2など）や {@code app.teams.events.listen=false} の場合は、コミット後にこのインスタンスの購読者にのみ
+ * 配信する。
+ *
+ * <p>半開きのTCP接続（相手側の再起動やNATのタイムアウト）では通知の待機が失敗しないため、通知のない間は{@code SELECT 1}で
+ * 接続を確認する。ソケットのタイムアウトで応答のない接続を切断して再接続し、再接続後は購読者に同期を促す。
+ */
+@Slf4j
+@Service
+public class TeamChangeRelay {
+
+  static final String CHANNEL = "team_changes";
+
+  private static final long MAX_BACKOFF_MS = 30_000;
+
+  private final TeamEventBroadcaster broadcaster;
+  private final EntityManager entityManager;
+  private final DataSource dataSource;
+  private final ObjectProvider<DataSourceProperties> dataSourceProperties;
+  private final ObjectProvider<CacheManager> cacheManager;
+  private final ObjectProvider<ReplicaRouting> replicaRouting;
+  private final ObjectMapper objectMapper;
+  private final boolean listenEnabled;
+  private final int pollMs;
+
+  private volatile boolean listening;
+  private volatile boolean running;
+  private volatile Connection connection;
+  private Thread listener;
+
+  public TeamChangeRelay(
+      TeamEventBroadcaster broadcaster,
+      EntityManager entityManager,
+      DataSource dataSource,
+      ObjectProvider<DataSourceProperties> dataSourceProperties,
+      ObjectProvider<CacheManager> cacheManager,
+      ObjectProvider<ReplicaRouting> replicaRouting,
+      ObjectMapper objectMapper,
+      @Value("${app.teams.events.listen:true}") boolean listenEnabled,
+      @Value("${app.teams.events.poll-ms:10000}") int pollMs) {
+    this.broadcaster = broadcaster;
+    this.entityManager = entityManager;
+    this.dataSource = dataSource;
+    this.dataSourceProperties = dataSourceProperties;
+    this.cacheManager = cacheManager;
+    this.replicaRouting = replicaRouting;
+    this.objectMapper = objectMapper;
+    this.listenEnabled = listenEnabled;
+    this.pollMs = pollMs;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!listenEnabled || !isPostgres() || dataSourceProperties.getIfAvailable() == null) {
+      log.info("Team change notifications are delivered to this instance only");
+      return;
+    }
+    listening = true;
+    running = true;
+    listener = new Thread(this::listen, "team-change-listener");
+    listener.setDaemon(true);
+    listener.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    closeQuietly(connection);
+    if (listener != null) {
+      listener.join(5_000);
+    }
+  }
+
+  /** 変更と同じトランザクションで通知する（ロールバックされた場合は届かない） */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+  public void notifyChange(TeamChanged changed) throws JsonProcessingException {
+    if (!listening) {
+      return;
+    }
+    entityManager
+        .createNativeQuery("select pg_notify(:channel, :payload)")
+        .setParameter("channel", CHANNEL)
+        .setParameter("payload", objectMapper.writeValueAsString(changed))
+        .getSingleResult();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+  public void publishLocally(TeamChanged changed) {
+    if (!listening) {
+      broadcaster.broadcast(changed);
+    }
+  }
+
+  /** 受け取った通知の反映。他のインスタンスの変更でもローカルのキャッシュが古くならないよう破棄する */
+  void receive(String payload) {
+    TeamChanged changed;
+    try {
+      changed = objectMapper.readValue(payload, TeamChanged.class);
+    } catch (JsonProcessingException e) {
+      log.warn("Ignoring malformed team change notification: {}", payload);
+      return;
+    }
+    deliver(changed);
+  }
+
+  private void deliver(TeamChanged changed) {
+    // レプリカが追いつく前の内容でキャッシュが埋め直されないよう、しばらくプライマリから読む
+    replicaRouting.ifAvailable(ReplicaRouting::pinPrimary);
+    evictCaches(changed);
+    broadcaster.broadcast(changed);
+  }
+
+  private void evictCaches(TeamChanged changed) {
+    CacheManager manager = cacheManager.getIfAvailable();
+    if (manager == null) {
+      return;
+    }
+    Cache teams = manager.getCache(CacheConfig.TEAMS);
+    if (teams != null) {
+      if (changed.teamId() != null) {
+        teams.evict(changed.teamId());
+      } else {
+        teams.clear();
+      }
+    }
+    Cache teamList = manager.getCache(CacheConfig.TEAM_LIST);
+    if (teamList != null) {
+      teamList.clear();
+    }
+  }
+
+  private void listen() {
+    DataSourceProperties properties = dataSourceProperties.getObject();
+    long backoffMs = 1_000;
+    boolean reconnected = false;
+    while (running) {
+      try (Connection conn = DriverManager.getConnection(properties.determineUrl(), info(properties));
+          Statement statement = conn.createStatement()) {
+        connection = conn;
+        statement.execute("LISTEN " + CHANNEL);
+        log.info("Listening for team changes: channel={}", CHANNEL);
+        if (reconnected) {
+          // 切断中の通知は届かないため、購読者に同期を促す
+          deliver(TeamChanged.many());
+        }
+        reconnected = true;
+        backoffMs = 1_000;
+
+        PGConnection pg = conn.unwrap(PGConnection.class);
+        while (running) {
+          PGNotification[] notifications = pg.getNotifications(pollMs);
+          if (notifications == null || notifications.length == 0) {
+            // 応答がない場合はソケットのタイムアウトでSQLExceptionとなり、再接続する
+            statement.execute("SELECT 1");
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            receive(notification.getParameter());
+          }
+        }
+      } catch (SQLException e) {
+        if (!running) {
+          return;
+        }
+        log.warn(
+            "Team change listener disconnected, retrying in {}ms: {}", backoffMs, e.getMessage());
+        if (!sleep(backoffMs)) {
+          return;
+        }
+        backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+      } finally {
+        connection = null;
+      }
+    }
+  }
+
+  /** 接続の確認（SELECT 1）が応答しない場合に切断するよう、ソケットのタイムアウトとTCPキープアライブを指定する */
+  private Properties info(DataSourceProperties properties) {
+    Properties info = new Properties();
+    if (properties.determineUsername() != null) {
+      info.setProperty("user", properties.determineUsername());
+    }
+    if (properties.determinePassword() != null) {
+      info.setProperty("password", properties.determinePassword());
+    }
+    info.setProperty("tcpKeepAlive", "true");
+    info.setProperty(
+        "socketTimeout", Long.toString(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(pollMs)) * 3));
+    return info;
+  }
+
+  private boolean isPostgres() {
+    try (Connection conn = dataSource.getConnection()) {
+      return "PostgreSQL".equals(conn.getMetaData().getDatabaseProductName());
+    } catch (SQLException e) {
+      log.warn("Could not determine the database product: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  private static void closeQuietly(Connection conn) {
+    if (conn == null) {
+      return;
+    }
+    try {
+      conn.close();
+    } catch (SQLException e) {
+      log.debug("Failed to close team change listener connection: {}", e.getMessage());
+    }
+  }
+}
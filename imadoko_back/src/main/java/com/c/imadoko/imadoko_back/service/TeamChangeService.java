@@ -0,0 +1,76 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.imadoko_back.api.dto.TeamChanges;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.domain.TeamChangeMark;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * チームの差分同期
+ *
+ * <p>変更履歴（team_change）のseqより後に変更されたチームを、現在の状態（または削除）として返す。同じチームが何度変更されても
+ * 1件にまとめられ、選手は変更されたチームの分のみ読み込む。
+ *
+ * <p>seqは登録時に払い出されるため、コミットの順序とは一致しない（小さいseqが後からコミットされうる）。そのため、登録から
+ * {@code app.teams.changes.settle} 以上経過した変更までしかhighWaterMarkを進めない。それより新しい変更も返すが、次回の同期で
+ * 再度返される（同じ状態の上書きになるだけ）。続きの取得にはhighWaterMarkではなくcursor（返した最後のseq）を使う。
+ */
+@Service
+@Transactional(readOnly = true)
+public class TeamChangeService {
+
+  static final int DEFAULT_LIMIT = 200;
+  static final int MAX_LIMIT = 500;
+
+  private final TeamChangeRepository teamChangeRepository;
+  private final TeamRepository teamRepository;
+  private final Duration settle;
+
+  public TeamChangeService(
+      TeamChangeRepository teamChangeRepository,
+      TeamRepository teamRepository,
+      @Value("${app.teams.changes.settle:2s}") Duration settle) {
+    this.teamChangeRepository = teamChangeRepository;
+    this.teamRepository = teamRepository;
+    this.settle = settle;
+  }
+
+  public TeamChanges findChanges(long since, int limit) {
+    int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+    List<TeamChangeMark> marks =
+        teamChangeRepository.findMarksAfter(since, PageRequest.of(0, size + 1));
+    boolean hasMore = marks.size() > size;
+    if (hasMore) {
+      marks = marks.subList(0, size);
+    }
+
+    // seq順に、確定した（settleより前に登録された）変更が続く範囲までをhighWaterMarkとする
+    LocalDateTime settledBefore = LocalDateTime.now().minus(settle);
+    long highWaterMark = since;
+    for (TeamChangeMark mark : marks) {
+      if (mark.changedAt().isAfter(settledBefore)) {
+        break;
+      }
+      highWaterMark = mark.seq();
+    }
+
+    long cursor = marks.isEmpty() ? since : marks.get(marks.size() - 1).seq();
+
+    List<Long> ids = marks.stream().map(TeamChangeMark::teamId).toList();
+    List<TeamResponse> upserted =
+        ids.isEmpty() ? List.of() : TeamResponse.fromRows(teamRepository.findRowsByIdIn(ids));
+    Set<Long> existing = upserted.stream().map(TeamResponse::id).collect(Collectors.toSet());
+    List<Long> deleted = ids.stream().filter(id -> !existing.contains(id)).sorted().toList();
+    return new TeamChanges(upserted, deleted, highWaterMark, cursor, hasMore);
+  }
+}
@@ -0,0 +1,21 @@
+package com.c.imadoko.imadoko_back.service;
+
+/**
+ * チームの変更の通知。{@link TeamChangeRelay} がインスタンス間で中継し、{@link TeamEventBroadcaster} が購読者に配信する
+ *
+ * <p>受け取った側は差分同期（{@code GET /api/teams/changes}）で内容を取得する。一括登録など複数のチームの変更ではteamIdはnull。
+ */
+public record TeamChanged(Long teamId, boolean deleted) {
+
+  static TeamChanged upserted(Long teamId) {
+    return new TeamChanged(teamId, false);
+  }
+
+  static TeamChanged deleted(Long teamId) {
+    return new TeamChanged(teamId, true);
+  }
+
+  static TeamChanged many() {
+    return new TeamChanged(null, false);
+  }
+}
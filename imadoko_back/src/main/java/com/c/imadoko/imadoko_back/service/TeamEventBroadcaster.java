@@ -0,0 +1,56 @@
+package com.c.imadoko.imadoko_back.service;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * チームの変更の購読者への配信（Server-Sent Events）
+ *
+ * <p>{@link MatchBroadcaster} と同じく、送信は共有の{@link SseSender}で行い、接続ごとに保持するのは未送信の最新の通知1件だけとする。
+ * 送信中に複数の通知が溜まった場合は「複数のチームの変更」にまとめる。通知を受けたクライアントは差分同期で内容を取得するため、
+ * 途中の通知を間引いても取りこぼしにはならない。
+ */
+@Service
+public class TeamEventBroadcaster {
+
+  private final SseSender sender;
+  private final long timeoutMs;
+  private final Set<CoalescingSseSubscriber<TeamChanged>> subscribers =
+      ConcurrentHashMap.newKeySet();
+
+  public TeamEventBroadcaster(
+      SseSender sender, @Value("${app.teams.events.timeout-ms:1800000}") long timeoutMs) {
+    this.sender = sender;
+    this.timeoutMs = timeoutMs;
+  }
+
+  public SseEmitter subscribe() {
+    SseEmitter emitter = new SseEmitter(timeoutMs);
+    CoalescingSseSubscriber<TeamChanged> subscriber =
+        new CoalescingSseSubscriber<>(
+            emitter,
+            sender,
+            (prev, next) -> prev.equals(next) ? next : TeamChanged.many(),
+            changed -> SseEmitter.event().name("change").data(changed, MediaType.APPLICATION_JSON),
+            subscribers::remove);
+    subscribers.add(subscriber);
+    emitter.onCompletion(() -> subscribers.remove(subscriber));
+    emitter.onTimeout(() -> subscribers.remove(subscriber));
+    emitter.onError(e -> subscribers.remove(subscriber));
+    return emitter;
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  public void broadcast(TeamChanged changed) {
+    for (CoalescingSseSubscriber<TeamChanged> subscriber : subscribers) {
+      subscriber.offer(changed);
+    }
+  }
+}
@@ -2,15 +2,34 @@ package com.c.imadoko.imadoko_back.service;
 
 import com.c.imadoko.common.exception.ErrorCode;
 import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.CursorPage;
 import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamPatchRequest;
 import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.config.CacheConfig;
 import com.c.imadoko.imadoko_back.domain.Player;
 import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
 import com.c.imadoko.imadoko_back.repo.TeamRepository;
-import jakarta.persistence.EntityNotFoundException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,23 +38,67 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class TeamService {
 
+  static final int DEFAULT_PAGE_SIZE = 50;
+  static final int MAX_PAGE_SIZE = 200;
+
   private final TeamRepository teamRepository;
+  private final TeamChangeRepository teamChangeRepository;
+  private final ApplicationEventPublisher eventPublisher;
 
-  public List<Team> findAll() {
-    return teamRepository.findAll();
+  /** 全チームを選手込みで取得する。エンティティは生成せず、1クエリの射影から組み立てる */
+  @Cacheable(cacheNames = CacheConfig.TEAM_LIST, sync = true)
+  @Transactional(readOnly = true)
+  public List<TeamResponse> findAll() {
+    return TeamResponse.fromRows(teamRepository.findAllRows());
   }
 
-  public Team findById(Long id) {
-    return teamRepository
-        .findById(id)
-        .orElseThrow(() -> new ImadokoException(ErrorCode.TEAM_NOT_FOUND));
+  /** チーム概要（id, チーム名, 選手数）をキーセットページングで取得する。選手は読み込まない */
+  @Transactional(readOnly = true)
+  public CursorPage<TeamSummary> findSummaries(Long after, int limit) {
+    int size = clampPageSize(limit);
+    List<TeamSummary> summaries =
+        teamRepository.findSummariesAfter(after == null ? 0L : after, PageRequest.of(0, size));
+    Long nextCursor =
+        summaries.size() == size ? summaries.get(summaries.size() - 1).id() : null;
+    return new CursorPage<>(summaries, nextCursor);
   }
 
-  public Team create(TeamRequest request) {
-    if (teamRepository.existsByTeamName(request.teamName())) {
-      throw new ImadokoException(ErrorCode.DUPLICATE_TEAM_NAME);
+  /**
+   * 選手を含むチームをキーセットページングで取得する
+   *
+   * <p>選手との結合にLIMITを掛けると選手の行数で切られるため、先に対象IDを確定させてから選手の行をまとめて取得する。
+   */
+  @Transactional(readOnly = true)
+  public CursorPage<TeamResponse> findPage(Long after, int limit) {
+    CursorPage<TeamSummary> summaries = findSummaries(after, limit);
+    if (summaries.items().isEmpty()) {
+      return new CursorPage<>(List.of(), null);
+    }
+    List<Long> ids = summaries.items().stream().map(TeamSummary::id).toList();
+    List<TeamResponse> teams = TeamResponse.fromRows(teamRepository.findRowsByIdIn(ids));
+    return new CursorPage<>(teams, summaries.nextCursor());
+  }
+
+  @Cacheable(cacheNames = CacheConfig.TEAMS, key = "#id", sync = true)
+  @Transactional(readOnly = true)
+  public TeamResponse findById(Long id) {
+    List<TeamResponse> teams = TeamResponse.fromRows(teamRepository.findRowsById(id));
+    if (teams.isEmpty()) {
+      throw new ImadokoException(ErrorCode.TEAM_NOT_FOUND);
     }
+    return teams.get(0);
+  }
+
+  /** ETag判定用。チームが存在しない場合は空を返す */
+  @Transactional(readOnly = true)
+  public Optional<Long> findVersion(Long id) {
+    return teamRepository.findVersionById(id);
+  }
 
+  @Caching(
+      put = @CachePut(cacheNames = CacheConfig.TEAMS, key = "#result.id()"),
+      evict = @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true))
+  public TeamResponse create(TeamRequest request) {
     Team team = new Team(request.teamName());
     List<Player> players = request.players().stream().map(this::toEntity).collect(Collectors.toList());
 
@@ -47,41 +110,159 @@ public class TeamService {
     }
 
     team.setPlayers(players);
-    return teamRepository.save(team);
+    Team saved = saveAndFlush(team);
+    teamChangeRepository.recordLatest(saved.getId(), LocalDateTime.now());
+    eventPublisher.publishEvent(TeamChanged.upserted(saved.getId()));
+    return TeamResponse.from(saved);
   }
 
-  public Team update(Long id, TeamRequest request) {
-    Team team = findById(id);
+  @Caching(
+      put = @CachePut(cacheNames = CacheConfig.TEAMS, key = "#id"),
+      evict = @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true))
+  public TeamResponse update(Long id, TeamRequest request) {
+    return doUpdate(id, request.teamName(), request.players(), null);
+  }
 
-    // Check name uniqueness if changed
-    if (!team.getTeamName().equals(request.teamName())
-        && teamRepository.existsByTeamName(request.teamName())) {
-      throw new ImadokoException(ErrorCode.DUPLICATE_TEAM_NAME);
+  /**
+   * If-Match付きの更新。指定バージョンと現在のバージョンが異なる場合は更新せずに失敗させる
+   *
+   * <p>読み込み後にコミットまでの間に更新された場合は、@Versionによる楽観ロックで検出される。
+   */
+  @Caching(
+      put = @CachePut(cacheNames = CacheConfig.TEAMS, key = "#id"),
+      evict = @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true))
+  public TeamResponse update(Long id, TeamRequest request, long expectedVersion) {
+    return doUpdate(id, request.teamName(), request.players(), expectedVersion);
+  }
+
+  /** 部分更新。nullの項目は変更せず、playersを省略した場合は選手に一切触れない */
+  @Caching(
+      put = @CachePut(cacheNames = CacheConfig.TEAMS, key = "#id"),
+      evict = @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true))
+  public TeamResponse patch(Long id, TeamPatchRequest request, Long expectedVersion) {
+    return doUpdate(id, request.teamName(), request.players(), expectedVersion);
+  }
+
+  @Caching(
+      evict = {
+        @CacheEvict(cacheNames = CacheConfig.TEAMS, key = "#id"),
+        @CacheEvict(cacheNames = CacheConfig.TEAM_LIST, allEntries = true)
+      })
+  public void delete(Long id) {
+    if (teamRepository.deleteTeamById(id) == 0) {
+      throw new ImadokoException(ErrorCode.TEAM_NOT_FOUND);
     }
+    teamChangeRepository.recordLatest(id, LocalDateTime.now());
+    eventPublisher.publishEvent(TeamChanged.deleted(id));
+  }
 
-    team.setTeamName(request.teamName());
+  private TeamResponse doUpdate(
+      Long id, String teamName, List<PlayerRequest> players, Long expectedVersion) {
+    Team team =
+        teamRepository
+            .findById(id)
+            .orElseThrow(() -> new ImadokoException(ErrorCode.TEAM_NOT_FOUND));
 
-    // Replace players
-    team.getPlayers().clear();
-    List<Player> newPlayers = request.players().stream().map(this::toEntity).collect(Collectors.toList());
+    if (expectedVersion != null && !expectedVersion.equals(team.getVersion())) {
+      throw new ImadokoException(ErrorCode.TEAM_VERSION_MISMATCH);
+    }
 
-    if (newPlayers.size() > 14) {
-      throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+    boolean nameChanged = teamName != null && !team.getTeamName().equals(teamName);
+    if (nameChanged) {
+      team.setTeamName(teamName);
+    }
+
+    if (players != null) {
+      if (players.size() > 14) {
+        throw new ImadokoException(ErrorCode.INVALID_REQUEST);
+      }
+      RosterChange change = mergePlayers(team, players);
+      // 選手の属性変更だけではTeamのバージョンが進まないため、明示的に進める
+      if (change == RosterChange.ATTRIBUTES_ONLY && !nameChanged) {
+        teamRepository.forceVersionIncrement(team);
+      }
     }
 
-    team.getPlayers().addAll(newPlayers);
+    Team saved = saveAndFlush(team);
+    teamChangeRepository.recordLatest(id, LocalDateTime.now());
+    eventPublisher.publishEvent(TeamChanged.upserted(id));
+    return TeamResponse.from(saved);
+  }
 
-    return teamRepository.save(team);
+  /**
+   * 保存し、その場でSQLを発行する
+   *
+   * <p>チーム名の重複は事前に検索せず、UNIQUE制約の違反で検出する（同時登録でもすり抜けない）。コミット時ではなくここで発行することで、
+   * 違反時にキャッシュへ書き込まれず、例外はGlobalExceptionHandlerで {@link ErrorCode#DUPLICATE_TEAM_NAME} に変換される。
+   */
+  private Team saveAndFlush(Team team) {
+    return teamRepository.saveAndFlush(team);
   }
 
-  public void delete(Long id) {
-    if (!teamRepository.existsById(id)) {
-      throw new ImadokoException(ErrorCode.TEAM_NOT_FOUND);
+  /**
+   * 選手リストを差分で反映する
+   *
+   * <p>idが一致する選手は変更のある項目のみ更新し、idのない選手は追加、リクエストに含まれない選手のみ削除する。
+   * 全削除→再登録を行わないため、選手IDが維持され、発行されるSQLも変更分だけになる。
+   */
+  private RosterChange mergePlayers(Team team, List<PlayerRequest> requested) {
+    Map<Long, Player> current = new HashMap<>();
+    for (Player player : team.getPlayers()) {
+      current.put(player.getId(), player);
+    }
+
+    boolean attributesChanged = false;
+    List<Player> added = new ArrayList<>();
+    Set<Long> keptIds = new HashSet<>();
+    for (PlayerRequest dto : requested) {
+      Player existing = dto.id() == null ? null : current.get(dto.id());
+      if (existing == null || !keptIds.add(existing.getId())) {
+        added.add(toEntity(dto));
+        continue;
+      }
+      attributesChanged |= applyChanges(existing, dto);
     }
-    teamRepository.deleteById(id);
+
+    boolean removed = team.getPlayers().removeIf(p -> !keptIds.contains(p.getId()));
+    team.getPlayers().addAll(added);
+
+    if (removed || !added.isEmpty()) {
+      return RosterChange.MEMBERSHIP;
+    }
+    return attributesChanged ? RosterChange.ATTRIBUTES_ONLY : RosterChange.NONE;
+  }
+
+  private static boolean applyChanges(Player player, PlayerRequest dto) {
+    boolean changed = false;
+    if (!Objects.equals(player.getFirstName(), dto.firstName())) {
+      player.setFirstName(dto.firstName());
+      changed = true;
+    }
+    if (!Objects.equals(player.getLastName(), dto.lastName())) {
+      player.setLastName(dto.lastName());
+      changed = true;
+    }
+    if (!Objects.equals(player.getPosition(), dto.position())) {
+      player.setPosition(dto.position());
+      changed = true;
+    }
+    return changed;
+  }
+
+  private static int clampPageSize(int limit) {
+    if (limit <= 0) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    return Math.min(limit, MAX_PAGE_SIZE);
   }
 
   private Player toEntity(PlayerRequest dto) {
     return new Player(dto.firstName(), dto.lastName(), dto.position());
   }
+
+  private enum RosterChange {
+    NONE,
+    ATTRIBUTES_ONLY,
+    MEMBERSHIP
+  }
 }
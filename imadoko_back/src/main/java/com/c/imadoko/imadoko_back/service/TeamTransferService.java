@@ -0,0 +1,205 @@
+package com.c.imadoko.imadoko_back.service;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.imadoko_back.api.dto.BulkItemResult;
+import com.c.imadoko.imadoko_back.api.dto.BulkResult;
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * NDJSON（1行1チーム）形式でのエクスポート/インポート
+ *
+ * <p>どちらも1チームずつ処理するため、件数に関わらずメモリ使用量は一定。行の形式は{@link TeamRequest}と同じで、エクスポート結果をそのままインポートできる。
+ */
+@Slf4j
+@Service
+public class TeamTransferService {
+
+  /** インポート時に1トランザクションでコミットする件数 */
+  static final int IMPORT_CHUNK_SIZE = 100;
+
+  /** インポート時の1行の上限（バイト）。14人の選手を含むチームでも数KBのため、十分な余裕を持たせている */
+  static final int MAX_LINE_BYTES = 64 * 1024;
+
+  private final TeamRepository teamRepository;
+  private final TeamBulkService teamBulkService;
+  private final EntityManager entityManager;
+  private final ObjectWriter lineWriter;
+  private final ObjectReader lineReader;
+
+  public TeamTransferService(
+      TeamRepository teamRepository,
+      TeamBulkService teamBulkService,
+      EntityManager entityManager,
+      ObjectMapper objectMapper) {
+    this.teamRepository = teamRepository;
+    this.teamBulkService = teamBulkService;
+    this.entityManager = entityManager;
+    this.lineWriter = objectMapper.writerFor(TeamRequest.class);
+    this.lineReader = objectMapper.readerFor(TeamRequest.class);
+  }
+
+  /**
+   * 全チームをNDJSONで書き出す。書き出したチームは都度detachし、永続化コンテキストに溜めない
+   *
+   * @return 書き出したチーム数
+   */
+  @Transactional(readOnly = true)
+  public long exportTo(OutputStream out) throws IOException {
+    long count = 0;
+    try (Stream<Team> teams = teamRepository.streamAllWithPlayers()) {
+      Iterator<Team> it = teams.iterator();
+      while (it.hasNext()) {
+        Team team = it.next();
+        out.write(lineWriter.writeValueAsBytes(toRequest(team)));
+        out.write('\n');
+        entityManager.detach(team);
+        count++;
+      }
+    }
+    out.flush();
+    log.info("Exported {} teams", count);
+    return count;
+  }
+
+  /**
+   * NDJSONを1行ずつ読み込み、{@link #IMPORT_CHUNK_SIZE}件ごとに一括登録する
+   *
+   * <p>チャンクごとに別トランザクションでコミットされる。結果には失敗した行のみを含め、indexは0始まりの行番号（空行を含む）となる。
+   * {@link #MAX_LINE_BYTES}を超える行はメモリに読み込まずに読み捨て、その行のみE400とする。
+   */
+  public BulkResult importFrom(InputStream in) throws IOException {
+    List<BulkItemResult> failures = new ArrayList<>();
+    List<TeamRequest> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+    List<Integer> chunkLines = new ArrayList<>(IMPORT_CHUNK_SIZE);
+    int created = 0;
+    int failed = 0;
+
+    LineReader reader = new LineReader(in);
+    String line;
+    int lineNo = 0;
+    while ((line = reader.next()) != null) {
+      int current = lineNo++;
+      if (reader.tooLong()) {
+        failures.add(
+            BulkItemResult.failed(
+                current,
+                null,
+                ErrorCode.INVALID_REQUEST.getCode(),
+                List.of("1行は" + MAX_LINE_BYTES + "バイトまでです")));
+        failed++;
+        continue;
+      }
+      if (line.isBlank()) {
+        continue;
+      }
+      try {
+        chunk.add(lineReader.readValue(line));
+        chunkLines.add(current);
+      } catch (JsonProcessingException e) {
+        failures.add(
+            BulkItemResult.failed(
+                current, null, ErrorCode.INVALID_REQUEST.getCode(), List.of(e.getOriginalMessage())));
+        failed++;
+        continue;
+      }
+      if (chunk.size() == IMPORT_CHUNK_SIZE) {
+        BulkResult result = flushChunk(chunk, chunkLines, failures);
+        created += result.created();
+        failed += result.failed();
+      }
+    }
+    if (!chunk.isEmpty()) {
+      BulkResult result = flushChunk(chunk, chunkLines, failures);
+      created += result.created();
+      failed += result.failed();
+    }
+
+    log.info("Imported teams: created={}, failed={}", created, failed);
+    return new BulkResult(created, failed, failures);
+  }
+
+  private BulkResult flushChunk(
+      List<TeamRequest> chunk, List<Integer> chunkLines, List<BulkItemResult> failures) {
+    BulkResult result = teamBulkService.createAll(chunk, 0);
+    for (BulkItemResult item : result.items()) {
+      if (item.status() == BulkItemResult.Status.FAILED) {
+        // チャンク内の位置を行番号に置き換える
+        failures.add(
+            BulkItemResult.failed(
+                chunkLines.get(item.index()), item.teamName(), item.code(), item.details()));
+      }
+    }
+    chunk.clear();
+    chunkLines.clear();
+    return result;
+  }
+
+  private static TeamRequest toRequest(Team team) {
+    List<PlayerRequest> players =
+        team.getPlayers().stream()
+            .map(p -> new PlayerRequest(p.getFirstName(), p.getLastName(), p.getPosition()))
+            .toList();
+    return new TeamRequest(team.getTeamName(), players);
+  }
+
+  /**
+   * 改行（LFまたはCRLF）までを1行として読む
+   *
+   * <p>BufferedReader.readLineは行の長さに上限がないため、{@link #MAX_LINE_BYTES}までしか保持しない読み込みを行う。
+   */
+  private static final class LineReader {
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[MAX_LINE_BYTES];
+    private boolean tooLong;
+
+    LineReader(InputStream in) {
+      this.in = new BufferedInputStream(in);
+    }
+
+    /** 次の行。入力の終わりではnull。上限を超えた行は残りを読み捨て、{@link #tooLong()}をtrueにする */
+    String next() throws IOException {
+      int length = 0;
+      tooLong = false;
+      int b;
+      while ((b = in.read()) != -1 && b != '\n') {
+        if (length < buffer.length) {
+          buffer[length++] = (byte) b;
+        } else {
+          tooLong = true;
+        }
+      }
+      if (b == -1 && length == 0) {
+        return null;
+      }
+      if (length > 0 && buffer[length - 1] == '\r') {
+        length--;
+      }
+      return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    boolean tooLong() {
+      return tooLong;
+    }
+  }
+}
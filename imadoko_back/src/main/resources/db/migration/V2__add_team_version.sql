@@ -0,0 +1 @@
+ALTER TABLE team ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,28 @@
+-- 試合（状態はイベントとスナップショットから復元するため、ここには持たない）
+CREATE SEQUENCE match_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE matches (
+    id BIGINT PRIMARY KEY,
+    created_at TIMESTAMP NOT NULL
+);
+
+-- 追記専用のイベントログ。seqは試合ごとの連番で、(match_id, seq)の一意性で同時追記を検出する
+CREATE TABLE match_event (
+    match_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    payload VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_match_event PRIMARY KEY (match_id, seq),
+    CONSTRAINT fk_match_event_match FOREIGN KEY (match_id) REFERENCES matches(id) ON DELETE CASCADE
+);
+
+-- seq番目のイベントまでを適用した状態
+CREATE TABLE match_snapshot (
+    match_id BIGINT NOT NULL,
+    seq BIGINT NOT NULL,
+    state VARCHAR(4000) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_match_snapshot PRIMARY KEY (match_id, seq),
+    CONSTRAINT fk_match_snapshot_match FOREIGN KEY (match_id) REFERENCES matches(id) ON DELETE CASCADE
+);
@@ -0,0 +1,6 @@
+-- チームの削除を1文で行えるよう、所属選手はデータベース側で削除する
+ALTER TABLE player DROP CONSTRAINT fk_team;
+ALTER TABLE player ADD CONSTRAINT fk_team FOREIGN KEY (team_id) REFERENCES team(id) ON DELETE CASCADE;
+
+-- 削除時の選手の検索と、チームごとの選手の読み込みに使用する
+CREATE INDEX idx_player_team_id ON player (team_id);
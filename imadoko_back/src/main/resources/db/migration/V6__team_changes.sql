@@ -0,0 +1,12 @@
+-- チームの変更履歴（差分同期用）。seqは登録順の連番で、クライアントは受け取った最大のseq以降の変更のみを取得する
+-- 削除されたチームの行も残すため、teamへの外部キーは設定しない
+CREATE TABLE team_change (
+    seq BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    team_id BIGINT NOT NULL,
+    changed_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_team_change_team_id ON team_change (team_id);
+
+-- 既存のチームは、since=0 の同期で全件が返るよう変更済みとして登録しておく
+INSERT INTO team_change (team_id, changed_at) SELECT id, CURRENT_TIMESTAMP FROM team ORDER BY id;
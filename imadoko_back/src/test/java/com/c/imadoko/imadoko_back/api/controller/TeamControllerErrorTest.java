@@ -4,6 +4,9 @@ import com.c.imadoko.common.exception.ErrorCode;
 import com.c.imadoko.common.exception.GlobalExceptionHandler;
 import com.c.imadoko.common.exception.ImadokoException;
 import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.service.SearchService;
+import com.c.imadoko.imadoko_back.service.TeamChangeService;
+import com.c.imadoko.imadoko_back.service.TeamEventBroadcaster;
 import com.c.imadoko.imadoko_back.service.TeamService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,9 +15,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.Collections;
 import java.util.List;
 
@@ -34,6 +40,15 @@ public class TeamControllerErrorTest {
     @MockBean
     private TeamService teamService;
 
+    @MockBean
+    private TeamChangeService teamChangeService;
+
+    @MockBean
+    private TeamEventBroadcaster teamEventBroadcaster;
+
+    @MockBean
+    private SearchService searchService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -57,6 +72,21 @@ public class TeamControllerErrorTest {
                 .andExpect(jsonPath("$.message").value("そのチーム名は既に使用されています"));
     }
 
+    @Test
+    void createTeam_UniqueConstraintViolation_ShouldReturnConflict_E102() throws Exception {
+        // 同時登録で事前チェックをすり抜けた場合と同じく、UNIQUE制約の違反として検出される
+        SQLException cause = new SQLException(
+                "duplicate key value violates unique constraint \"team_team_name_key\"", "23505");
+        when(teamService.create(any(TeamRequest.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", cause));
+
+        mockMvc.perform(post("/api/teams")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("E102"));
+    }
+
     @Test
     void getTeam_NotFound_ShouldReturnNotFound_E101() throws Exception {
         when(teamService.findById(999L))
@@ -82,4 +112,27 @@ public class TeamControllerErrorTest {
                 .andExpect(jsonPath("$.details").isArray())
                 .andExpect(jsonPath("$.details").isNotEmpty());
     }
+
+    @Test
+    void updateTeam_StaleIfMatch_ShouldReturnPreconditionFailed_E103() throws Exception {
+        when(teamService.update(eq(1L), any(TeamRequest.class), eq(2L)))
+                .thenThrow(new ImadokoException(ErrorCode.TEAM_VERSION_MISMATCH));
+
+        mockMvc.perform(put("/api/teams/1")
+                .header(HttpHeaders.IF_MATCH, "\"team-1-v2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("E103"));
+    }
+
+    @Test
+    void updateTeam_IfMatchForOtherTeam_ShouldReturnPreconditionFailed_E103() throws Exception {
+        mockMvc.perform(put("/api/teams/1")
+                .header(HttpHeaders.IF_MATCH, "\"team-2-v0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("E103"));
+    }
 }
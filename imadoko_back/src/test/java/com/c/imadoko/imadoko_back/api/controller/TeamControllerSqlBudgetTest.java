@@ -0,0 +1,99 @@
+package com.c.imadoko.imadoko_back.api.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.service.TeamService;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * TeamControllerのSQL発行数のテスト
+ *
+ * <p>サービス・リポジトリを含むアプリ全体をH2で起動し、実際のエンドポイントを呼び出す。{@code @SqlBudget}の上限を超えた場合や
+ * 同じSELECTが繰り返された場合（N+1）はSqlBudgetFilterが例外を投げ、テストが失敗する。
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+@TestPropertySource(
+    properties = {
+      "app.sql.budget.fail-on-exceed=true",
+      "app.teams.events.listen=false",
+      "app.throttle.enabled=false"
+    })
+class TeamControllerSqlBudgetTest {
+
+  private static final int TEAMS = 5;
+
+  @Autowired private MockMvc mockMvc;
+
+  @Autowired private TeamService teamService;
+
+  @Autowired private CacheManager cacheManager;
+
+  private final List<Long> ids = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() {
+    // N+1があれば繰り返しの閾値を超えるよう、選手のいるチームを複数登録する
+    for (int i = 0; i < TEAMS; i++) {
+      ids.add(
+          teamService
+              .create(
+                  new TeamRequest(
+                      "Budget Team " + i,
+                      List.of(
+                          new PlayerRequest("Taro", "Yamada", "S"),
+                          new PlayerRequest("Jiro", "Sato", "WS"))))
+              .id());
+    }
+    // キャッシュから返すとSQLが発行されないため、毎回データベースから読み込ませる
+    cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+  }
+
+  @AfterEach
+  void tearDown() {
+    ids.forEach(teamService::delete);
+  }
+
+  @Test
+  void 全チームの取得は上限内で行われる() throws Exception {
+    mockMvc.perform(get("/api/teams")).andExpect(status().isOk());
+  }
+
+  @Test
+  void ページングしたチームの取得は上限内で行われる() throws Exception {
+    mockMvc.perform(get("/api/teams").param("limit", "3")).andExpect(status().isOk());
+    mockMvc
+        .perform(get("/api/teams").param("limit", "3").param("expand", "players"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void チームの取得は上限内で行われる() throws Exception {
+    mockMvc.perform(get("/api/teams/" + ids.get(0))).andExpect(status().isOk());
+  }
+
+  @Test
+  void 差分同期は上限内で行われる() throws Exception {
+    mockMvc.perform(get("/api/teams/changes").param("since", "0")).andExpect(status().isOk());
+  }
+
+  @Test
+  void チームの検索は上限内で行われる() throws Exception {
+    mockMvc.perform(get("/api/teams/search").param("q", "Budget")).andExpect(status().isOk());
+  }
+}
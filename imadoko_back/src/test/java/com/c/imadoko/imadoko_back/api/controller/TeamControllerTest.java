@@ -1,29 +1,50 @@
 package com.c.imadoko.imadoko_back.api.controller;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.CursorPage;
 import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.PlayerResponse;
+import com.c.imadoko.imadoko_back.api.dto.TeamPatchRequest;
 import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
-import com.c.imadoko.imadoko_back.domain.Player;
-import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.config.SqlStatementCounter;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import com.c.imadoko.imadoko_back.service.SearchService;
+import com.c.imadoko.imadoko_back.service.TeamChangeService;
+import com.c.imadoko.imadoko_back.service.TeamEventBroadcaster;
 import com.c.imadoko.imadoko_back.service.TeamService;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.persistence.EntityNotFoundException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 /** TeamControllerのテスト @WebMvcTestを使用してREST APIエンドポイントをテスト サービス層はモック化し、コントローラーの動作のみをテスト */
 @WebMvcTest(TeamController.class)
+@TestPropertySource(properties = "app.sql.budget.fail-on-exceed=true") // SQL発行数の上限超過はテスト失敗とする
 class TeamControllerTest {
 
   @Autowired private MockMvc mockMvc;
@@ -32,23 +53,21 @@ class TeamControllerTest {
 
   @MockBean private TeamService teamService;
 
-  private Team testTeam;
+  @MockBean private TeamChangeService teamChangeService;
+
+  @MockBean private TeamEventBroadcaster teamEventBroadcaster;
+
+  @MockBean private SearchService searchService;
+
+  private TeamResponse testTeam;
   private TeamRequest testTeamRequest;
 
   @BeforeEach
   void setUp() {
     // テストデータの準備
-    testTeam = new Team();
-    testTeam.setId(1L);
-    testTeam.setTeamName("Test Team");
-
-    Player player = new Player();
-    player.setId(1L);
-    player.setFirstName("Taro");
-    player.setLastName("Yamada");
-    player.setPosition("WS");
-
-    testTeam.setPlayers(List.of(player));
+    testTeam =
+        new TeamResponse(
+            1L, "Test Team", List.of(new PlayerResponse(1L, "Taro", "Yamada", "WS")), 3L);
 
     PlayerRequest playerRequest = new PlayerRequest("Taro", "Yamada", "WS");
     testTeamRequest = new TeamRequest("Test Team", List.of(playerRequest));
@@ -65,11 +84,93 @@ class TeamControllerTest {
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$[0].teamName").value("Test Team"))
-        .andExpect(jsonPath("$[0].players[0].firstName").value("Taro"));
+        .andExpect(jsonPath("$[0].players[0].firstName").value("Taro"))
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"teams-")));
 
     verify(teamService, times(1)).findAll();
   }
 
+  @Test
+  void GET_api_teams_で一覧が変わっていなければ304が返る() throws Exception {
+    // Given: 一度取得してETagを得る
+    when(teamService.findAll()).thenReturn(List.of(testTeam));
+    String etag =
+        mockMvc.perform(get("/api/teams")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When & Then: 同じETagを指定すると本文なしの304が返る
+    mockMvc
+        .perform(get("/api/teams").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+  }
+
+  @Test
+  void GET_api_teams_の応答にServer_Timingヘッダーが付与される() throws Exception {
+    // Given: モックの設定
+    when(teamService.findAll()).thenReturn(List.of(testTeam));
+
+    // When & Then: JSON変換と合計の時間が含まれる
+    mockMvc
+        .perform(get("/api/teams"))
+        .andExpect(status().isOk())
+        .andExpect(
+            header()
+                .string(
+                    "Server-Timing",
+                    allOf(containsString("ser;dur="), containsString("total;dur="))))
+        .andExpect(jsonPath("$[0].teamName").value("Test Team"));
+  }
+
+  @Test
+  void GET_api_teams_で返す一覧のチームが更新されていればETagが変わる() throws Exception {
+    // Given: 更新前の一覧でETagを得る
+    TeamResponse updated = new TeamResponse(1L, "Test Team", testTeam.players(), 4L);
+    when(teamService.findAll()).thenReturn(List.of(testTeam), List.of(updated));
+    String etag =
+        mockMvc.perform(get("/api/teams")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+    // When & Then: 更新後の一覧が返る場合は、古いETagを指定しても本文が返る
+    mockMvc
+        .perform(get("/api/teams").header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+        .andExpect(jsonPath("$[0].version").value(4));
+  }
+
+  @Test
+  void GET_api_teams_でページング指定すると選手を含まない概要が返る() throws Exception {
+    // Given: モックの設定
+    when(teamService.findSummaries(null, 1))
+        .thenReturn(new CursorPage<>(List.of(new TeamSummary(1L, "Test Team", 1)), 1L));
+
+    // When & Then: APIを呼び出して結果を検証
+    mockMvc
+        .perform(get("/api/teams").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].teamName").value("Test Team"))
+        .andExpect(jsonPath("$.items[0].playerCount").value(1))
+        .andExpect(jsonPath("$.items[0].players").doesNotExist())
+        .andExpect(jsonPath("$.nextCursor").value(1));
+
+    verify(teamService, never()).findAll();
+  }
+
+  @Test
+  void GET_api_teams_search_でチーム名の検索結果が返る() throws Exception {
+    // Given: モックの設定
+    when(searchService.searchTeams("test", 0))
+        .thenReturn(List.of(new TeamSummary(1L, "Test Team", 1)));
+
+    // When & Then: /{id}ではなく検索として扱われる
+    mockMvc
+        .perform(get("/api/teams/search").param("q", "test"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].teamName").value("Test Team"))
+        .andExpect(jsonPath("$[0].playerCount").value(1));
+
+    verify(teamService, never()).findById(any());
+  }
+
   @Test
   void GET_api_teams_id_で特定のチームを取得できる() throws Exception {
     // Given: モックの設定
@@ -81,19 +182,153 @@ class TeamControllerTest {
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
         .andExpect(jsonPath("$.teamName").value("Test Team"))
-        .andExpect(jsonPath("$.players").isArray());
+        .andExpect(jsonPath("$.players").isArray())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"team-1-v3\""));
 
     verify(teamService, times(1)).findById(1L);
   }
 
+  @Test
+  void GET_api_teams_id_でAcceptにCBORを指定するとバイナリで返る() throws Exception {
+    // Given: モックの設定
+    when(teamService.findById(1L)).thenReturn(testTeam);
+
+    // When: CBORを要求
+    byte[] body =
+        mockMvc
+            .perform(get("/api/teams/1").accept("application/cbor"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/cbor"))
+            .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"team-1-v3-cbor\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+    // Then: JSONとは異なるETagが返り、同じ項目に復元できる
+    assertThat(new CBORMapper().readValue(body, TeamResponse.class)).isEqualTo(testTeam);
+  }
+
+  @Test
+  void GET_api_teams_id_でfieldsを指定すると選択した項目のみ返る() throws Exception {
+    // Given: モックの設定
+    when(teamService.findById(1L)).thenReturn(testTeam);
+
+    // When & Then: idは常に返り、選手はポジションのみ。ETagは全項目の場合と区別される
+    mockMvc
+        .perform(get("/api/teams/1").param("fields", "teamName,players.position"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(1))
+        .andExpect(jsonPath("$.teamName").value("Test Team"))
+        .andExpect(jsonPath("$.players[0].position").value("WS"))
+        .andExpect(jsonPath("$.players[0].firstName").doesNotExist())
+        .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"team-1-v3-f")));
+  }
+
+  @Test
+  void GET_api_teams_id_で未知のfieldsを指定すると400が返る() throws Exception {
+    // When & Then
+    mockMvc
+        .perform(get("/api/teams/1").param("fields", "teamName,players.age"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.code").value("E400"));
+
+    verify(teamService, never()).findById(any());
+  }
+
+  @Test
+  void GET_api_teams_id_でSQL発行数が上限内であれば成功する() throws Exception {
+    // Given: チームと選手を1クエリずつで読み込む実装を模擬（上限2）
+    when(teamService.findById(1L))
+        .thenAnswer(
+            inv -> {
+              SqlStatementCounter.record("select t1_0.id from team t1_0 where t1_0.id=?");
+              SqlStatementCounter.record("select p1_0.id from player p1_0 where p1_0.team_id=?");
+              return testTeam;
+            });
+
+    // When & Then
+    mockMvc.perform(get("/api/teams/1")).andExpect(status().isOk());
+  }
+
+  @Test
+  void GET_api_teams_id_でSQL発行数が上限を超えると失敗する() {
+    // Given: 選手を1人ずつ読み込む（N+1）実装を模擬
+    when(teamService.findById(1L))
+        .thenAnswer(
+            inv -> {
+              SqlStatementCounter.record("select t1_0.id from team t1_0 where t1_0.id=?");
+              for (int i = 0; i < 3; i++) {
+                SqlStatementCounter.record("select p1_0.id from player p1_0 where p1_0.id=?");
+              }
+              return testTeam;
+            });
+
+    // When & Then: 上限超過と、繰り返されたSELECTが報告される
+    assertThatThrownBy(() -> mockMvc.perform(get("/api/teams/1")))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("SQL budget exceeded: GET /api/teams/{id}")
+        .hasMessageContaining("budget=2")
+        .hasMessageContaining("3x select p1_0.id from player");
+  }
+
+  @Test
+  void GET_api_teams_id_でETagが一致すればチームを読み込まずに304が返る() throws Exception {
+    // Given: モックの設定（バージョンのみ照会される）
+    when(teamService.findVersion(1L)).thenReturn(Optional.of(3L));
+
+    // When & Then: 304が返り、チーム本体は取得されない
+    mockMvc
+        .perform(get("/api/teams/1").header(HttpHeaders.IF_NONE_MATCH, "\"team-1-v3\""))
+        .andExpect(status().isNotModified());
+
+    verify(teamService, never()).findById(any());
+  }
+
+  @Test
+  void PUT_api_teams_id_でIf_Matchのバージョンが渡される() throws Exception {
+    // Given: モックの設定
+    when(teamService.update(eq(1L), any(TeamRequest.class), eq(3L))).thenReturn(testTeam);
+
+    // When & Then: APIを呼び出して結果を検証
+    mockMvc
+        .perform(
+            put("/api/teams/1")
+                .header(HttpHeaders.IF_MATCH, "\"team-1-v3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTeamRequest)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"team-1-v3\""));
+
+    verify(teamService, never()).update(eq(1L), any(TeamRequest.class));
+  }
+
+  @Test
+  void PUT_api_teams_id_でCBORで取得したETagをIf_Matchに指定できる() throws Exception {
+    // Given: モックの設定
+    when(teamService.update(eq(1L), any(TeamRequest.class), eq(3L))).thenReturn(testTeam);
+
+    // When & Then: 形式の接尾辞は取り除いて照合され、応答はJSONのETagになる
+    mockMvc
+        .perform(
+            put("/api/teams/1")
+                .header(HttpHeaders.IF_MATCH, "\"team-1-v3-cbor\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testTeamRequest)))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"team-1-v3\""));
+  }
+
   @Test
   void GET_api_teams_id_で存在しないIDを指定すると404が返る() throws Exception {
     // Given: モックの設定（チームが見つからない）
-    when(teamService.findById(999L))
-        .thenThrow(new EntityNotFoundException("Team not found with id: 999"));
+    when(teamService.findById(999L)).thenThrow(new ImadokoException(ErrorCode.TEAM_NOT_FOUND));
 
     // When & Then: 404エラーが返ることを確認
-    mockMvc.perform(get("/api/teams/999")).andExpect(status().isNotFound());
+    mockMvc
+        .perform(get("/api/teams/999"))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.code").value(ErrorCode.TEAM_NOT_FOUND.getCode()));
 
     verify(teamService, times(1)).findById(999L);
   }
@@ -132,6 +367,24 @@ class TeamControllerTest {
     verify(teamService, times(1)).update(eq(1L), any(TeamRequest.class));
   }
 
+  @Test
+  void PATCH_api_teams_id_でチーム名のみ部分更新できる() throws Exception {
+    // Given: モックの設定
+    when(teamService.patch(eq(1L), any(TeamPatchRequest.class), isNull())).thenReturn(testTeam);
+
+    // When & Then: merge-patch形式で送信
+    mockMvc
+        .perform(
+            patch("/api/teams/1")
+                .contentType("application/merge-patch+json")
+                .content("{\"teamName\":\"Test Team\"}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.teamName").value("Test Team"));
+
+    verify(teamService, times(1))
+        .patch(eq(1L), eq(new TeamPatchRequest("Test Team", null)), isNull());
+  }
+
   @Test
   void DELETE_api_teams_id_でチームを削除できる() throws Exception {
     // Given: モックの設定
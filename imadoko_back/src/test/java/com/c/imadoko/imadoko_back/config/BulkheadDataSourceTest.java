@@ -0,0 +1,111 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** BulkheadDataSourceのテスト。プールはモックで代用し、許可の取得・返却のみを確認する */
+@ExtendWith(MockitoExtension.class)
+class BulkheadDataSourceTest {
+
+  @Mock private DataSource pool;
+
+  private BulkheadDataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    lenient().when(pool.getConnection()).thenAnswer(inv -> mock(Connection.class));
+    dataSource = new BulkheadDataSource(pool, 2, Duration.ofMillis(100));
+  }
+
+  @Test
+  void 上限までは待たずに取得できる() throws SQLException {
+    Connection first = dataSource.getConnection();
+    Connection second = dataSource.getConnection();
+
+    assertThat(first).isNotNull();
+    assertThat(second).isNotNull();
+    assertThat(dataSource.availablePermits()).isZero();
+  }
+
+  @Test
+  void 上限を超えた取得は待ち時間を過ぎると失敗しプールには到達しない() throws SQLException {
+    // Given: 上限まで取得済み
+    dataSource.getConnection();
+    dataSource.getConnection();
+
+    // When & Then
+    assertThatThrownBy(() -> dataSource.getConnection())
+        .isInstanceOf(SQLTransientConnectionException.class);
+    verify(pool, times(2)).getConnection();
+  }
+
+  @Test
+  void closeすると待っていたスレッドが取得できる() throws Exception {
+    // Given: 上限1で取得済み、別スレッドが待機中
+    BulkheadDataSource single = new BulkheadDataSource(pool, 1, Duration.ofSeconds(5));
+    Connection held = single.getConnection();
+    CompletableFuture<Connection> waiting =
+        CompletableFuture.supplyAsync(
+            () -> {
+              try {
+                return single.getConnection();
+              } catch (SQLException e) {
+                throw new IllegalStateException(e);
+              }
+            });
+
+    // When
+    while (single.queueLength() == 0) {
+      Thread.onSpinWait();
+    }
+    held.close();
+
+    // Then
+    assertThat(waiting.get(5, TimeUnit.SECONDS)).isNotNull();
+    assertThat(single.availablePermits()).isZero();
+  }
+
+  @Test
+  void 二重にcloseしても許可は1回だけ返却される() throws SQLException {
+    Connection connection = dataSource.getConnection();
+
+    connection.close();
+    connection.close();
+
+    assertThat(dataSource.availablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void プールからの取得に失敗した場合は許可を返却する() throws SQLException {
+    // Given
+    when(pool.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+    // When & Then
+    assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("pool exhausted");
+    assertThat(dataSource.availablePermits()).isEqualTo(2);
+  }
+
+  @Test
+  void close以外の呼び出しは元のコネクションに委譲する() throws SQLException {
+    Connection raw = mock(Connection.class);
+    when(pool.getConnection()).thenReturn(raw);
+
+    dataSource.getConnection().setAutoCommit(false);
+
+    verify(raw).setAutoCommit(false);
+  }
+}
@@ -0,0 +1,85 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** ClientRateLimiterのテスト。時刻は進めた分だけ経過したものとして扱う */
+class ClientRateLimiterTest {
+
+  private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+
+  private ClientRateLimiter limiter;
+
+  @BeforeEach
+  void setUp() {
+    // 1秒あたり10回（100ms間隔）、連続3回まで
+    limiter = new ClientRateLimiter(10, 3, 100, nanos::get);
+  }
+
+  @Test
+  void burstまでは連続で許可される() {
+    assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+  }
+
+  @Test
+  void burstを超えると次のトークンまでの時間を返す() {
+    // Given: 連続で使い切った
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("10.0.0.1");
+    }
+
+    // When
+    Duration wait = limiter.tryAcquire("10.0.0.1");
+
+    // Then
+    assertThat(wait).isEqualTo(Duration.ofMillis(100));
+  }
+
+  @Test
+  void 時間が経過するとその分のトークンが戻る() {
+    // Given: 使い切った後、250ms経過（2回分）
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("10.0.0.1");
+    }
+    nanos.addAndGet(Duration.ofMillis(250).toNanos());
+
+    // When & Then
+    assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    assertThat(limiter.tryAcquire("10.0.0.1")).isEqualTo(Duration.ofMillis(50));
+  }
+
+  @Test
+  void 長時間空いてもburstを超えては貯まらない() {
+    // Given
+    limiter.tryAcquire("10.0.0.1");
+    nanos.addAndGet(Duration.ofSeconds(10).toNanos());
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire("10.0.0.1")).isZero();
+    }
+
+    // Then
+    assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+  }
+
+  @Test
+  void クライアントごとに独立して制限される() {
+    // Given
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("10.0.0.1");
+    }
+
+    // When & Then
+    assertThat(limiter.tryAcquire("10.0.0.1")).isPositive();
+    assertThat(limiter.tryAcquire("10.0.0.2")).isZero();
+    assertThat(limiter.clients()).isEqualTo(2);
+  }
+}
@@ -0,0 +1,350 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.c.imadoko.imadoko_back.domain.IdempotencyRecord;
+import com.c.imadoko.imadoko_back.repo.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+/** IdempotencyFilterのテスト。コントローラーは呼び出し回数を数えるスタブで代用する */
+class IdempotencyFilterTest {
+
+  private SimpleMeterRegistry registry;
+  private StubController controller;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    controller = new StubController();
+    mockMvc = build(new IdempotencyStore(100, Duration.ofHours(1), null, Clock.systemUTC()));
+  }
+
+  @Test
+  void 同じキーの再送はハンドラーを実行せず最初のレスポンスを返す() throws Exception {
+    // Given
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(1));
+
+    // When & Then
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+        .andExpect(header().string("ETag", "\"1\""))
+        .andExpect(jsonPath("$.id").value(1));
+    assertThat(controller.calls.get()).isEqualTo(1);
+    assertThat(count("executed")).isEqualTo(1);
+    assertThat(count("replayed")).isEqualTo(1);
+  }
+
+  @Test
+  void キーが異なれば別のリクエストとして処理する() throws Exception {
+    mockMvc.perform(create("key-1", "{\"teamName\":\"A\"}")).andExpect(jsonPath("$.id").value(1));
+    mockMvc.perform(create("key-2", "{\"teamName\":\"A\"}")).andExpect(jsonPath("$.id").value(2));
+    mockMvc.perform(create(null, "{\"teamName\":\"A\"}")).andExpect(jsonPath("$.id").value(3));
+  }
+
+  @Test
+  void 同じキーで本文が異なる場合は422を返す() throws Exception {
+    // Given
+    mockMvc.perform(create("key-1", "{\"teamName\":\"A\"}"));
+
+    // When & Then
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"B\"}"))
+        .andExpect(status().isUnprocessableEntity())
+        .andExpect(jsonPath("$.code").value("E422"));
+    assertThat(controller.calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  void キーはメソッドとパスごとに区別される() throws Exception {
+    mockMvc
+        .perform(
+            put("/api/teams/1")
+                .header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(
+            put("/api/teams/2")
+                .header(IdempotencyFilter.HEADER, "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+  }
+
+  @Test
+  void 処理中の再送は完了を待って同じレスポンスを返す() throws Exception {
+    // Given: 最初のリクエストがハンドラーの中で止まっている
+    controller.entered = new CountDownLatch(1);
+    controller.release = new CountDownLatch(1);
+    CompletableFuture<MvcResult> first =
+        CompletableFuture.supplyAsync(() -> perform(create("key-1", "{\"teamName\":\"A\"}")));
+    assertThat(controller.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When: 同じキーで再送し、最初のリクエストを完了させる
+    CompletableFuture<MvcResult> second =
+        CompletableFuture.supplyAsync(() -> perform(create("key-1", "{\"teamName\":\"A\"}")));
+    Thread.sleep(100);
+    controller.release.countDown();
+
+    // Then
+    MvcResult replayed = second.get(5, TimeUnit.SECONDS);
+    assertThat(first.get(5, TimeUnit.SECONDS).getResponse().getStatus()).isEqualTo(201);
+    assertThat(replayed.getResponse().getStatus()).isEqualTo(201);
+    assertThat(replayed.getResponse().getContentAsString()).contains("\"id\":1");
+    assertThat(controller.calls.get()).isEqualTo(1);
+  }
+
+  @Test
+  void 処理中のまま待ち時間を過ぎると409を返す() throws Exception {
+    // Given
+    mockMvc =
+        build(
+            new IdempotencyStore(100, Duration.ofHours(1), null, Clock.systemUTC()),
+            Duration.ofMillis(50));
+    controller.entered = new CountDownLatch(1);
+    controller.release = new CountDownLatch(1);
+    CompletableFuture<MvcResult> first =
+        CompletableFuture.supplyAsync(() -> perform(create("key-1", "{\"teamName\":\"A\"}")));
+    assertThat(controller.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When & Then
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isConflict())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.code").value("E409"));
+    controller.release.countDown();
+    first.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void サーバーエラーは保存せず同じキーで再試行できる() throws Exception {
+    // Given
+    controller.failures.set(1);
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isServiceUnavailable());
+
+    // When & Then
+    mockMvc
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    assertThat(controller.calls.get()).isEqualTo(2);
+  }
+
+  @Test
+  void データベースに保存したレスポンスを別のインスタンスで再生する() throws Exception {
+    // Given: 1台目が処理して保存した
+    IdempotencyRecordRepository saved = mock(IdempotencyRecordRepository.class);
+    when(saved.findValid(any(), any())).thenReturn(Optional.empty());
+    build(new IdempotencyStore(100, Duration.ofHours(1), saved, Clock.systemUTC()))
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isCreated());
+    ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+    verify(saved)
+        .insert(
+            eq("POST /api/teams key-1"),
+            fingerprint.capture(),
+            eq(201),
+            eq(MediaType.APPLICATION_JSON_VALUE),
+            isNull(),
+            eq("\"1\""),
+            body.capture(),
+            any());
+
+    // When: 2台目（メモリ上には持たない）に再送された
+    IdempotencyRecord record = mock(IdempotencyRecord.class);
+    when(record.getFingerprint()).thenReturn(fingerprint.getValue());
+    when(record.getStatus()).thenReturn(201);
+    when(record.getContentType()).thenReturn(MediaType.APPLICATION_JSON_VALUE);
+    when(record.getEtag()).thenReturn("\"1\"");
+    when(record.getBody()).thenReturn(body.getValue());
+    IdempotencyRecordRepository other = mock(IdempotencyRecordRepository.class);
+    when(other.findValid(eq("POST /api/teams key-1"), any())).thenReturn(Optional.of(record));
+
+    // Then
+    build(new IdempotencyStore(100, Duration.ofHours(1), other, Clock.systemUTC()))
+        .perform(create("key-1", "{\"teamName\":\"A\"}"))
+        .andExpect(status().isCreated())
+        .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+        .andExpect(jsonPath("$.id").value(1));
+    assertThat(controller.calls.get()).isEqualTo(1);
+    verify(other, never()).insert(any(), any(), anyInt(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void 本文が上限を超える場合は読み込まずに413を返す() throws Exception {
+    // Given: 上限は1024バイト
+    String body = "{\"teamName\":\"" + "A".repeat(1024) + "\"}";
+
+    // When & Then
+    mockMvc
+        .perform(create("key-1", body))
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(jsonPath("$.code").value("E413"));
+    assertThat(controller.calls.get()).isZero();
+    assertThat(count("too_large")).isEqualTo(1);
+  }
+
+  @Test
+  void 読み込み済みの本文をReadListenerでも読める() throws Exception {
+    // Given
+    IdempotencyFilter filter =
+        filter(
+            new IdempotencyStore(100, Duration.ofHours(1), null, Clock.systemUTC()),
+            Duration.ofSeconds(5),
+            1024);
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/teams");
+    request.addHeader(IdempotencyFilter.HEADER, "key-1");
+    request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    request.setContent("{\"teamName\":\"A\"}".getBytes(StandardCharsets.UTF_8));
+    ByteArrayOutputStream read = new ByteArrayOutputStream();
+    AtomicBoolean allRead = new AtomicBoolean();
+
+    // When: ハンドラーが非ブロッキングで本文を読む
+    filter.doFilter(
+        request,
+        new MockHttpServletResponse(),
+        (req, res) -> {
+          ServletInputStream in = req.getInputStream();
+          in.setReadListener(
+              new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                  while (in.isReady() && !in.isFinished()) {
+                    read.write(in.read());
+                  }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                  allRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {}
+              });
+        });
+
+    // Then
+    assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"teamName\":\"A\"}");
+    assertThat(allRead).isTrue();
+  }
+
+  private MockMvc build(IdempotencyStore store) {
+    return build(store, Duration.ofSeconds(5));
+  }
+
+  private MockMvc build(IdempotencyStore store, Duration maxWait) {
+    return MockMvcBuilders.standaloneSetup(controller)
+        .addFilters(filter(store, maxWait, 1024))
+        .build();
+  }
+
+  private IdempotencyFilter filter(IdempotencyStore store, Duration maxWait, long maxBodySize) {
+    return new IdempotencyFilter(
+        store,
+        Jackson2ObjectMapperBuilder.json().build(),
+        maxWait,
+        maxBodySize,
+        new StaticListableBeanFactory(Map.of("meterRegistry", registry))
+            .getBeanProvider(MeterRegistry.class));
+  }
+
+  private static MockHttpServletRequestBuilder create(String key, String body) {
+    MockHttpServletRequestBuilder request =
+        post("/api/teams").contentType(MediaType.APPLICATION_JSON).content(body);
+    return key == null ? request : request.header(IdempotencyFilter.HEADER, key);
+  }
+
+  private MvcResult perform(MockHttpServletRequestBuilder request) {
+    try {
+      return mockMvc.perform(request).andReturn();
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private double count(String outcome) {
+    return registry.get("app.idempotency.requests").tag("outcome", outcome).counter().count();
+  }
+
+  @RestController
+  static class StubController {
+
+    final AtomicInteger calls = new AtomicInteger();
+    final AtomicInteger failures = new AtomicInteger();
+    volatile CountDownLatch entered;
+    volatile CountDownLatch release;
+
+    @PostMapping("/api/teams")
+    ResponseEntity<Map<String, Object>> create(@RequestBody Map<String, Object> body)
+        throws InterruptedException {
+      int call = calls.incrementAndGet();
+      if (entered != null) {
+        entered.countDown();
+        release.await(5, TimeUnit.SECONDS);
+      }
+      if (failures.getAndDecrement() > 0) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+      }
+      return ResponseEntity.status(HttpStatus.CREATED).eTag("1").body(Map.of("id", call));
+    }
+
+    @PutMapping("/api/teams/{id}")
+    Map<String, Object> update(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+      calls.incrementAndGet();
+      return Map.of("id", id);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** ReplicaRoutingのテスト。遅延の確認はstart()せずにcheck()を直接呼び、振り分け先のコネクションを確認する */
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingTest {
+
+  @Mock private DataSource primary;
+  @Mock private DataSource replica;
+  @Mock private Connection primaryConnection;
+  @Mock private Connection replicaConnection;
+  @Mock private Statement statement;
+  @Mock private ResultSet resultSet;
+
+  private ReplicaRouting routing;
+  private DataSource readOnly;
+
+  @BeforeEach
+  void setUp() throws SQLException {
+    lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+    lenient().when(replica.getConnection()).thenReturn(replicaConnection);
+    lenient().when(replicaConnection.createStatement()).thenReturn(statement);
+    lenient().when(statement.executeQuery(anyString())).thenReturn(resultSet);
+    lenient().when(resultSet.next()).thenReturn(true);
+    routing =
+        new ReplicaRouting(replica, "select 0", Duration.ofSeconds(1), Duration.ofSeconds(5));
+    readOnly = routing.readOnlyDataSource(primary);
+  }
+
+  @AfterEach
+  void tearDown() {
+    ReplicaRouting.unpinCurrentThread();
+    routing.close();
+  }
+
+  @Test
+  void 遅延を確認するまではプライマリから読む() throws SQLException {
+    assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+  }
+
+  @Test
+  void 遅延が上限以内ならレプリカから読み_超えるとプライマリに戻る() throws SQLException {
+    // Given: 遅延0.2秒
+    when(resultSet.getDouble(1)).thenReturn(0.2);
+    routing.check();
+
+    // Then
+    assertThat(routing.isAvailable()).isTrue();
+    assertThat(readOnly.getConnection()).isSameAs(replicaConnection);
+
+    // When: 遅延が上限（1秒）を超える
+    when(resultSet.getDouble(1)).thenReturn(3.0);
+    routing.check();
+
+    // Then
+    assertThat(routing.lagSeconds()).isEqualTo(3.0);
+    assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+  }
+
+  @Test
+  void レプリカに接続できない場合はプライマリから読み利用不可とする() throws SQLException {
+    // Given: 利用可能と判定された後にレプリカが停止
+    routing.check();
+    when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+
+    // When & Then
+    assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+    assertThat(routing.isAvailable()).isFalse();
+  }
+
+  @Test
+  void 固定されている間はレプリカが利用可能でもプライマリから読む() throws SQLException {
+    // Given: レプリカは利用可能
+    routing.check();
+
+    // When & Then: スレッド単位の固定（更新直後のクライアント）
+    ReplicaRouting.pinCurrentThread();
+    assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+    ReplicaRouting.unpinCurrentThread();
+    assertThat(readOnly.getConnection()).isSameAs(replicaConnection);
+
+    // When & Then: インスタンス単位の固定（更新・変更通知の直後）
+    routing.pinPrimary();
+    assertThat(readOnly.getConnection()).isSameAs(primaryConnection);
+  }
+}
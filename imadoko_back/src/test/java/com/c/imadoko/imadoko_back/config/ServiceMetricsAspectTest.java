@@ -0,0 +1,89 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import com.c.imadoko.imadoko_back.service.TeamService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/** ServiceMetricsAspectのテスト TeamServiceにアスペクトを適用し、記録されるタグを確認する */
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+  @Mock private TeamRepository teamRepository;
+
+  @Mock private TeamChangeRepository teamChangeRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
+  private SimpleMeterRegistry registry;
+  private TeamService teamService;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    AspectJProxyFactory factory = new AspectJProxyFactory(new TeamService(teamRepository, teamChangeRepository, eventPublisher));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new ServiceMetricsAspect(registry));
+    teamService = factory.getProxy();
+  }
+
+  @Test
+  void 成功はerror_codeがnoneで記録される() {
+    when(teamRepository.findRowsById(1L))
+        .thenReturn(List.of(new TeamPlayerRow(1L, "Test Team", 0L, null, null, null, null)));
+
+    teamService.findById(1L);
+
+    assertThat(timer("findById", "SUCCESS", "none").count()).isEqualTo(1);
+  }
+
+  @Test
+  void 業務エラーはエラーコードとCLIENT_ERRORで記録される() {
+    when(teamRepository.findRowsById(99L)).thenReturn(List.of());
+
+    assertThatThrownBy(() -> teamService.findById(99L)).isInstanceOf(ImadokoException.class);
+
+    assertThat(timer("findById", "CLIENT_ERROR", "E101").count()).isEqualTo(1);
+    assertThat(registry.find(ServiceMetricsAspect.METRIC).tag("outcome", "SUCCESS").timer())
+        .isNull();
+  }
+
+  @Test
+  void 予期せぬ例外はE999とSERVER_ERRORで記録される() {
+    when(teamRepository.deleteTeamById(1L)).thenThrow(new DataAccessResourceFailureException("down"));
+
+    assertThatThrownBy(() -> teamService.delete(1L))
+        .isInstanceOf(DataAccessResourceFailureException.class);
+
+    assertThat(timer("delete", "SERVER_ERROR", "E999").count()).isEqualTo(1);
+  }
+
+  private Timer timer(String method, String outcome, String errorCode) {
+    Timer timer =
+        registry
+            .find(ServiceMetricsAspect.METRIC)
+            .tag("service", "TeamService")
+            .tag("method", method)
+            .tag("outcome", outcome)
+            .tag("error.code", errorCode)
+            .timer();
+    assertThat(timer).isNotNull();
+    return timer;
+  }
+}
@@ -0,0 +1,143 @@
+package com.c.imadoko.imadoko_back.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.GlobalExceptionHandler;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.config.ThrottlingInterceptor.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** ThrottlingInterceptorのテスト。コントローラーは応答を返すだけのスタブで代用する */
+class ThrottlingInterceptorTest {
+
+  private SimpleMeterRegistry registry;
+  private Lane read;
+  private Lane write;
+  private ThrottlingInterceptor interceptor;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    read = new Lane("read", new ClientRateLimiter(1, 2, 100), 10, Duration.ofSeconds(1));
+    write = new Lane("write", new ClientRateLimiter(100, 100, 100), 1, Duration.ofSeconds(3));
+    interceptor = new ThrottlingInterceptor(read, write);
+    interceptor.bindTo(registry);
+    mockMvc =
+        MockMvcBuilders.standaloneSetup(new StubController())
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .addInterceptors(interceptor)
+            .build();
+  }
+
+  @Test
+  void 流量を超えると429とRetry_Afterを返す() throws Exception {
+    // Given: 連続2回まで
+    mockMvc.perform(get("/api/teams")).andExpect(status().isOk());
+    mockMvc.perform(get("/api/teams")).andExpect(status().isOk());
+
+    // When & Then: 1秒あたり1回のため、次のトークンまで1秒
+    mockMvc
+        .perform(get("/api/teams"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1"))
+        .andExpect(jsonPath("$.code").value("E429"));
+    assertThat(rejected("read", "rate")).isEqualTo(1);
+  }
+
+  @Test
+  void 接続元IPごとに制限される() throws Exception {
+    // Given
+    mockMvc.perform(get("/api/teams"));
+    mockMvc.perform(get("/api/teams"));
+
+    // When & Then
+    mockMvc
+        .perform(
+            get("/api/teams")
+                .with(
+                    request -> {
+                      request.setRemoteAddr("192.168.0.2");
+                      return request;
+                    }))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void 更新は読み取りと別に制限される() throws Exception {
+    // Given: 読み取りの流量を使い切った
+    mockMvc.perform(get("/api/teams"));
+    mockMvc.perform(get("/api/teams"));
+
+    // When & Then
+    mockMvc.perform(put("/api/teams/1")).andExpect(status().isOk());
+  }
+
+  @Test
+  void 同時実行数の上限に達すると待たずに拒否し完了後に返却する() {
+    // Given: 更新の上限1を使用中
+    MockHttpServletRequest first = new MockHttpServletRequest("PUT", "/api/teams/1");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    interceptor.preHandle(first, response, null);
+    assertThat(write.active()).isEqualTo(1);
+
+    // When & Then
+    assertThatThrownBy(
+            () ->
+                interceptor.preHandle(
+                    new MockHttpServletRequest("PUT", "/api/teams/2"), response, null))
+        .isInstanceOfSatisfying(
+            ImadokoException.class,
+            ex -> {
+              assertThat(ex.getErrorCode()).isEqualTo(ErrorCode.TOO_MANY_REQUESTS);
+              assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+            });
+    assertThat(rejected("write", "bulkhead")).isEqualTo(1);
+
+    interceptor.afterCompletion(first, response, null, null);
+    assertThat(write.active()).isZero();
+    assertThat(
+            interceptor.preHandle(
+                new MockHttpServletRequest("PUT", "/api/teams/3"), response, null))
+        .isTrue();
+  }
+
+  private double rejected(String kind, String reason) {
+    return registry
+        .get("app.throttle.rejected")
+        .tags("kind", kind, "reason", reason)
+        .functionCounter()
+        .count();
+  }
+
+  @RestController
+  static class StubController {
+
+    @GetMapping("/api/teams")
+    String list() {
+      return "[]";
+    }
+
+    @PutMapping("/api/teams/{id}")
+    String update() {
+      return "{}";
+    }
+  }
+}
@@ -1,15 +1,23 @@
 package com.c.imadoko.imadoko_back.repo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.c.imadoko.imadoko_back.config.SqlStatementCounter;
 import com.c.imadoko.imadoko_back.domain.Player;
 import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 /** TeamRepositoryのテスト @DataJpaTestを使用してJPAの動作のみをテスト 実際のDBには影響せず、H2インメモリDBを使用 */
 @DataJpaTest
@@ -101,4 +109,157 @@ class TeamRepositoryTest {
     Optional<Team> found = teamRepository.findById(teamId);
     assertThat(found).isEmpty();
   }
+
+  @Test
+  void チーム概要をキーセットページングで取得できる() {
+    // Given: 選手数の異なるチームを保存
+    Team team1 = new Team();
+    team1.setTeamName("Summary Team 1");
+    Player player = new Player();
+    player.setFirstName("Taro");
+    player.setLastName("Yamada");
+    player.setPosition("WS");
+    team1.setPlayers(List.of(player));
+
+    Team team2 = new Team();
+    team2.setTeamName("Summary Team 2");
+    team2.setPlayers(List.of());
+
+    Team saved1 = entityManager.persist(team1);
+    Team saved2 = entityManager.persist(team2);
+    entityManager.flush();
+    entityManager.clear();
+
+    // When: 1件ずつページングして取得
+    List<TeamSummary> firstPage =
+        teamRepository.findSummariesAfter(saved1.getId() - 1, PageRequest.of(0, 1));
+    List<TeamSummary> secondPage =
+        teamRepository.findSummariesAfter(firstPage.get(0).id(), PageRequest.of(0, 1));
+
+    // Then: id順に取得でき、選手数が集計されていることを確認
+    assertThat(firstPage).containsExactly(new TeamSummary(saved1.getId(), "Summary Team 1", 1));
+    assertThat(secondPage).containsExactly(new TeamSummary(saved2.getId(), "Summary Team 2", 0));
+  }
+
+  @Test
+  void IDで検索したチームの選手は追加のSQLなしで参照できる() {
+    // Given: 選手を含むチームを保存し、永続化コンテキストを空にする
+    Team saved = entityManager.persist(teamWithPlayers("Budget Team", 3));
+    entityManager.flush();
+    entityManager.clear();
+
+    // When: チームを取得して選手を参照（JSON変換と同じアクセス）
+    SqlStatementCounter.begin();
+    Team found = teamRepository.findById(saved.getId()).orElseThrow();
+    found.getPlayers().forEach(Player::getPosition);
+    SqlStatementCounter.Stats stats = SqlStatementCounter.end();
+
+    // Then: 選手も同じ1クエリで読み込まれる
+    assertThat(found.getPlayers()).hasSize(3);
+    assertThat(stats.statements()).isEqualTo(1);
+  }
+
+  @Test
+  void 全チームの選手はチーム数によらず1クエリで読み込まれる() {
+    // Given: 選手を含むチームを複数保存
+    for (int i = 0; i < 5; i++) {
+      entityManager.persist(teamWithPlayers("N+1 Team " + i, 2));
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    // When: 全チームを取得して選手を参照
+    SqlStatementCounter.begin();
+    List<Team> teams = teamRepository.findAll();
+    teams.forEach(team -> team.getPlayers().forEach(Player::getPosition));
+    SqlStatementCounter.Stats stats = SqlStatementCounter.end();
+
+    // Then: チームごとの追加クエリ（N+1）が発生しない
+    assertThat(teams).hasSizeGreaterThanOrEqualTo(5);
+    assertThat(stats.statements()).isEqualTo(1);
+    assertThat(stats.repeated(2)).isEmpty();
+  }
+
+  @Test
+  void チームと選手の行はエンティティを生成せず1クエリで選手id順に取得できる() {
+    // Given: 選手を含むチームと、選手のいないチームを保存
+    Team team = entityManager.persist(teamWithPlayers("Rows Team", 3));
+    Team empty = new Team("Empty Rows Team");
+    empty.setPlayers(new ArrayList<>());
+    entityManager.persist(empty);
+    entityManager.flush();
+    entityManager.clear();
+
+    // When: 2チーム分の行を取得
+    SqlStatementCounter.begin();
+    List<TeamPlayerRow> rows = teamRepository.findRowsByIdIn(List.of(team.getId(), empty.getId()));
+    SqlStatementCounter.Stats stats = SqlStatementCounter.end();
+
+    // Then: 選手ごとに1行、選手のいないチームは選手の項目がnullの1行となり、永続化コンテキストには何も載らない
+    assertThat(stats.statements()).isEqualTo(1);
+    assertThat(rows)
+        .extracting(TeamPlayerRow::teamId)
+        .containsExactly(team.getId(), team.getId(), team.getId(), empty.getId());
+    assertThat(rows.get(0).playerId()).isLessThan(rows.get(1).playerId());
+    assertThat(rows.get(3).playerId()).isNull();
+    assertThat(
+            entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount())
+        .isZero();
+  }
+
+  @Test
+  void チームと所属選手を1文で削除できる() {
+    // Given: 選手を含むチームを保存
+    Team saved = entityManager.persist(teamWithPlayers("Cascade Team", 3));
+    entityManager.flush();
+    entityManager.clear();
+
+    // When: チームを削除
+    SqlStatementCounter.begin();
+    int deleted = teamRepository.deleteTeamById(saved.getId());
+    SqlStatementCounter.Stats stats = SqlStatementCounter.end();
+
+    // Then: 選手は外部キーのカスケードで削除され、発行されるのはDELETE 1文のみ
+    assertThat(deleted).isEqualTo(1);
+    assertThat(stats.statements()).isEqualTo(1);
+    assertThat(teamRepository.findById(saved.getId())).isEmpty();
+    assertThat(playerCount(saved.getId())).isZero();
+  }
+
+  @Test
+  void 存在しないチームの削除件数は0になる() {
+    // When & Then
+    assertThat(teamRepository.deleteTeamById(-1L)).isZero();
+  }
+
+  @Test
+  void 重複したチーム名はUNIQUE制約の違反になる() {
+    // Given: 同じ名前のチームを保存済み
+    entityManager.persist(new Team("Unique Team"));
+    entityManager.flush();
+
+    // When & Then: 事前チェックなしで保存すると制約違反の例外になる
+    assertThatThrownBy(() -> teamRepository.saveAndFlush(new Team("Unique Team")))
+        .isInstanceOf(DataIntegrityViolationException.class);
+  }
+
+  private long playerCount(Long teamId) {
+    return ((Number)
+            entityManager
+                .getEntityManager()
+                .createNativeQuery("select count(*) from player where team_id = :teamId")
+                .setParameter("teamId", teamId)
+                .getSingleResult())
+        .longValue();
+  }
+
+  private static Team teamWithPlayers(String teamName, int players) {
+    Team team = new Team(teamName);
+    List<Player> list = new ArrayList<>();
+    for (int i = 0; i < players; i++) {
+      list.add(new Player("First" + i, "Last" + i, "WS"));
+    }
+    team.setPlayers(list);
+    return team;
+  }
 }
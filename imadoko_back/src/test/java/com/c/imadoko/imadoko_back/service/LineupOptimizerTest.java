@@ -0,0 +1,116 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeRequest;
+import com.c.imadoko.imadoko_back.api.dto.LineupOptimizeResult;
+import com.c.imadoko.imadoko_back.api.dto.PlayerResponse;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** LineupOptimizerのテスト DBは使用せず、ロスターを直接組み立てて探索する */
+class LineupOptimizerTest {
+
+  private final LineupOptimizer optimizer = new LineupOptimizer(2);
+
+  @AfterEach
+  void tearDown() {
+    optimizer.shutdown();
+  }
+
+  @Test
+  void セッター対角とミドル対角の配置が最上位になる() {
+    // Given: 14人のロスター（S2, WS5, MB3, OP2, Li2）
+    TeamResponse team =
+        team("S", "S", "WS", "WS", "WS", "WS", "WS", "MB", "MB", "MB", "OP", "OP", "Li", "Li");
+
+    // When: 既定の条件で探索
+    LineupOptimizeResult result = optimizer.optimize(team, request(3, null, null));
+
+    // Then: 全件探索でき、セッターとオポジット、ミドル同士が対角に配置される
+    assertThat(result.complete()).isTrue();
+    assertThat(result.lineups()).hasSize(3);
+    LineupOptimizeResult.Candidate best = result.lineups().get(0);
+    Map<Integer, Long> assignment = best.assignment();
+    int setterSlot = best.setterSlot();
+    assertThat(position(team, assignment.get(setterSlot))).isEqualTo("S");
+    assertThat(position(team, assignment.get(opposite(setterSlot)))).isEqualTo("OP");
+    assertThat(best.liberoId()).isEqualTo(team.players().get(12).id());
+    assertThat(result.lineups())
+        .extracting(LineupOptimizeResult.Candidate::score)
+        .isSortedAccordingTo((a, b) -> Integer.compare(b, a));
+  }
+
+  @Test
+  void 同じ条件では同じ結果を返す() {
+    TeamResponse team = team("S", "WS", "WS", "WS", "MB", "MB", "MB", "OP", "Li");
+
+    LineupOptimizeResult first = optimizer.optimize(team, request(5, null, null));
+    LineupOptimizeResult second = optimizer.optimize(team, request(5, null, null));
+
+    assertThat(second.lineups()).isEqualTo(first.lineups());
+  }
+
+  @Test
+  void セッターの開始スロットを指定できる() {
+    TeamResponse team = team("S", "WS", "WS", "MB", "MB", "OP", "Li");
+
+    LineupOptimizeResult result = optimizer.optimize(team, request(5, null, 4));
+
+    assertThat(result.lineups()).isNotEmpty().allMatch(c -> c.setterSlot() == 4);
+  }
+
+  @Test
+  void 時間上限を超えた場合は探索を打ち切る() {
+    TeamResponse team =
+        team("S", "S", "WS", "WS", "WS", "WS", "WS", "MB", "MB", "MB", "OP", "OP", "WS", "MB");
+
+    // 最短の上限でも例外にはならず、打ち切ったことが返される
+    LineupOptimizeResult result = optimizer.optimize(team, request(5, 10L, null));
+
+    assertThat(result.lineups().size()).isLessThanOrEqualTo(5);
+    assertThat(result.elapsedMs()).isLessThan(2000);
+  }
+
+  @Test
+  void リベロ以外が6人未満の場合はエラーになる() {
+    TeamResponse team = team("S", "WS", "WS", "MB", "OP", "Li");
+
+    assertThatThrownBy(() -> optimizer.optimize(team, request(5, null, null)))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.NOT_ENOUGH_PLAYERS);
+  }
+
+  private static LineupOptimizeRequest request(int topK, Long budgetMs, Integer setterStartSlot) {
+    return new LineupOptimizeRequest(topK, budgetMs, null, null, null, setterStartSlot);
+  }
+
+  private static TeamResponse team(String... positions) {
+    List<PlayerResponse> players = new ArrayList<>();
+    for (int i = 0; i < positions.length; i++) {
+      players.add(new PlayerResponse(100L + i, "First" + i, "Last" + i, positions[i]));
+    }
+    return new TeamResponse(1L, "Test Team", players, 0L);
+  }
+
+  private static String position(TeamResponse team, Long playerId) {
+    return team.players().stream()
+        .filter(p -> p.id().equals(playerId))
+        .findFirst()
+        .orElseThrow()
+        .position();
+  }
+
+  /** 対角のスロット（1↔4, 2↔5, 3↔6） */
+  private static int opposite(int slot) {
+    return (slot + 2) % 6 + 1;
+  }
+}
@@ -0,0 +1,90 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.MatchEventRequest;
+import com.c.imadoko.imadoko_back.domain.MatchEventType;
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+/** MatchBroadcasterのテスト 試合ごとのチャネルがDBを読む回数を確認 */
+@ExtendWith(MockitoExtension.class)
+class MatchBroadcasterTest {
+
+  @Mock private MatchService matchService;
+
+  private SseSender sender;
+  private MatchBroadcaster broadcaster;
+
+  @BeforeEach
+  void setUp() {
+    sender = new SseSender(1);
+    broadcaster = new MatchBroadcaster(matchService, sender, 60_000);
+  }
+
+  @AfterEach
+  void tearDown() {
+    sender.shutdown();
+  }
+
+  @Test
+  void 観戦者が増えても状態の読み込みは試合ごとに1回() {
+    when(matchService.findState(1L)).thenReturn(MatchState.initial(1L));
+
+    broadcaster.subscribe(1L);
+    broadcaster.subscribe(1L);
+    broadcaster.subscribe(1L);
+
+    assertThat(broadcaster.subscriberCount(1L)).isEqualTo(3);
+    verify(matchService, times(1)).findState(1L);
+  }
+
+  @Test
+  void 連続したイベントはDBを読まずに適用する() {
+    when(matchService.findState(1L)).thenReturn(MatchState.initial(1L));
+    broadcaster.subscribe(1L);
+
+    broadcaster.onAppended(new MatchEventAppended(1L, 1, rally("B")));
+    broadcaster.onAppended(new MatchEventAppended(1L, 2, rally("B")));
+
+    verify(matchService, times(1)).findState(1L);
+  }
+
+  @Test
+  void seqが飛んだ場合はDBから読み直す() {
+    when(matchService.findState(1L)).thenReturn(MatchState.initial(1L));
+    broadcaster.subscribe(1L);
+
+    broadcaster.onAppended(new MatchEventAppended(1L, 3, rally("A")));
+
+    verify(matchService, times(2)).findState(1L);
+  }
+
+  @Test
+  void 観戦者のいない試合の通知は無視する() {
+    broadcaster.onAppended(new MatchEventAppended(2L, 1, rally("A")));
+
+    verifyNoInteractions(matchService);
+  }
+
+  @Test
+  void 存在しない試合はチャネルを残さない() {
+    when(matchService.findState(9L)).thenThrow(new ImadokoException(ErrorCode.MATCH_NOT_FOUND));
+
+    assertThatThrownBy(() -> broadcaster.subscribe(9L)).isInstanceOf(ImadokoException.class);
+    assertThat(broadcaster.subscriberCount(9L)).isZero();
+  }
+
+  private static MatchEventRequest rally(String side) {
+    return new MatchEventRequest(MatchEventType.RALLY, side, null, null, null, null, null, null);
+  }
+}
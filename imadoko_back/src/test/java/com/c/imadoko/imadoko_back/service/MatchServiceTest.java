@@ -0,0 +1,133 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.MatchEventRequest;
+import com.c.imadoko.imadoko_back.domain.MatchEventType;
+import com.c.imadoko.imadoko_back.domain.MatchState;
+import com.c.imadoko.imadoko_back.repo.MatchSnapshotRepository;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/** MatchServiceのテスト @DataJpaTestでH2に対してイベントの追記と状態の復元を確認 */
+@DataJpaTest
+@Import(MatchService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class MatchServiceTest {
+
+  @Autowired private MatchService matchService;
+
+  @Autowired private MatchSnapshotRepository matchSnapshotRepository;
+
+  @Test
+  void イベントを追記して状態を復元できる() {
+    // Given: 試合を作成し、配置とラリーを登録
+    Long matchId = matchService.create().matchId();
+    matchService.append(matchId, event(MatchEventType.TEAM, "A", 10L), null);
+    matchService.append(matchId, lineup("A", Map.of(1, 101L, 2, 102L)), null);
+    matchService.append(matchId, rally("B"), null);
+    long seq = matchService.append(matchId, rally("B"), null);
+
+    // When: 状態を取得
+    MatchState state = matchService.findState(matchId);
+
+    // Then: Aのサーブ中にBが得点 → サイドアウト、続けてBのサーブで得点 → ブレイク
+    assertThat(seq).isEqualTo(4);
+    assertThat(state.seq()).isEqualTo(4);
+    assertThat(state.a().teamId()).isEqualTo(10L);
+    assertThat(state.a().base()).containsEntry(1, 101L).containsEntry(3, null);
+    assertThat(state.b().score().so()).isEqualTo(1);
+    assertThat(state.b().score().br()).isEqualTo(1);
+    assertThat(state.b().score().points()).isEqualTo(2);
+    assertThat(state.serve()).isEqualTo("B");
+  }
+
+  @Test
+  void 直前のseqが一致しない場合は追記しない() {
+    Long matchId = matchService.create().matchId();
+    matchService.append(matchId, rally("A"), 0L);
+
+    // 他の端末が既にseq=1を登録している
+    assertThatThrownBy(() -> matchService.append(matchId, rally("B"), 0L))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.MATCH_SEQ_MISMATCH);
+    // 先の番号を指定しても欠番は作られない
+    assertThatThrownBy(() -> matchService.append(matchId, rally("B"), 5L))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.MATCH_SEQ_MISMATCH);
+    assertThat(matchService.findState(matchId).seq()).isEqualTo(1);
+  }
+
+  @Test
+  void 存在しない試合はエラーになる() {
+    assertThatThrownBy(() -> matchService.findState(999L))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.MATCH_NOT_FOUND);
+    assertThatThrownBy(() -> matchService.append(999L, rally("A"), null))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.MATCH_NOT_FOUND);
+  }
+
+  @Test
+  void 必要な項目がないイベントはエラーになる() {
+    Long matchId = matchService.create().matchId();
+
+    assertThatThrownBy(() -> matchService.append(matchId, rally(null), null))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.INVALID_REQUEST);
+    assertThatThrownBy(() -> matchService.append(matchId, lineup("A", Map.of(1, 1L, 2, 1L)), null))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.INVALID_REQUEST);
+  }
+
+  @Test
+  void 一定数のイベントごとに追記時にスナップショットを保存する() {
+    Long matchId = matchService.create().matchId();
+    for (int i = 0; i < MatchService.SNAPSHOT_INTERVAL - 1; i++) {
+      matchService.append(matchId, rally(i % 2 == 0 ? "A" : "B"), null);
+    }
+    // 読み込みではスナップショットを保存しない
+    MatchState before = matchService.findState(matchId);
+    assertThat(matchSnapshotRepository.findFirstByMatchIdOrderBySeqDesc(matchId)).isEmpty();
+
+    // seqが間隔の倍数になる追記でスナップショットを保存する
+    matchService.append(matchId, rally("B"), null);
+    assertThat(matchSnapshotRepository.findFirstByMatchIdOrderBySeqDesc(matchId))
+        .hasValueSatisfying(s -> assertThat(s.getSeq()).isEqualTo(MatchService.SNAPSHOT_INTERVAL));
+    MatchState first = matchService.findState(matchId);
+    assertThat(first.seq()).isEqualTo(before.seq() + 1);
+
+    // 以降はスナップショット + 以降のイベントから同じ状態が復元される
+    matchService.append(matchId, event(MatchEventType.SWAP_SIDES, null, null), null);
+    MatchState second = matchService.findState(matchId);
+    assertThat(second.seq()).isEqualTo(first.seq() + 1);
+    assertThat(second.a()).isEqualTo(first.b());
+    assertThat(second.b()).isEqualTo(first.a());
+  }
+
+  private static MatchEventRequest event(MatchEventType type, String side, Long teamId) {
+    return new MatchEventRequest(type, side, teamId, null, null, null, null, null);
+  }
+
+  private static MatchEventRequest rally(String side) {
+    return event(MatchEventType.RALLY, side, null);
+  }
+
+  private static MatchEventRequest lineup(String side, Map<Integer, Long> assignment) {
+    return new MatchEventRequest(MatchEventType.LINEUP, side, null, null, null, null, null, assignment);
+  }
+}
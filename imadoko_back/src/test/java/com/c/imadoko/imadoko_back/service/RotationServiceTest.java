@@ -0,0 +1,96 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.api.dto.RotationRequest;
+import com.c.imadoko.imadoko_back.api.dto.RotationResult;
+import com.c.imadoko.imadoko_back.domain.PackedLineup;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** RotationServiceのテスト フロントエンドのrotation.test.tsと同じ規則（1→6→5→4→3→2）で計算されることを確認 */
+class RotationServiceTest {
+
+  private final RotationService rotationService = new RotationService();
+
+  private static final Map<Integer, Long> BASE =
+      Map.of(1, 101L, 2, 102L, 3, 103L, 4, 104L, 5, 105L, 6, 106L);
+
+  @Test
+  void 六通りのローテーションを計算できる() {
+    RotationResult result = rotationService.computeAll(List.of(new RotationRequest(BASE))).get(0);
+
+    assertThat(result.rotations()).hasSize(6);
+    assertThat(result.rotations().get(0)).isEqualTo(BASE);
+    // 1->6, 6->5, 5->4, 4->3, 3->2, 2->1
+    assertThat(result.rotations().get(1))
+        .isEqualTo(Map.of(1, 102L, 2, 103L, 3, 104L, 4, 105L, 5, 106L, 6, 101L));
+    assertThat(result.setterRotation()).isNull();
+  }
+
+  @Test
+  void 空きスロットはnullのまま回転する() {
+    Map<Integer, Long> assignment = new HashMap<>();
+    assignment.put(1, 101L);
+    assignment.put(3, null);
+
+    RotationResult result =
+        rotationService.computeAll(List.of(new RotationRequest(assignment))).get(0);
+
+    assertThat(result.rotations().get(1)).containsEntry(6, 101L).containsEntry(1, null);
+    assertThat(result.rotations().get(1).values()).containsOnlyOnce(101L);
+  }
+
+  @Test
+  void セッターを目標スロットへ移動させるローテーションを計算できる() {
+    // セッター(106)は6番 → 4番へは 6->5->4 の2回
+    RotationResult result =
+        rotationService.computeAll(List.of(new RotationRequest(BASE, 106L, 4))).get(0);
+
+    assertThat(result.setterRotation().rotations()).isEqualTo(2);
+    assertThat(result.setterRotation().finalAssignment()).containsEntry(4, 106L);
+    assertThat(result.setterRotation().finalAssignment()).isEqualTo(result.rotations().get(2));
+  }
+
+  @Test
+  void セッターがコートにいない場合は目標スロットにだけ配置する() {
+    RotationResult result =
+        rotationService.computeAll(List.of(new RotationRequest(BASE, 999L, 1))).get(0);
+
+    assertThat(result.setterRotation().rotations()).isZero();
+    assertThat(result.setterRotation().finalAssignment())
+        .containsEntry(1, 999L)
+        .containsEntry(2, null);
+  }
+
+  @Test
+  void 不正なスロットや重複した選手はエラーになる() {
+    assertThatThrownBy(() -> rotationService.computeAll(List.of(new RotationRequest(Map.of(7, 1L)))))
+        .isInstanceOf(ImadokoException.class);
+    assertThatThrownBy(
+            () -> rotationService.computeAll(List.of(new RotationRequest(Map.of(1, 1L, 2, 1L)))))
+        .isInstanceOf(ImadokoException.class);
+    assertThatThrownBy(() -> rotationService.computeAll(List.of(new RotationRequest(BASE, 101L, null))))
+        .isInstanceOf(ImadokoException.class);
+    assertThatThrownBy(() -> rotationService.computeAll(List.of()))
+        .isInstanceOf(ImadokoException.class);
+  }
+
+  @Test
+  void PackedLineupの回転は負の数や大きな数も正規化する() {
+    long lineup = PackedLineup.EMPTY_LINEUP;
+    for (int slot = 1; slot <= 6; slot++) {
+      lineup = PackedLineup.with(lineup, slot, slot - 1);
+    }
+
+    assertThat(PackedLineup.rotate(lineup, 6)).isEqualTo(lineup);
+    assertThat(PackedLineup.rotate(lineup, 100)).isEqualTo(PackedLineup.rotate(lineup, 4));
+    assertThat(PackedLineup.rotate(lineup, -1)).isEqualTo(PackedLineup.rotate(lineup, 5));
+    assertThat(PackedLineup.reverseRotateSlot(6, 1)).isEqualTo(1);
+    assertThat(PackedLineup.reverseRotateSlot(1, -1)).isEqualTo(6);
+  }
+}
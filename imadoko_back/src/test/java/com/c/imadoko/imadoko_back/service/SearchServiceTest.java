@@ -0,0 +1,119 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
+import com.c.imadoko.imadoko_back.domain.Player;
+import com.c.imadoko.imadoko_back.domain.PlayerSummary;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamSummary;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/** SearchServiceのテスト @DataJpaTestでH2に対して検索クエリの絞り込みと順位付けを確認する */
+@DataJpaTest
+@Import(SearchService.class)
+class SearchServiceTest {
+
+  @Autowired private SearchService searchService;
+
+  @Autowired private TeamRepository teamRepository;
+
+  @Test
+  void チーム名は完全一致_前方一致_部分一致の順に返る() {
+    // Given: 検索語を異なる位置に含むチーム
+    team("Tokyo Eagles");
+    team("Eagles");
+    team("East Eagles Club");
+    team("Eagles Junior");
+    team("Hawks");
+
+    // When: 大文字小文字を区別せずに検索
+    List<TeamSummary> result = searchService.searchTeams("eagles", 0);
+
+    // Then: 完全一致、前方一致、部分一致（短い名前から）の順で、一致しないチームは含まない
+    assertThat(result)
+        .extracting(TeamSummary::teamName)
+        .containsExactly("Eagles", "Eagles Junior", "Tokyo Eagles", "East Eagles Club");
+  }
+
+  @Test
+  void 二文字以下の検索語は前方一致のみで件数は上限で切られる() {
+    // Given: 前方一致と部分一致のチーム
+    team("Aoba");
+    team("Aozora");
+    team("Kaoru");
+
+    // When: 2文字で1件だけ検索
+    List<TeamSummary> limited = searchService.searchTeams("ao", 1);
+    List<TeamSummary> all = searchService.searchTeams("ao", 0);
+
+    // Then: 部分一致のKaoruは含まず、limitで切られる
+    assertThat(all).extracting(TeamSummary::teamName).containsExactly("Aoba", "Aozora");
+    assertThat(limited).extracting(TeamSummary::teamName).containsExactly("Aoba");
+  }
+
+  @Test
+  void 検索語のワイルドカードは文字として扱われる() {
+    // Given: %を含む名前と含まない名前
+    team("100% Club");
+    team("1000 Club");
+
+    // When & Then: %は任意の文字列に一致しない
+    assertThat(searchService.searchTeams("100%", 0))
+        .extracting(TeamSummary::teamName)
+        .containsExactly("100% Club");
+  }
+
+  @Test
+  void 選手は姓または名で検索しポジションで絞り込める() {
+    // Given: 姓・名に検索語を含む選手
+    Team team =
+        team(
+            "Search Team",
+            new Player("Taro", "Yamada", "S"),
+            new Player("Hanako", "Yamamoto", "WS"),
+            new Player("Yamato", "Sato", "Li"),
+            new Player("Jiro", "Suzuki", "S"));
+
+    // When: ポジションを指定せずに検索
+    List<PlayerSummary> all = searchService.searchPlayers("yama", List.of(), 0);
+
+    // Then: 姓または名が一致した選手を姓名順に返し、所属チームを含む
+    assertThat(all)
+        .extracting(PlayerSummary::lastName)
+        .containsExactly("Sato", "Yamada", "Yamamoto");
+    assertThat(all.get(0).teamId()).isEqualTo(team.getId());
+    assertThat(all.get(0).teamName()).isEqualTo("Search Team");
+
+    // When & Then: ポジションで絞り込める
+    assertThat(searchService.searchPlayers("yama", List.of("S", "Li"), 0))
+        .extracting(PlayerSummary::lastName)
+        .containsExactly("Sato", "Yamada");
+  }
+
+  @Test
+  void 空の検索語や不正なポジションはリクエスト不正とする() {
+    // When & Then
+    assertThatThrownBy(() -> searchService.searchTeams("  ", 0))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.INVALID_REQUEST);
+    assertThatThrownBy(() -> searchService.searchPlayers("yama", List.of("GK"), 0))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.INVALID_REQUEST);
+  }
+
+  private Team team(String name, Player... players) {
+    Team team = new Team(name);
+    team.getPlayers().addAll(List.of(players));
+    return teamRepository.saveAndFlush(team);
+  }
+}
@@ -0,0 +1,56 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.c.imadoko.imadoko_back.api.dto.BulkItemResult;
+import com.c.imadoko.imadoko_back.api.dto.BulkResult;
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/** TeamBulkServiceのテスト @DataJpaTestでH2に対して一括登録を実行 */
+@DataJpaTest
+@Import(TeamBulkService.class)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+class TeamBulkServiceTest {
+
+  @Autowired private TeamBulkService teamBulkService;
+
+  @Autowired private TeamRepository teamRepository;
+
+  @Test
+  void 不正な項目と重複した項目だけを除外して一括登録できる() {
+    // Given: 既存チームと、正常・重複・不正が混在したリクエスト
+    teamRepository.saveAndFlush(new Team("Existing Team"));
+    List<TeamRequest> requests =
+        List.of(
+            new TeamRequest("Bulk Team 1", List.of(new PlayerRequest("Taro", "Yamada", "WS"))),
+            new TeamRequest("Existing Team", List.of()),
+            new TeamRequest("", List.of()),
+            new TeamRequest("Bulk Team 1", List.of()),
+            new TeamRequest("Bulk Team 2", List.of(new PlayerRequest("Jiro", "Sato", "XX"))),
+            new TeamRequest("Bulk Team 3", List.of()));
+
+    // When: 一括登録
+    BulkResult result = teamBulkService.createAll(requests, 0);
+
+    // Then: 正常な2件のみ登録され、残りは項目ごとにエラーコードが返る
+    assertThat(result.created()).isEqualTo(2);
+    assertThat(result.failed()).isEqualTo(4);
+    assertThat(result.items())
+        .extracting(BulkItemResult::code)
+        .containsExactly(null, "E102", "E400", "E102", "E400", null);
+    assertThat(result.items().get(0).id()).isNotNull();
+    assertThat(teamRepository.findById(result.items().get(0).id()))
+        .hasValueSatisfying(t -> assertThat(t.getPlayers()).hasSize(1));
+    assertThat(teamRepository.existsByTeamName("Bulk Team 3")).isTrue();
+  }
+}
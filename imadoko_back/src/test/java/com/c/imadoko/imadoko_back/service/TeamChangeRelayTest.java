@@ -0,0 +1,87 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import com.c.imadoko.imadoko_back.config.CacheConfig;
+import com.c.imadoko.imadoko_back.config.ReplicaRouting;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+/** TeamChangeRelayのテスト LISTENを開始していない状態（ローカル配信）と、受け取った通知の反映を確認 */
+@ExtendWith(MockitoExtension.class)
+class TeamChangeRelayTest {
+
+  @Mock private TeamEventBroadcaster broadcaster;
+  @Mock private EntityManager entityManager;
+  @Mock private DataSource dataSource;
+  @Mock private ObjectProvider<DataSourceProperties> dataSourceProperties;
+  @Mock private ObjectProvider<CacheManager> cacheManagerProvider;
+  @Mock private ObjectProvider<ReplicaRouting> replicaRouting;
+
+  private CacheManager cacheManager;
+  private TeamChangeRelay relay;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager = new ConcurrentMapCacheManager(CacheConfig.TEAMS, CacheConfig.TEAM_LIST);
+    relay =
+        new TeamChangeRelay(
+            broadcaster,
+            entityManager,
+            dataSource,
+            dataSourceProperties,
+            cacheManagerProvider,
+            replicaRouting,
+            new ObjectMapper(),
+            true,
+            1_000);
+  }
+
+  @Test
+  void LISTENしていない場合はコミット後にこのインスタンスの購読者へ配信する() throws Exception {
+    TeamChanged changed = new TeamChanged(1L, false);
+
+    relay.notifyChange(changed);
+    relay.publishLocally(changed);
+
+    // NOTIFYは発行しない
+    verifyNoInteractions(entityManager);
+    verify(broadcaster, times(1)).broadcast(changed);
+  }
+
+  @Test
+  void 受け取った通知で対象チームと一覧のキャッシュを破棄して配信する() {
+    // Given: 2チーム分と一覧がキャッシュされている
+    when(cacheManagerProvider.getIfAvailable()).thenReturn(cacheManager);
+    cacheManager.getCache(CacheConfig.TEAMS).put(1L, "team1");
+    cacheManager.getCache(CacheConfig.TEAMS).put(2L, "team2");
+    cacheManager.getCache(CacheConfig.TEAM_LIST).put("all", "teams");
+
+    // When: 他のインスタンスでのチーム1の変更を受け取る
+    relay.receive("{\"teamId\":1,\"deleted\":false}");
+
+    // Then: チーム1と一覧のみ破棄され、購読者に配信される
+    assertThat(cacheManager.getCache(CacheConfig.TEAMS).get(1L)).isNull();
+    assertThat(cacheManager.getCache(CacheConfig.TEAMS).get(2L)).isNotNull();
+    assertThat(cacheManager.getCache(CacheConfig.TEAM_LIST).get("all")).isNull();
+    verify(broadcaster, times(1)).broadcast(new TeamChanged(1L, false));
+  }
+
+  @Test
+  void 不正な通知は無視する() {
+    relay.receive("not json");
+
+    verifyNoInteractions(broadcaster);
+  }
+}
@@ -0,0 +1,123 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamChanges;
+import com.c.imadoko.imadoko_back.api.dto.TeamPatchRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+/** TeamChangeServiceのテスト @DataJpaTestでH2に対してTeamServiceで変更し、差分を取得する */
+@DataJpaTest
+@Import({TeamChangeService.class, TeamService.class})
+@TestPropertySource(properties = "app.teams.changes.settle=0s")
+class TeamChangeServiceTest {
+
+  @Autowired private TeamChangeService teamChangeService;
+
+  @Autowired private TeamService teamService;
+
+  @Autowired private TeamRepository teamRepository;
+
+  @Autowired private TeamChangeRepository teamChangeRepository;
+
+  @Test
+  void 前回の同期以降に作成更新削除されたチームのみを取得できる() {
+    // Given: 2チームを作成して同期済み
+    TeamResponse a = teamService.create(request("Sync Team A"));
+    TeamResponse b = teamService.create(request("Sync Team B"));
+    TeamChanges first = teamChangeService.findChanges(0, 0);
+    assertThat(first.upserted()).extracting(TeamResponse::id).containsExactly(a.id(), b.id());
+
+    // When: Aを2回更新し、Bを削除してから差分を取得
+    teamService.patch(a.id(), new TeamPatchRequest("Renamed", null), null);
+    teamService.update(a.id(), request("Renamed Again"));
+    teamService.delete(b.id());
+    TeamChanges second = teamChangeService.findChanges(first.highWaterMark(), 0);
+
+    // Then: Aは最新の状態で1件、Bは削除として返り、highWaterMarkが進む
+    assertThat(second.upserted())
+        .extracting(TeamResponse::teamName)
+        .containsExactly("Renamed Again");
+    assertThat(second.upserted().get(0).players()).hasSize(1);
+    assertThat(second.deleted()).containsExactly(b.id());
+    assertThat(second.highWaterMark()).isGreaterThan(first.highWaterMark());
+    assertThat(second.hasMore()).isFalse();
+
+    // Then: 以降に変更がなければ空で、highWaterMarkは変わらない
+    TeamChanges third = teamChangeService.findChanges(second.highWaterMark(), 0);
+    assertThat(third.upserted()).isEmpty();
+    assertThat(third.deleted()).isEmpty();
+    assertThat(third.highWaterMark()).isEqualTo(second.highWaterMark());
+  }
+
+  @Test
+  void 件数の上限を超える場合は続きがあることを返す() {
+    // Given: 3チームを作成
+    for (int i = 0; i < 3; i++) {
+      teamService.create(request("Page Team " + i));
+    }
+
+    // When: 2件ずつ取得
+    TeamChanges first = teamChangeService.findChanges(0, 2);
+    TeamChanges second = teamChangeService.findChanges(first.cursor(), 2);
+
+    // Then: 2件目までで区切られ、続きから残りの1件が返る
+    assertThat(first.upserted()).hasSize(2);
+    assertThat(first.hasMore()).isTrue();
+    assertThat(second.upserted()).extracting(TeamResponse::teamName).containsExactly("Page Team 2");
+    assertThat(second.hasMore()).isFalse();
+  }
+
+  @Test
+  void 確定していない変更は返すがhighWaterMarkは進めない() {
+    // Given: 登録直後の変更（1時間経過するまで確定としない）
+    TeamChangeService unsettled =
+        new TeamChangeService(teamChangeRepository, teamRepository, Duration.ofHours(1));
+    TeamResponse team = teamService.create(request("Recent Team"));
+
+    // When
+    TeamChanges changes = unsettled.findChanges(0, 0);
+
+    // Then: 次回の同期でも再度返されるよう、sinceのまま
+    assertThat(changes.upserted()).extracting(TeamResponse::id).containsExactly(team.id());
+    assertThat(changes.highWaterMark()).isZero();
+  }
+
+  @Test
+  void 確定していない変更だけで1ページある場合もcursorで続きを取得できる() {
+    // Given: 登録直後の3チーム（1時間経過するまで確定としない）
+    TeamChangeService unsettled =
+        new TeamChangeService(teamChangeRepository, teamRepository, Duration.ofHours(1));
+    for (int i = 0; i < 3; i++) {
+      teamService.create(request("Recent Team " + i));
+    }
+
+    // When: 2件ずつ、cursorで続きを取得
+    TeamChanges first = unsettled.findChanges(0, 2);
+    TeamChanges second = unsettled.findChanges(first.cursor(), 2);
+
+    // Then: highWaterMarkは進まないが、cursorで残りの1件まで取得できる
+    assertThat(first.highWaterMark()).isZero();
+    assertThat(first.hasMore()).isTrue();
+    assertThat(first.cursor()).isPositive();
+    assertThat(second.upserted())
+        .extracting(TeamResponse::teamName)
+        .containsExactly("Recent Team 2");
+    assertThat(second.hasMore()).isFalse();
+  }
+
+  private static TeamRequest request(String teamName) {
+    return new TeamRequest(teamName, List.of(new PlayerRequest("Taro", "Yamada", "WS")));
+  }
+}
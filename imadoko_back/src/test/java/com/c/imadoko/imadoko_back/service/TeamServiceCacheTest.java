@@ -0,0 +1,106 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import com.c.imadoko.imadoko_back.config.CacheConfig;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/** TeamServiceのキャッシュ動作のテスト キャッシュ設定とサービスのみを読み込み、リポジトリはモック化 */
+@SpringJUnitConfig
+@Import({CacheConfig.class, TeamService.class})
+@TestPropertySource(
+    properties = {
+      "app.cache.teams.spec=maximumSize=10,recordStats",
+      "app.cache.team-list.spec=maximumSize=1,recordStats"
+    })
+class TeamServiceCacheTest {
+
+  @Autowired private TeamService teamService;
+
+  @Autowired private CacheManager cacheManager;
+
+  @MockBean private TeamRepository teamRepository;
+
+  @MockBean private TeamChangeRepository teamChangeRepository;
+
+  private Team testTeam;
+  private List<TeamPlayerRow> testTeamRows;
+
+  @BeforeEach
+  void setUp() {
+    cacheManager.getCache(CacheConfig.TEAMS).clear();
+    cacheManager.getCache(CacheConfig.TEAM_LIST).clear();
+
+    testTeam = new Team("Test Team");
+    testTeam.setId(1L);
+    testTeam.setPlayers(new ArrayList<>());
+    testTeamRows = List.of(new TeamPlayerRow(1L, "Test Team", 0L, null, null, null, null));
+  }
+
+  @Test
+  void IDでの取得は2回目以降キャッシュから返る() {
+    // Given: モックの設定
+    when(teamRepository.findRowsById(1L)).thenReturn(testTeamRows);
+
+    // When: 同じIDで2回取得
+    TeamResponse first = teamService.findById(1L);
+    TeamResponse team = teamService.findById(1L);
+
+    // Then: リポジトリは1回しか呼ばれず、同じ（不変の）レスポンスが共有される
+    assertThat(team.teamName()).isEqualTo("Test Team");
+    assertThat(team).isSameAs(first);
+    verify(teamRepository, times(1)).findRowsById(1L);
+  }
+
+  @Test
+  void 更新するとチーム単体は最新値で置き換えられ一覧は破棄される() {
+    // Given: 一覧とチーム単体をキャッシュに載せる
+    when(teamRepository.findAllRows()).thenReturn(testTeamRows);
+    when(teamRepository.findRowsById(1L)).thenReturn(testTeamRows);
+    when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
+    when(teamRepository.saveAndFlush(any(Team.class))).thenAnswer(inv -> inv.getArgument(0));
+    teamService.findAll();
+    teamService.findById(1L);
+
+    // When: チームを更新
+    teamService.update(1L, new TeamRequest("Updated Team", List.of()));
+
+    // Then: 単体は再取得せずに更新後の値が返り、一覧はリポジトリから取り直される
+    assertThat(teamService.findById(1L).teamName()).isEqualTo("Updated Team");
+    verify(teamRepository, times(1)).findRowsById(1L);
+    teamService.findAll();
+    verify(teamRepository, times(2)).findAllRows();
+  }
+
+  @Test
+  void 削除するとチーム単体のキャッシュが破棄される() {
+    // Given: チーム単体をキャッシュに載せる
+    when(teamRepository.findRowsById(1L)).thenReturn(testTeamRows);
+    when(teamRepository.deleteTeamById(1L)).thenReturn(1);
+    teamService.findById(1L);
+
+    // When: チームを削除
+    teamService.delete(1L);
+
+    // Then: キャッシュから消えている
+    assertThat(cacheManager.getCache(CacheConfig.TEAMS).get(1L)).isNull();
+  }
+}
@@ -3,14 +3,21 @@ package com.c.imadoko.imadoko_back.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
+import com.c.imadoko.common.exception.ErrorCode;
+import com.c.imadoko.common.exception.ImadokoException;
 import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.PlayerResponse;
+import com.c.imadoko.imadoko_back.api.dto.TeamPatchRequest;
 import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
 import com.c.imadoko.imadoko_back.domain.Player;
 import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.domain.TeamPlayerRow;
+import com.c.imadoko.imadoko_back.repo.TeamChangeRepository;
 import com.c.imadoko.imadoko_back.repo.TeamRepository;
-import jakarta.persistence.EntityNotFoundException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 /** TeamServiceのテスト @ExtendWith(MockitoExtension.class)を使用してモックベースのテスト 実際のDBには接続せず、ビジネスロジックのみをテスト */
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +35,10 @@ class TeamServiceTest {
 
   @Mock private TeamRepository teamRepository;
 
+  @Mock private TeamChangeRepository teamChangeRepository;
+
+  @Mock private ApplicationEventPublisher eventPublisher;
+
   @InjectMocks private TeamService teamService;
 
   private TeamRequest testTeamRequest;
@@ -41,6 +53,7 @@ class TeamServiceTest {
     testTeam = new Team();
     testTeam.setId(1L);
     testTeam.setTeamName("Test Team");
+    testTeam.setVersion(3L);
 
     Player player = new Player();
     player.setId(1L);
@@ -55,103 +68,172 @@ class TeamServiceTest {
   @Test
   void 全チームを取得できる() {
     // Given: モックの設定
-    when(teamRepository.findAll()).thenReturn(List.of(testTeam));
+    when(teamRepository.findAllRows())
+        .thenReturn(
+            List.of(
+                new TeamPlayerRow(1L, "Test Team", 3L, 1L, "Taro", "Yamada", "WS"),
+                new TeamPlayerRow(1L, "Test Team", 3L, 2L, "Jiro", "Sato", "MB"),
+                new TeamPlayerRow(2L, "Empty Team", 0L, null, null, null, null)));
 
     // When: 全チームを取得
-    List<Team> teams = teamService.findAll();
+    List<TeamResponse> teams = teamService.findAll();
 
-    // Then: 結果を検証
-    assertThat(teams).hasSize(1);
-    assertThat(teams.get(0).getTeamName()).isEqualTo("Test Team");
-    verify(teamRepository, times(1)).findAll();
+    // Then: 行がチームごとにまとめられ、選手のいないチームは空のリストになる
+    assertThat(teams).extracting(TeamResponse::teamName).containsExactly("Test Team", "Empty Team");
+    assertThat(teams.get(0).players()).extracting(PlayerResponse::id).containsExactly(1L, 2L);
+    assertThat(teams.get(1).players()).isEmpty();
+    verify(teamRepository, never()).findAll();
   }
 
   @Test
   void IDでチームを取得できる() {
     // Given: モックの設定
-    when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
+    when(teamRepository.findRowsById(1L))
+        .thenReturn(List.of(new TeamPlayerRow(1L, "Test Team", 3L, 1L, "Taro", "Yamada", "WS")));
 
     // When: IDでチームを取得
-    Team team = teamService.findById(1L);
+    TeamResponse team = teamService.findById(1L);
 
     // Then: 結果を検証
-    assertThat(team.getTeamName()).isEqualTo("Test Team");
-    assertThat(team.getPlayers()).hasSize(1);
-    verify(teamRepository, times(1)).findById(1L);
+    assertThat(team.teamName()).isEqualTo("Test Team");
+    assertThat(team.version()).isEqualTo(3L);
+    assertThat(team.players()).hasSize(1);
+    verify(teamRepository, times(1)).findRowsById(1L);
   }
 
   @Test
   void 存在しないIDでチームを取得すると例外が発生する() {
     // Given: モックの設定（チームが見つからない）
-    when(teamRepository.findById(999L)).thenReturn(Optional.empty());
+    when(teamRepository.findRowsById(999L)).thenReturn(List.of());
 
     // When & Then: 例外が発生することを確認
     assertThatThrownBy(() -> teamService.findById(999L))
-        .isInstanceOf(EntityNotFoundException.class)
-        .hasMessageContaining("Team not found");
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.TEAM_NOT_FOUND);
 
-    verify(teamRepository, times(1)).findById(999L);
+    verify(teamRepository, times(1)).findRowsById(999L);
   }
 
   @Test
   void チームを作成できる() {
     // Given: モックの設定
-    when(teamRepository.existsByTeamName(any())).thenReturn(false);
-    when(teamRepository.save(any(Team.class))).thenReturn(testTeam);
+    when(teamRepository.saveAndFlush(any(Team.class))).thenReturn(testTeam);
 
     // When: チームを作成
-    Team createdTeam = teamService.create(testTeamRequest);
+    TeamResponse createdTeam = teamService.create(testTeamRequest);
 
     // Then: 結果を検証
-    assertThat(createdTeam.getTeamName()).isEqualTo("Test Team");
-    assertThat(createdTeam.getPlayers()).hasSize(1);
-    verify(teamRepository, times(1)).save(any(Team.class));
+    assertThat(createdTeam.teamName()).isEqualTo("Test Team");
+    assertThat(createdTeam.players()).hasSize(1);
+    verify(teamRepository, times(1)).saveAndFlush(any(Team.class));
+    verify(teamChangeRepository, times(1)).recordLatest(eq(testTeam.getId()), any());
   }
 
   @Test
   void チームを更新できる() {
     // Given: モックの設定
     when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
-    when(teamRepository.existsByTeamName(any())).thenReturn(false);
-    when(teamRepository.save(any(Team.class))).thenReturn(testTeam);
+    when(teamRepository.saveAndFlush(any(Team.class))).thenReturn(testTeam);
 
     PlayerRequest updatedPlayerRequest = new PlayerRequest("Jiro", "Sato", "MB");
     TeamRequest updatedRequest = new TeamRequest("Updated Team", List.of(updatedPlayerRequest));
 
     // When: チームを更新
-    Team updatedTeam = teamService.update(1L, updatedRequest);
+    TeamResponse updatedTeam = teamService.update(1L, updatedRequest);
 
     // Then: 結果を検証
     assertThat(updatedTeam).isNotNull();
     verify(teamRepository, times(1)).findById(1L);
-    verify(teamRepository, times(1)).save(any(Team.class));
+    verify(teamRepository, times(1)).saveAndFlush(any(Team.class));
+  }
+
+  @Test
+  void 更新時は選手IDで差分を反映し既存の選手を維持する() {
+    // Given: 既存選手(id=1)に加えてもう1人所属している
+    Player removed = new Player("Jiro", "Sato", "MB");
+    removed.setId(2L);
+    testTeam.getPlayers().add(removed);
+    Player existing = testTeam.getPlayers().get(0);
+    when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
+    when(teamRepository.saveAndFlush(any(Team.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    // When: id=1の名前を修正し、id=2を外して新しい選手を追加
+    TeamRequest request =
+        new TeamRequest(
+            "Test Team",
+            List.of(
+                new PlayerRequest(1L, "Taro", "Yamada", "S"),
+                new PlayerRequest("Saburo", "Suzuki", "Li")));
+    TeamResponse updated = teamService.update(1L, request);
+
+    // Then: id=1は同じインスタンスのまま更新され、id=2のみ削除される
+    assertThat(testTeam.getPlayers()).hasSize(2);
+    assertThat(testTeam.getPlayers().get(0)).isSameAs(existing);
+    assertThat(existing.getPosition()).isEqualTo("S");
+    assertThat(testTeam.getPlayers()).doesNotContain(removed);
+    assertThat(updated.players()).extracting(PlayerResponse::id).containsExactly(1L, null);
+    verify(teamRepository, never()).forceVersionIncrement(any());
+  }
+
+  @Test
+  void 部分更新で選手を省略するとチーム名のみ変更される() {
+    // Given: モックの設定
+    Player existing = testTeam.getPlayers().get(0);
+    when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
+    when(teamRepository.saveAndFlush(any(Team.class))).thenAnswer(inv -> inv.getArgument(0));
+
+    // When: チーム名のみ部分更新
+    TeamResponse patched = teamService.patch(1L, new TeamPatchRequest("Renamed Team", null), null);
+
+    // Then: 選手リストはそのまま
+    assertThat(patched.teamName()).isEqualTo("Renamed Team");
+    assertThat(testTeam.getPlayers()).containsExactly(existing);
+    assertThat(patched.players()).containsExactly(PlayerResponse.from(existing));
+  }
+
+  @Test
+  void If_Matchのバージョンが古い場合は更新せずに例外が発生する() {
+    // Given: モックの設定（現在のバージョンは3）
+    when(teamRepository.findById(1L)).thenReturn(Optional.of(testTeam));
+
+    // When & Then: バージョン2を指定すると412相当の例外が発生する
+    assertThatThrownBy(() -> teamService.update(1L, testTeamRequest, 2L))
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.TEAM_VERSION_MISMATCH);
+
+    verify(teamRepository, never()).saveAndFlush(any());
   }
 
   @Test
   void チームを削除できる() {
     // Given: モックの設定
-    when(teamRepository.existsById(1L)).thenReturn(true);
-    doNothing().when(teamRepository).deleteById(1L);
+    when(teamRepository.deleteTeamById(1L)).thenReturn(1);
 
     // When: チームを削除
     teamService.delete(1L);
 
-    // Then: 削除メソッドが呼ばれたことを確認
-    verify(teamRepository, times(1)).existsById(1L);
-    verify(teamRepository, times(1)).deleteById(1L);
+    // Then: 存在確認をせず、1文で削除する
+    verify(teamRepository, times(1)).deleteTeamById(1L);
+    verify(teamRepository, never()).existsById(any());
+    verify(teamChangeRepository, times(1)).recordLatest(eq(1L), any());
+    verify(eventPublisher, times(1)).publishEvent(new TeamChanged(1L, true));
   }
 
   @Test
   void 存在しないチームを削除しようとすると例外が発生する() {
     // Given: モックの設定（チームが存在しない）
-    when(teamRepository.existsById(999L)).thenReturn(false);
+    when(teamRepository.deleteTeamById(999L)).thenReturn(0);
 
     // When & Then: 例外が発生することを確認
     assertThatThrownBy(() -> teamService.delete(999L))
-        .isInstanceOf(EntityNotFoundException.class)
-        .hasMessageContaining("Team not found");
+        .isInstanceOf(ImadokoException.class)
+        .extracting("errorCode")
+        .isEqualTo(ErrorCode.TEAM_NOT_FOUND);
 
-    verify(teamRepository, times(1)).existsById(999L);
-    verify(teamRepository, never()).deleteById(any());
+    verify(teamRepository, times(1)).deleteTeamById(999L);
+    verify(teamChangeRepository, never()).recordLatest(anyLong(), any());
+    verify(eventPublisher, never()).publishEvent(any());
   }
 }
@@ -0,0 +1,80 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.c.imadoko.imadoko_back.api.dto.PlayerRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamRequest;
+import com.c.imadoko.imadoko_back.api.dto.TeamResponse;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * TeamServiceが返すバージョンのテスト @DataJpaTestでH2に対して更新し、コミット後のバージョンと比較する
+ *
+ * <p>返したバージョンはETagとキャッシュに使われるため、コミットされた値と一致している必要がある。
+ */
+@DataJpaTest
+@Import(TeamService.class)
+class TeamServiceVersionTest {
+
+  @Autowired private TeamService teamService;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  /** コミット後の値と比べるため、テスト用のトランザクションを使わない */
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void 選手の属性のみ変更した場合も返すバージョンとデータベースのバージョンが一致する() {
+    // Given: 選手1人のチームを作成
+    TeamResponse created =
+        teamService.create(
+            new TeamRequest("Version Team", List.of(new PlayerRequest("Taro", "Yamada", "WS"))));
+    Long id = created.id();
+    Long playerId = created.players().get(0).id();
+    try {
+      // When: 選手の名前だけを変更
+      TeamResponse updated =
+          teamService.update(
+              id,
+              new TeamRequest(
+                  "Version Team", List.of(new PlayerRequest(playerId, "Taro", "Yamado", "WS"))),
+              created.version());
+
+      // Then: バージョンが進み、返した値がコミットされた値と一致する
+      assertThat(updated.version()).isEqualTo(created.version() + 1);
+      assertThat(updated.version()).isEqualTo(versionInDatabase(id));
+    } finally {
+      teamService.delete(id);
+      jdbcTemplate.update("delete from team_change where team_id = ?", id);
+    }
+  }
+
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void チーム名を変更した場合も返すバージョンとデータベースのバージョンが一致する() {
+    // Given
+    TeamResponse created = teamService.create(new TeamRequest("Rename Team", List.of()));
+    Long id = created.id();
+    try {
+      // When
+      TeamResponse updated = teamService.update(id, new TeamRequest("Renamed Team", List.of()));
+
+      // Then
+      assertThat(updated.version()).isEqualTo(created.version() + 1);
+      assertThat(updated.version()).isEqualTo(versionInDatabase(id));
+    } finally {
+      teamService.delete(id);
+      jdbcTemplate.update("delete from team_change where team_id = ?", id);
+    }
+  }
+
+  private Long versionInDatabase(Long id) {
+    return jdbcTemplate.queryForObject("select version from team where id = ?", Long.class, id);
+  }
+}
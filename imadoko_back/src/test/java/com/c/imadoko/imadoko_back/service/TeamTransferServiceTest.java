@@ -0,0 +1,100 @@
+package com.c.imadoko.imadoko_back.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.c.imadoko.imadoko_back.api.dto.BulkItemResult;
+import com.c.imadoko.imadoko_back.api.dto.BulkResult;
+import com.c.imadoko.imadoko_back.domain.Player;
+import com.c.imadoko.imadoko_back.domain.Team;
+import com.c.imadoko.imadoko_back.repo.TeamRepository;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+/** TeamTransferServiceのテスト NDJSONのエクスポート/インポートをH2で確認 */
+@DataJpaTest
+@Import({TeamTransferService.class, TeamBulkService.class})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+class TeamTransferServiceTest {
+
+  @Autowired private TeamTransferService teamTransferService;
+
+  @Autowired private TeamRepository teamRepository;
+
+  @Test
+  void 全チームを選手込みで1行1チームとして出力できる() throws Exception {
+    // Given: 選手の人数が異なる2チーム
+    Team team1 = new Team("Export Team 1");
+    team1.getPlayers().add(new Player("Taro", "Yamada", "WS"));
+    team1.getPlayers().add(new Player("Jiro", "Sato", "MB"));
+    teamRepository.saveAndFlush(team1);
+    teamRepository.saveAndFlush(new Team("Export Team 2"));
+
+    // When: エクスポート
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    long count = teamTransferService.exportTo(out);
+
+    // Then: fetch joinでも重複せず、1チーム1行で出力される
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(count).isEqualTo(2);
+    assertThat(lines).hasSize(2);
+    assertThat(lines.get(0)).contains("\"Export Team 1\"", "\"Taro\"", "\"Jiro\"");
+    assertThat(lines.get(0)).doesNotContain("\"id\"");
+    assertThat(lines.get(1)).contains("\"Export Team 2\"");
+  }
+
+  @Test
+  void 不正な行があっても残りの行を登録できる() throws Exception {
+    // Given: 正常な行、壊れた行、バリデーションエラーの行、空行
+    String ndjson =
+        String.join(
+            "\n",
+            "{\"teamName\":\"Import Team 1\",\"players\":[{\"firstName\":\"Taro\",\"lastName\":\"Yamada\",\"position\":\"S\"}]}",
+            "{\"teamName\":",
+            "",
+            "{\"teamName\":\"\",\"players\":[]}",
+            "{\"teamName\":\"Import Team 2\",\"players\":[]}");
+
+    // When: インポート
+    BulkResult result =
+        teamTransferService.importFrom(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+    // Then: 失敗した行のみ行番号付きで返る
+    assertThat(result.created()).isEqualTo(2);
+    assertThat(result.failed()).isEqualTo(2);
+    assertThat(result.items()).extracting(BulkItemResult::index).containsExactly(1, 3);
+    assertThat(teamRepository.existsByTeamName("Import Team 2")).isTrue();
+  }
+
+  @Test
+  void 上限を超える行はその行のみE400として残りの行を登録できる() throws Exception {
+    // Given: 上限を超える長さのチーム名の行と、正常な行（CRLF区切り）
+    String tooLong =
+        "{\"teamName\":\"" + "x".repeat(TeamTransferService.MAX_LINE_BYTES) + "\",\"players\":[]}";
+    String ndjson =
+        String.join(
+            "\r\n", tooLong, "{\"teamName\":\"Import Team After Long Line\",\"players\":[]}");
+
+    // When: インポート
+    BulkResult result =
+        teamTransferService.importFrom(
+            new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+    // Then: 長すぎる行は行番号付きのE400となり、次の行から読み込みを続ける
+    assertThat(result.created()).isEqualTo(1);
+    assertThat(result.items()).extracting(BulkItemResult::index).containsExactly(0);
+    assertThat(result.items()).extracting(BulkItemResult::code).containsExactly("E400");
+    assertThat(teamRepository.findAll())
+        .extracting(Team::getTeamName)
+        .contains("Import Team After Long Line");
+  }
+}
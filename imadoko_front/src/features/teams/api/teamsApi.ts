@@ -1,10 +1,60 @@
-import { apiClient } from '../../../lib/apiClient';
-import type { Team } from '../../../types';
+import { API_BASE_URL, apiClient } from '../../../lib/apiClient';
+import type { PlayerSummary, Position, Team, TeamChanges, TeamSummary } from '../../../types';
 
 export const getTeams = async (): Promise<Team[]> => {
   return apiClient.get<Team[]>('/teams');
 };
 
+/** sinceより後に作成・更新・削除されたチームのみを取得する（初回は0） */
+export const getTeamChanges = async (since: number): Promise<TeamChanges> => {
+  return apiClient.get<TeamChanges>('/teams/changes', { since: String(since) });
+};
+
+/** チーム名で検索する。完全一致、前方一致、部分一致の順に上位のみが返る */
+export const searchTeams = async (q: string, limit?: number): Promise<TeamSummary[]> => {
+  const params: Record<string, string> = { q };
+  if (limit) {
+    params.limit = String(limit);
+  }
+  return apiClient.get<TeamSummary[]>('/teams/search', params);
+};
+
+/** 姓または名で選手を検索する。positionsを指定するとそのポジションに絞り込む */
+export const searchPlayers = async (
+  q: string,
+  positions: Position[] = [],
+  limit?: number
+): Promise<PlayerSummary[]> => {
+  const params: Record<string, string> = { q };
+  if (positions.length > 0) {
+    params.position = positions.join(',');
+  }
+  if (limit) {
+    params.limit = String(limit);
+  }
+  return apiClient.get<PlayerSummary[]>('/players/search', params);
+};
+
+/**
+ * チームの変更通知（SSE）を購読する。戻り値の関数で購読を終了する
+ * 通知には変更内容を含まないため、onChangeでは差分同期を行う。再接続時は切断中の通知を取りこぼしうるため、onChangeを呼ぶ
+ */
+export const subscribeTeamEvents = (onChange: () => void): (() => void) => {
+  if (typeof EventSource === 'undefined') {
+    return () => {};
+  }
+  const source = new EventSource(`${API_BASE_URL}/teams/events`);
+  let connected = false;
+  source.addEventListener('open', () => {
+    if (connected) {
+      onChange();
+    }
+    connected = true;
+  });
+  source.addEventListener('change', () => onChange());
+  return () => source.close();
+};
+
 export const createTeam = async (team: Omit<Team, 'id'>): Promise<Team> => {
   return apiClient.post<Team>('/teams', team);
 };
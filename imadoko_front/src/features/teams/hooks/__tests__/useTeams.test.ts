@@ -2,7 +2,7 @@ import { renderHook, waitFor } from '@testing-library/react';
 import { useTeams } from '../useTeams';
 import * as teamsApi from '../../api/teamsApi';
 import { useToast } from '../../../../components/ui/Toast';
-import type { Team } from '../../../../types';
+import type { Team, TeamChanges } from '../../../../types';
 
 // モック設定
 jest.mock('../../api/teamsApi');
@@ -31,6 +31,14 @@ describe('useTeams', () => {
     },
   ];
 
+  const changes = (upserted: Team[], deleted: number[], highWaterMark: number): TeamChanges => ({
+    upserted,
+    deleted,
+    highWaterMark,
+    cursor: highWaterMark,
+    hasMore: false,
+  });
+
   beforeEach(() => {
     jest.clearAllMocks();
     mockUseToast.mockReturnValue({ showToast: mockShowToast });
@@ -38,7 +46,7 @@ describe('useTeams', () => {
 
   describe('fetchTeams', () => {
     it('チームを正常に取得できる', async () => {
-      mockTeamsApi.getTeams.mockResolvedValue(mockTeams);
+      mockTeamsApi.getTeamChanges.mockResolvedValue(changes(mockTeams, [], 2));
 
       const { result } = renderHook(() => useTeams());
 
@@ -48,14 +56,51 @@ describe('useTeams', () => {
 
       expect(result.current.teams).toEqual(mockTeams);
       expect(result.current.error).toBeNull();
-      expect(mockTeamsApi.getTeams).toHaveBeenCalledTimes(1);
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenCalledTimes(1);
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenCalledWith(0);
+    });
+
+    it('続きがある場合はcursorから続けて取得する', async () => {
+      mockTeamsApi.getTeamChanges
+        .mockResolvedValueOnce({ ...changes([mockTeams[0]], [], 1), hasMore: true })
+        .mockResolvedValueOnce(changes([mockTeams[1]], [], 2));
+
+      const { result } = renderHook(() => useTeams());
+
+      await waitFor(() => {
+        expect(result.current.teams).toEqual(mockTeams);
+      });
+
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenNthCalledWith(1, 0);
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenNthCalledWith(2, 1);
+    });
+
+    it('確定していない変更だけで1ページある場合もcursorで最後まで取得する', async () => {
+      mockTeamsApi.getTeamChanges
+        .mockResolvedValueOnce({ ...changes([mockTeams[0]], [], 0), cursor: 1, hasMore: true })
+        .mockResolvedValueOnce({ ...changes([mockTeams[1]], [], 2), cursor: 2 })
+        .mockResolvedValue(changes([], [], 0));
+
+      const { result } = renderHook(() => useTeams());
+
+      await waitFor(() => {
+        expect(result.current.teams).toEqual(mockTeams);
+      });
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenNthCalledWith(2, 1);
+
+      // 次回の同期は確定した位置（0）から行う
+      mockTeamsApi.createTeam.mockResolvedValue(undefined);
+      await result.current.actions.createTeam({ teamName: 'New Team', players: [] });
+      await waitFor(() => {
+        expect(mockTeamsApi.getTeamChanges).toHaveBeenLastCalledWith(0);
+      });
     });
 
     it('取得エラー時に適切なエラーメッセージを表示', async () => {
       const error = {
         response: { status: 500 },
       };
-      mockTeamsApi.getTeams.mockRejectedValue(error);
+      mockTeamsApi.getTeamChanges.mockRejectedValue(error);
 
       const { result } = renderHook(() => useTeams());
 
@@ -71,7 +116,7 @@ describe('useTeams', () => {
       const error = {
         response: { status: 404 },
       };
-      mockTeamsApi.getTeams.mockRejectedValue(error);
+      mockTeamsApi.getTeamChanges.mockRejectedValue(error);
 
       const { result } = renderHook(() => useTeams());
 
@@ -92,7 +137,9 @@ describe('useTeams', () => {
       };
 
       mockTeamsApi.createTeam.mockResolvedValue(undefined);
-      mockTeamsApi.getTeams.mockResolvedValue([...mockTeams, { ...newTeam, id: 3 }]);
+      mockTeamsApi.getTeamChanges
+        .mockResolvedValueOnce(changes(mockTeams, [], 2))
+        .mockResolvedValueOnce(changes([{ ...newTeam, id: 3 }], [], 3));
 
       const { result } = renderHook(() => useTeams());
 
@@ -107,6 +154,11 @@ describe('useTeams', () => {
       });
 
       expect(mockTeamsApi.createTeam).toHaveBeenCalledWith(newTeam);
+      // 作成後は前回の同期以降の差分のみを取得する
+      expect(mockTeamsApi.getTeamChanges).toHaveBeenLastCalledWith(2);
+      await waitFor(() => {
+        expect(result.current.teams.map((team) => team.id)).toEqual([1, 2, 3]);
+      });
       expect(mockShowToast).toHaveBeenCalledWith('success', 'チーム「New Team」を作成しました');
     });
 
@@ -120,6 +172,7 @@ describe('useTeams', () => {
       };
 
       mockTeamsApi.createTeam.mockRejectedValue(error);
+      mockTeamsApi.getTeamChanges.mockResolvedValue(changes(mockTeams, [], 2));
 
       const { result } = renderHook(() => useTeams());
 
@@ -145,7 +198,9 @@ describe('useTeams', () => {
       };
 
       mockTeamsApi.updateTeam.mockResolvedValue(undefined);
-      mockTeamsApi.getTeams.mockResolvedValue([{ ...updatedTeam, id: 1 }, mockTeams[1]]);
+      mockTeamsApi.getTeamChanges
+        .mockResolvedValueOnce(changes(mockTeams, [], 2))
+        .mockResolvedValueOnce(changes([{ ...updatedTeam, id: 1 }], [], 4));
 
       const { result } = renderHook(() => useTeams());
 
@@ -160,6 +215,9 @@ describe('useTeams', () => {
       });
 
       expect(mockTeamsApi.updateTeam).toHaveBeenCalledWith(1, updatedTeam);
+      await waitFor(() => {
+        expect(result.current.teams[0].teamName).toBe('Updated Team');
+      });
       expect(mockShowToast).toHaveBeenCalledWith('success', 'チーム「Updated Team」を更新しました');
     });
   });
@@ -167,7 +225,9 @@ describe('useTeams', () => {
   describe('deleteTeam', () => {
     it('チームを正常に削除できる', async () => {
       mockTeamsApi.deleteTeam.mockResolvedValue(undefined);
-      mockTeamsApi.getTeams.mockResolvedValue([mockTeams[1]]);
+      mockTeamsApi.getTeamChanges
+        .mockResolvedValueOnce(changes(mockTeams, [], 2))
+        .mockResolvedValueOnce(changes([], [1], 5));
 
       const { result } = renderHook(() => useTeams());
 
@@ -182,6 +242,9 @@ describe('useTeams', () => {
       });
 
       expect(mockTeamsApi.deleteTeam).toHaveBeenCalledWith(1);
+      await waitFor(() => {
+        expect(result.current.teams).toEqual([mockTeams[1]]);
+      });
       expect(mockShowToast).toHaveBeenCalledWith('success', 'チームを削除しました');
     });
   });
@@ -1,24 +1,64 @@
-import { useState, useEffect, useCallback } from 'react';
-import type { Team } from '../../../types';
+import { useState, useEffect, useCallback, useRef } from 'react';
+import type { Team, TeamChanges } from '../../../types';
 import { ApiError } from '../../../types/api';
 import * as teamsApi from '../api/teamsApi';
 import { useToast } from '../../../components/ui/Toast';
 import { logger } from '../../../lib/logger';
 
+/**
+ * 差分を一覧に反映する（id順を維持）
+ */
+const applyChanges = (current: Team[], changes: TeamChanges): Team[] => {
+  const byId = new Map(current.map((team) => [team.id, team]));
+  changes.upserted.forEach((team) => byId.set(team.id, team));
+  changes.deleted.forEach((id) => byId.delete(id));
+  return Array.from(byId.values()).sort((a, b) => a.id - b.id);
+};
+
+/**
+ * sinceより後の変更を、続きがなくなるまで取得する
+ * 続きはcursor（返された最後の変更）から取得する。次回の同期に使うhighWaterMarkは、確定していない変更を含む最初のページの
+ * highWaterMarkで止める（それ以降のページのhighWaterMarkは確定していない変更を飛び越えているため使わない）
+ */
+const loadChanges = async (since: number) => {
+  const pages: TeamChanges[] = [];
+  let cursor = since;
+  let highWaterMark = since;
+  let settled = true;
+  for (;;) {
+    const changes = await teamsApi.getTeamChanges(cursor);
+    pages.push(changes);
+    if (settled) {
+      highWaterMark = changes.highWaterMark;
+      settled = changes.highWaterMark === changes.cursor;
+    }
+    if (!changes.hasMore || changes.cursor <= cursor) {
+      return { pages, highWaterMark };
+    }
+    cursor = changes.cursor;
+  }
+};
+
 export const useTeams = () => {
   const [teams, setTeams] = useState<Team[]>([]);
   const [isLoading, setIsLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const { showToast } = useToast();
+  // 前回の同期で受け取ったhighWaterMark（次回はこれより後の変更のみを取得する）
+  const sinceRef = useRef(0);
+  // 同期は順番に行う（後から始めた同期の結果を、先に始めた同期の古い結果で上書きしない）
+  const syncQueueRef = useRef<Promise<void>>(Promise.resolve());
 
   const fetchTeams = useCallback(async () => {
     setIsLoading(true);
     setError(null);
     try {
       logger.debug('Fetching teams from:', process.env.NEXT_PUBLIC_API_URL);
-      const data = await teamsApi.getTeams();
+      const { pages, highWaterMark } = await loadChanges(0);
+      const data = pages.reduce(applyChanges, [] as Team[]);
       logger.info('Teams fetched successfully', { count: data.length });
       setTeams(data);
+      sinceRef.current = highWaterMark;
     } catch (err) {
       if (err instanceof ApiError) {
         const errorMsg = err.message || 'チームの取得に失敗しました';
@@ -36,12 +76,31 @@ export const useTeams = () => {
     }
   }, [showToast]);
 
+  /**
+   * 前回の同期以降の変更のみを取得して一覧に反映する（作成・更新・削除の後に使用）
+   */
+  const syncTeams = useCallback(() => {
+    const run = async () => {
+      try {
+        const { pages, highWaterMark } = await loadChanges(sinceRef.current);
+        setTeams((current) => pages.reduce(applyChanges, current));
+        sinceRef.current = highWaterMark;
+      } catch (err) {
+        // 差分を取得できない場合は全件を取り直す
+        logger.warn('Failed to sync team changes, reloading all teams', err);
+        await fetchTeams();
+      }
+    };
+    syncQueueRef.current = syncQueueRef.current.then(run);
+    return syncQueueRef.current;
+  }, [fetchTeams]);
+
   const createTeam = async (team: Omit<Team, 'id'>) => {
     setIsLoading(true);
     setError(null);
     try {
       await teamsApi.createTeam(team);
-      await fetchTeams();
+      await syncTeams();
       showToast('success', `チーム「${team.teamName}」を作成しました`);
     } catch (err) {
       if (err instanceof ApiError) {
@@ -78,7 +137,7 @@ export const useTeams = () => {
     setError(null);
     try {
       await teamsApi.updateTeam(id, team);
-      await fetchTeams();
+      await syncTeams();
       showToast('success', `チーム「${team.teamName}」を更新しました`);
     } catch (err) {
       if (err instanceof ApiError) {
@@ -119,7 +178,7 @@ export const useTeams = () => {
     setError(null);
     try {
       await teamsApi.deleteTeam(id);
-      await fetchTeams();
+      await syncTeams();
       showToast('success', 'チームを削除しました');
     } catch (err) {
       if (err instanceof ApiError) {
@@ -149,6 +208,9 @@ export const useTeams = () => {
     // eslint-disable-next-line react-hooks/exhaustive-deps
   }, []);
 
+  // 他の端末（他のサーバーインスタンスを含む）での変更通知を受けたら差分同期する
+  useEffect(() => teamsApi.subscribeTeamEvents(() => void syncTeams()), [syncTeams]);
+
   return {
     teams,
     isLoading,
@@ -4,8 +4,9 @@
 // ============================================================
 
 import { ApiError, ApiErrorResponse } from '../types/api';
+import { logger } from './logger';
 
-const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api';
+export const API_BASE_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api';
 const MAX_RETRIES = 3;
 const RETRY_DELAY_BASE = 1000; // 1秒
 
@@ -25,14 +26,23 @@ function delay(ms: number): Promise<void> {
  */
 function shouldRetry(error: unknown): boolean {
     if (error instanceof ApiError) {
-        // E999（サーバー内部エラー）のみリトライ対象
-        // 4xx系エラー（E400, E101, E102等）はリトライしない
-        return error.code === 'E999';
+        // E999（サーバー内部エラー）と、Retry-Afterが指定された流量制限（E429）・同じIdempotency-Keyの処理中（E409）を
+        // リトライ対象とする。それ以外の4xx系エラー（E400, E101, E102等）はリトライしない
+        const waitable = error.code === 'E429' || error.code === 'E409';
+        return error.code === 'E999' || (waitable && error.retryAfterMs !== undefined);
     }
     // ネットワークエラー（fetch失敗等）はリトライ対象
     return true;
 }
 
+/**
+ * Retry-Afterヘッダー（秒数）をミリ秒に変換する。日付形式や未指定の場合は undefined
+ */
+function parseRetryAfter(value: string | null): number | undefined {
+    const seconds = value === null ? NaN : Number(value);
+    return Number.isFinite(seconds) && seconds >= 0 ? seconds * 1000 : undefined;
+}
+
 /**
  * 基本的なfetch処理（リトライなし）
  */
@@ -51,9 +61,17 @@ async function apiFetch<T>(endpoint: string, options: RequestOptions = {}): Prom
     };
 
     try {
-        const res = await fetch(url, { ...init, headers });
+        // credentials: 更新直後の読み取りをプライマリDBに固定するCookie（read-your-writes）を送受信する
+        const res = await fetch(url, { credentials: 'include', ...init, headers });
+
+        // サーバー側の処理時間の内訳（開発環境のみ出力）
+        const serverTiming = res.headers.get('Server-Timing');
+        if (serverTiming) {
+            logger.debug(`Server-Timing ${init.method ?? 'GET'} ${endpoint}: ${serverTiming}`);
+        }
 
         if (!res.ok) {
+            const retryAfterMs = parseRetryAfter(res.headers.get('Retry-After'));
             let errorJson: ApiErrorResponse;
             try {
                 errorJson = await res.json();
@@ -66,7 +84,7 @@ async function apiFetch<T>(endpoint: string, options: RequestOptions = {}): Prom
                     timestamp: new Date().toISOString(),
                 });
             }
-            throw new ApiError(errorJson);
+            throw new ApiError(errorJson, retryAfterMs);
         }
 
         // 204 No Content の場合は null を返す
@@ -103,8 +121,10 @@ async function apiFetchWithRetry<T>(
     } catch (error) {
         // リトライ可能なエラーで、かつリトライ回数が残っている場合
         if (retries > 0 && shouldRetry(error)) {
-            // Exponential backoff: 1秒 → 2秒 → 3秒
-            const delayMs = RETRY_DELAY_BASE * (MAX_RETRIES - retries + 1);
+            // Exponential backoff: 1秒 → 2秒 → 3秒（Retry-Afterが指定された場合はそれ以上待つ）
+            const backoffMs = RETRY_DELAY_BASE * (MAX_RETRIES - retries + 1);
+            const retryAfterMs = error instanceof ApiError ? (error.retryAfterMs ?? 0) : 0;
+            const delayMs = Math.max(backoffMs, retryAfterMs);
 
             // デバッグログ（本番環境では削除可能）
             console.warn(`API request failed, retrying in ${delayMs}ms... (${retries} retries left)`);
@@ -118,6 +138,14 @@ async function apiFetchWithRetry<T>(
     }
 }
 
+/**
+ * 更新リクエストにIdempotency-Keyを付ける
+ * リトライでは同じキーを送るため、最初のリクエストが処理済みでもサーバーは同じレスポンスを返す（二重登録やE102にならない）
+ */
+function idempotent(init: RequestOptions): RequestOptions {
+    return { ...init, headers: { ...init.headers, 'Idempotency-Key': crypto.randomUUID() } };
+}
+
 /**
  * 公開APIクライアント
  */
@@ -126,10 +154,10 @@ export const apiClient = {
         apiFetchWithRetry<T>(endpoint, { method: 'GET', params }),
 
     post: <T>(endpoint: string, body: unknown) =>
-        apiFetchWithRetry<T>(endpoint, { method: 'POST', body: JSON.stringify(body) }),
+        apiFetchWithRetry<T>(endpoint, idempotent({ method: 'POST', body: JSON.stringify(body) })),
 
     put: <T>(endpoint: string, body: unknown) =>
-        apiFetchWithRetry<T>(endpoint, { method: 'PUT', body: JSON.stringify(body) }),
+        apiFetchWithRetry<T>(endpoint, idempotent({ method: 'PUT', body: JSON.stringify(body) })),
 
     delete: <T>(endpoint: string) =>
         apiFetchWithRetry<T>(endpoint, { method: 'DELETE' }),
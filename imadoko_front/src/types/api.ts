@@ -8,11 +8,14 @@ export interface ApiErrorResponse {
 export class ApiError extends Error {
     code: string;
     details: string[];
+    /** Retry-Afterヘッダー（ミリ秒）。429（E429）などで再試行までの待ち時間が指定された場合のみ */
+    retryAfterMs?: number;
 
-    constructor(res: ApiErrorResponse) {
+    constructor(res: ApiErrorResponse, retryAfterMs?: number) {
         super(res.message);
         this.name = 'ApiError';
         this.code = res.code;
         this.details = res.details;
+        this.retryAfterMs = retryAfterMs;
     }
 }
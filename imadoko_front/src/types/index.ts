@@ -13,6 +13,29 @@ export type Team = {
   players: Player[];
 };
 
+// 差分同期（GET /api/teams/changes）のレスポンス
+export type TeamChanges = {
+  upserted: Team[];
+  deleted: number[];
+  // 確定した変更の位置（次回の同期のsince）
+  highWaterMark: number;
+  // 返した最後の変更の位置（hasMoreの場合の続きのsince）
+  cursor: number;
+  hasMore: boolean;
+};
+
+// 検索（GET /api/teams/search, /api/players/search）の結果
+export type TeamSummary = {
+  id: number;
+  teamName: string;
+  playerCount: number;
+};
+
+export type PlayerSummary = Player & {
+  teamId: number;
+  teamName: string;
+};
+
 export type CourtSlotId = 1 | 2 | 3 | 4 | 5 | 6;
 
 export type CourtAssignment = Record<CourtSlotId, Player | null>;